@@ -0,0 +1,70 @@
+package com.example.loan.bench;
+
+import com.example.loan.BatchLoanCalculator;
+import com.example.loan.LoanResult;
+import com.example.loan.LoanSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Škálování dávkového výpočtu podle počtu vláken. Porovnáním časů pro různé
+ * hodnoty parallelism je vidět, jak blízko lineárnímu zrychlení výpočet je.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    @Param({ "100000" })
+    public int loans;
+
+    @Param({ "false", "true" })
+    public boolean includeSchedules;
+
+    private LoanSpec[] portfolio;
+    private BatchLoanCalculator calculator;
+
+    @Setup
+    public void setUp() {
+        // Pevné semínko, aby všechna měření počítala stejné portfolio
+        SplittableRandom random = new SplittableRandom(42);
+        portfolio = new LoanSpec[loans];
+        for (int i = 0; i < loans; i++) {
+            portfolio[i] = new LoanSpec(
+                    BigDecimal.valueOf(random.nextLong(100_000_00L, 15_000_000_00L), 2),
+                    BigDecimal.valueOf(random.nextInt(0, 1000), 2),
+                    12 * random.nextInt(5, 31));
+        }
+        calculator = new BatchLoanCalculator(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        calculator.close();
+    }
+
+    @Benchmark
+    public LoanResult[] calculatePortfolio() {
+        return calculator.calculate(portfolio, includeSchedules);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.loan.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Spouštěč benchmarků. Přijímá stejné argumenty jako JMH (např. filtr benchmarků,
+ * -p term=1200), vždy ale zapíná profiler alokací (gc.alloc.rate.norm) a ukládá
+ * výsledky ve formátu JSON, aby šly porovnávat mezi sestaveními.
+ */
+public class BenchmarkMain {
+
+    /**
+     * Vstupní bod benchmarků.
+     *
+     * @param args Argumenty příkazového řádku JMH.
+     * @throws Exception Pokud se benchmarky nepodaří spustit.
+     */
+    public static void main(String[] args) throws Exception {
+        // Soubor s výsledky lze změnit systémovou vlastností, např. -Dbench.result=build-123.json
+        String resultFile = System.getProperty("bench.result", "jmh-result.json");
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+
+        new Runner(options).run();
+    }
+}
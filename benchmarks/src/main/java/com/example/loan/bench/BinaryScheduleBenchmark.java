@@ -0,0 +1,91 @@
+package com.example.loan.bench;
+
+import com.example.loan.BinaryScheduleFile;
+import com.example.loan.BinaryScheduleWriter;
+import com.example.loan.LoanSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binární soubor kalendářů: zápis celého portfolia a náhodný přístup k jednomu měsíci
+ * libovolného úvěru v namapovaném souboru.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryScheduleBenchmark {
+
+    @Param({ "10000" })
+    public int loans;
+
+    private LoanSpec[] portfolio;
+    private Path file;
+    private Path writeFile;
+    private BinaryScheduleFile schedules;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() throws IOException {
+        random = new SplittableRandom(42);
+        portfolio = new LoanSpec[loans];
+        for (int i = 0; i < loans; i++) {
+            portfolio[i] = new LoanSpec("U-" + i,
+                    BigDecimal.valueOf(random.nextLong(100_000_00L, 15_000_000_00L), 2),
+                    BigDecimal.valueOf(random.nextInt(0, 1000), 2),
+                    12 * random.nextInt(5, 31));
+        }
+        file = Files.createTempFile("loan-binary-bench", ".bin");
+        writeFile = Files.createTempFile("loan-binary-bench-write", ".bin");
+        writePortfolio(file);
+        schedules = BinaryScheduleFile.open(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        schedules.close();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(writeFile);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int writeBinaryPortfolio() throws IOException {
+        return writePortfolio(writeFile);
+    }
+
+    @Benchmark
+    public long randomMonth() {
+        int loan = random.nextInt(loans);
+        int month = 1 + random.nextInt(schedules.getRowCount(loan));
+        return schedules.getRemainingBalance(loan, month) + schedules.getInterestPaid(loan, month);
+    }
+
+    private int writePortfolio(Path target) throws IOException {
+        try (BinaryScheduleWriter writer = new BinaryScheduleWriter(target)) {
+            for (LoanSpec loan : portfolio) {
+                writer.write(loan);
+            }
+            return writer.getLoanCount();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.loan.bench;
+
+import com.example.loan.BulkCsvExporter;
+import com.example.loan.CurrencyFormat;
+import com.example.loan.LoanSpec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Propustnost hromadného exportu portfolia do CSV. Vedlejší metrika "megabytes"
+ * udává zapsané MB za sekundu. Portfolio MIXED střídá úvěry v CZK, EUR a PLN
+ * a má stát stejně jako portfolio v jedné měně.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkExportBenchmark {
+
+    @Param({ "CHANNEL", "MAPPED" })
+    public BulkCsvExporter.Mode mode;
+
+    @Param({ "1000" })
+    public int loans;
+
+    @Param({ "CZK", "MIXED" })
+    public String currencies;
+
+    private LoanSpec[] portfolio;
+    private BulkCsvExporter exporter;
+    private Path file;
+
+    /**
+     * Počítadlo zapsaných dat; JMH ho v režimu Throughput přepočítá na MB/s.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Written {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        CurrencyFormat[] formats = "MIXED".equals(currencies)
+                ? new CurrencyFormat[] { CurrencyFormat.CZK, CurrencyFormat.EUR, CurrencyFormat.PLN }
+                : new CurrencyFormat[] { CurrencyFormat.forCode(currencies) };
+        portfolio = new LoanSpec[loans];
+        for (int i = 0; i < loans; i++) {
+            portfolio[i] = new LoanSpec("U-" + i,
+                    BigDecimal.valueOf(random.nextLong(100_000_00L, 15_000_000_00L), 2),
+                    BigDecimal.valueOf(random.nextInt(0, 1000), 2),
+                    12 * random.nextInt(5, 31),
+                    formats[i % formats.length].getCurrency());
+        }
+        exporter = new BulkCsvExporter(";", mode);
+        file = Files.createTempFile("loan-bulk-bench", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void exportPortfolio(Written written) throws IOException {
+        written.megabytes += exporter.export(portfolio, file) / 1e6;
+    }
+}
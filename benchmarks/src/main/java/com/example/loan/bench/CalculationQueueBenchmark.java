@@ -0,0 +1,108 @@
+package com.example.loan.bench;
+
+import com.example.loan.AnnuityFactorTable;
+import com.example.loan.CalculationQueue;
+import com.example.loan.LoanSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nárazová zátěž na {@link CalculationQueue}: {@code loans} požadavků zařazených najednou
+ * a čekání na všechny výsledky. Při {@code distinct} menším než počet požadavků se stejné
+ * úvěry opakují a část požadavků se sloučí s rozpracovaným výpočtem. Menší kapacita fronty
+ * ukazuje cenu čekání na volné místo. {@code directPayments} je stejný výpočet v jednom
+ * vlákně bez fronty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculationQueueBenchmark {
+
+    @Param({ "10000" })
+    public int loans;
+
+    @Param({ "10000", "100" })
+    public int distinct;
+
+    @Param({ "1024", "64" })
+    public int capacity;
+
+    @Param({ "1", "256" })
+    public int maxBatchSize;
+
+    private LoanSpec[] requests;
+    private CalculationQueue queue;
+
+    @Setup
+    public void setUp() {
+        // Pevné semínko, aby všechna měření počítala stejné požadavky
+        SplittableRandom random = new SplittableRandom(42);
+        LoanSpec[] unique = new LoanSpec[distinct];
+        for (int i = 0; i < distinct; i++) {
+            unique[i] = new LoanSpec(
+                    BigDecimal.valueOf(random.nextLong(100_000_00L, 15_000_000_00L), 2),
+                    BigDecimal.valueOf(random.nextInt(0, 1000), 2),
+                    12 * random.nextInt(5, 31));
+        }
+        requests = new LoanSpec[loans];
+        for (int i = 0; i < loans; i++) {
+            requests[i] = unique[random.nextInt(distinct)];
+        }
+        queue = new CalculationQueue(capacity, Runtime.getRuntime().availableProcessors(),
+                CalculationQueue.DEFAULT_IO_THREADS, maxBatchSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        queue.close();
+    }
+
+    @Benchmark
+    public long payments() throws InterruptedException {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            futures[i] = queue.submitPayment(requests[i]);
+        }
+        CompletableFuture.allOf(futures).join();
+        return queue.getSubmitted();
+    }
+
+    @Benchmark
+    public long summaries() throws InterruptedException {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            futures[i] = queue.submitSummary(requests[i]);
+        }
+        CompletableFuture.allOf(futures).join();
+        return queue.getSubmitted();
+    }
+
+    @Benchmark
+    public long directPayments() {
+        AnnuityFactorTable factors = AnnuityFactorTable.standard();
+        long sum = 0;
+        for (LoanSpec request : requests) {
+            sum += factors.calculateMonthlyPayment(request.getPrincipal(), request.getAnnualInterestRate(),
+                    request.getLoanTermMonths());
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.loan.bench;
+
+import com.example.loan.AnnuityFactorTable;
+import com.example.loan.FixedPointLoanCalculator;
+import com.example.loan.LoanCalculator;
+import com.example.loan.Payment;
+import com.example.loan.ScheduleTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarky výpočtu splátky a splátkového kalendáře (BigDecimal i celočíselná varianta).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    @Param({ "12", "120", "360", "1200" })
+    public int term;
+
+    @Param({ "-1.5", "0", "5.0", "19.99" })
+    public String rate;
+
+    @Param({ "50000", "3500000", "250000000" })
+    public String principal;
+
+    private BigDecimal principalAmount;
+    private BigDecimal annualRate;
+    private long principalMinorUnits;
+    private long monthlyRate;
+    private AnnuityFactorTable annuityTable;
+
+    @Setup
+    public void setUp() {
+        principalAmount = new BigDecimal(principal);
+        annualRate = new BigDecimal(rate);
+        principalMinorUnits = FixedPointLoanCalculator.toMinorUnits(principalAmount);
+        monthlyRate = FixedPointLoanCalculator.monthlyInterestRate(annualRate);
+        annuityTable = AnnuityFactorTable.standard();
+        // Řádek tabulky se sestaví už tady, aby se do měření nepočítal
+        annuityTable.calculateMonthlyPayment(principalMinorUnits, monthlyRate, term);
+    }
+
+    @Benchmark
+    public BigDecimal calculateMonthlyPayment() {
+        return LoanCalculator.calculateMonthlyPayment(principalAmount, annualRate, term);
+    }
+
+    @Benchmark
+    public List<Payment> generatePaymentSchedule() {
+        return LoanCalculator.generatePaymentSchedule(principalAmount, annualRate, term);
+    }
+
+    @Benchmark
+    public long fixedPointMonthlyPayment() {
+        return FixedPointLoanCalculator.calculateMonthlyPayment(principalMinorUnits, monthlyRate, term);
+    }
+
+    @Benchmark
+    public long annuityTablePayment() {
+        return annuityTable.calculateMonthlyPayment(principalMinorUnits, monthlyRate, term);
+    }
+
+    @Benchmark
+    public ScheduleTable generateScheduleTable() {
+        return ScheduleTable.generate(principalMinorUnits, monthlyRate, term);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.loan.bench;
+
+import com.example.loan.CsvExporter;
+import com.example.loan.LoanCalculator;
+import com.example.loan.Payment;
+import com.example.loan.ScheduleTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarky exportu splátkového kalendáře do CSV souboru (včetně zápisu na disk).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvExporterBenchmark {
+
+    @Param({ "12", "120", "360", "1200" })
+    public int term;
+
+    @Param({ "0", "5.0" })
+    public String rate;
+
+    private final BigDecimal principal = new BigDecimal("3500000");
+    private BigDecimal annualRate;
+    private List<Payment> schedule;
+    private ScheduleTable scheduleTable;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        annualRate = new BigDecimal(rate);
+        schedule = LoanCalculator.generatePaymentSchedule(principal, annualRate, term);
+        scheduleTable = LoanCalculator.generateScheduleTable(principal, annualRate, term);
+        file = Files.createTempFile("loan-bench", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void exportPaymentList() throws IOException {
+        CsvExporter.exportScheduleToCsv(schedule, file.toString(), principal, annualRate, term, ";");
+    }
+
+    @Benchmark
+    public void exportScheduleTable() throws IOException {
+        CsvExporter.exportScheduleToCsv(scheduleTable, file.toString(), principal, annualRate, term, ";");
+    }
+}
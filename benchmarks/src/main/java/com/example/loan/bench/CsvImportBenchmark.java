@@ -0,0 +1,72 @@
+package com.example.loan.bench;
+
+import com.example.loan.CsvExporter;
+import com.example.loan.CsvScheduleReader;
+import com.example.loan.LoanCalculator;
+import com.example.loan.PaymentConsumer;
+import com.example.loan.ScheduleDriftReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Čtení CSV kalendáře z {@link CsvExporter#exportScheduleToCsv}: samotné načtení řádků
+ * a načtení s ověřením proti novému výpočtu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvImportBenchmark {
+
+    @Param({ "360", "1200" })
+    public int term;
+
+    private Path file;
+    private CsvScheduleReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        BigDecimal principal = new BigDecimal("3500000.00");
+        BigDecimal rate = new BigDecimal("5.49");
+        file = Files.createTempFile("loan-import-bench", ".csv");
+        CsvExporter.exportScheduleToCsv(LoanCalculator.generatePaymentSchedule(principal, rate, term),
+                file.toString(), principal, rate, term, ";");
+        reader = new CsvScheduleReader();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int read(Blackhole blackhole) throws IOException {
+        PaymentConsumer consumer = (month, principalPaid, interestPaid, totalPayment, remainingBalance) ->
+                blackhole.consume(remainingBalance);
+        return reader.read(file, consumer).getRowCount();
+    }
+
+    @Benchmark
+    public ScheduleDriftReport verify() throws IOException {
+        return reader.verify(file);
+    }
+}
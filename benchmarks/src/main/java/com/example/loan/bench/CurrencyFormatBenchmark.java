@@ -0,0 +1,66 @@
+package com.example.loan.bench;
+
+import com.example.loan.CurrencyFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.text.NumberFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formátování částky v různých měnách: připravený {@link CurrencyFormat} proti
+ * {@link NumberFormat#getCurrencyInstance} vytvářenému pro každou hodnotu (tak, jak se
+ * formátovací objekty JDK používají z více vláken bez sdílení).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyFormatBenchmark {
+
+    @Param({ "CZK", "EUR", "PLN" })
+    public String currency;
+
+    private final long minorUnits = 1_853_742L;
+    private CurrencyFormat format;
+    private final char[] chars = new char[64];
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(64);
+
+    @Setup
+    public void setUp() {
+        format = CurrencyFormat.forCode(currency);
+    }
+
+    @Benchmark
+    public String formatCurrency() {
+        return format.formatCurrencyMinorUnits(minorUnits);
+    }
+
+    @Benchmark
+    public int writeMinorUnits() {
+        return format.writeMinorUnits(chars, 0, minorUnits, true);
+    }
+
+    @Benchmark
+    public ByteBuffer putMinorUnits() {
+        bytes.clear();
+        return format.putMinorUnits(bytes, minorUnits, true);
+    }
+
+    @Benchmark
+    public String jdkCurrencyInstance() {
+        return NumberFormat.getCurrencyInstance(format.getLocale()).format(minorUnits / 100.0);
+    }
+}
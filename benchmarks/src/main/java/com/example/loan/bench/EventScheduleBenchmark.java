@@ -0,0 +1,80 @@
+package com.example.loan.bench;
+
+import com.example.loan.EventSchedule;
+import com.example.loan.LoanEvent;
+import com.example.loan.LoanSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Úprava mimořádné splátky v měsíci editMonth: přepočet od tohoto měsíce nad existujícím
+ * kalendářem proti sestavení celého kalendáře s událostmi znovu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventScheduleBenchmark {
+
+    @Param({ "360", "1200" })
+    public int term;
+
+    @Param({ "12", "300" })
+    public int editMonth;
+
+    private LoanSpec loan;
+    private List<LoanEvent> events;
+    private EventSchedule schedule;
+    // Dvě varianty upravované události, střídají se, aby se kalendář pokaždé opravdu změnil
+    private LoanEvent current;
+    private LoanEvent other;
+
+    @Setup
+    public void setUp() {
+        loan = new LoanSpec(new BigDecimal("3500000"), new BigDecimal("5.49"), term);
+        events = new ArrayList<>();
+        // Refixace každých 5 let s přepočtem splátky
+        for (int month = 61; month <= term; month += 60) {
+            events.add(LoanEvent.rateChange(month, new BigDecimal(month % 120 == 1 ? "4.19" : "5.09"),
+                    LoanEvent.Recalculation.PAYMENT));
+        }
+        current = LoanEvent.prepayment(editMonth, new BigDecimal("50000"), LoanEvent.Recalculation.PAYMENT);
+        other = LoanEvent.prepayment(editMonth, new BigDecimal("80000"), LoanEvent.Recalculation.PAYMENT);
+        events.add(current);
+
+        schedule = new EventSchedule(loan);
+        schedule.setEvents(events);
+    }
+
+    @Benchmark
+    public int editEventIncrementally() {
+        schedule.replaceEvent(current, other);
+        LoanEvent swap = current;
+        current = other;
+        other = swap;
+        return schedule.size();
+    }
+
+    @Benchmark
+    public int rebuildWithEvents() {
+        EventSchedule rebuilt = new EventSchedule(loan);
+        rebuilt.setEvents(events);
+        return rebuilt.size();
+    }
+}
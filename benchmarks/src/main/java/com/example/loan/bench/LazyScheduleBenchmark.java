@@ -0,0 +1,71 @@
+package com.example.loan.bench;
+
+import com.example.loan.FixedPointLoanCalculator;
+import com.example.loan.LazySchedule;
+import com.example.loan.ScheduleTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zůstatek po zvoleném měsíci a okno 12 měsíců: celý kalendář ({@link ScheduleTable})
+ * proti línému kalendáři, nově vytvořenému i opakovaně použitému s kontrolními body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyScheduleBenchmark {
+
+    @Param({ "360", "1200" })
+    public int term;
+
+    private long principal;
+    private long monthlyRate;
+    private int month;
+    private LazySchedule schedule;
+
+    @Setup
+    public void setUp() {
+        principal = 350_000_000L;
+        monthlyRate = FixedPointLoanCalculator.monthlyInterestRate(new BigDecimal("5.49"));
+        month = term * 2 / 3;
+        schedule = LazySchedule.of(principal, monthlyRate, term);
+        schedule.getRemainingBalance(month);
+    }
+
+    @Benchmark
+    public long balanceEager() {
+        return ScheduleTable.generate(principal, monthlyRate, term).getRemainingBalance(month);
+    }
+
+    @Benchmark
+    public long balanceLazy() {
+        return LazySchedule.of(principal, monthlyRate, term).getRemainingBalance(month);
+    }
+
+    @Benchmark
+    public long balanceLazyReused() {
+        return schedule.getRemainingBalance(month);
+    }
+
+    @Benchmark
+    public void windowLazyReused(Blackhole blackhole) {
+        schedule.forEach(month, month + 12, (monthNumber, principalPaid, interestPaid, totalPayment,
+                remainingBalance) -> blackhole.consume(remainingBalance));
+    }
+}
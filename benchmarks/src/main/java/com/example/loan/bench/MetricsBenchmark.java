@@ -0,0 +1,74 @@
+package com.example.loan.bench;
+
+import com.example.loan.FixedPointLoanCalculator;
+import com.example.loan.PaymentConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Režie metrik na hot path: stejné výpočty v JVM s vypnutými a se zapnutými metrikami
+ * (každá varianta ve vlastním forku). Vypnutá varianta má odpovídat výsledkům
+ * {@link CalculatorBenchmark} před zavedením metrik.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MetricsBenchmark {
+
+    @Param({ "120", "360" })
+    public int term;
+
+    private long principal;
+    private long monthlyRate;
+
+    @Setup
+    public void setUp() {
+        principal = 350_000_000L;
+        monthlyRate = FixedPointLoanCalculator.monthlyInterestRate(new BigDecimal("5.49"));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dloan.metrics=false")
+    public long paymentMetricsDisabled() {
+        return FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, term);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dloan.metrics=true")
+    public long paymentMetricsEnabled() {
+        return FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, term);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dloan.metrics=false")
+    public long scheduleMetricsDisabled(Blackhole blackhole) {
+        return generate(blackhole);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dloan.metrics=true")
+    public long scheduleMetricsEnabled(Blackhole blackhole) {
+        return generate(blackhole);
+    }
+
+    private long generate(Blackhole blackhole) {
+        PaymentConsumer consumer = (month, principalPaid, interestPaid, totalPayment, remainingBalance) ->
+                blackhole.consume(remainingBalance);
+        return FixedPointLoanCalculator.generatePaymentSchedule(principal, monthlyRate, term, consumer);
+    }
+}
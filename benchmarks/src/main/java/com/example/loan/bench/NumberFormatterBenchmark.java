@@ -0,0 +1,80 @@
+package com.example.loan.bench;
+
+import com.example.loan.NumberFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarky českého formátování čísel: metody vracející String a zápis
+ * do opakovaně používaného StringBuilderu, pole znaků a bufferu (bez alokací).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberFormatterBenchmark {
+
+    @Param({ "0.00", "-1234.56", "18537.42", "250000000.00" })
+    public String value;
+
+    private BigDecimal amount;
+    private double doubleAmount;
+    private long minorUnits;
+    private final StringBuilder builder = new StringBuilder(64);
+    private final char[] chars = new char[NumberFormatter.MAX_LENGTH];
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(64);
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal(value);
+        doubleAmount = amount.doubleValue();
+        minorUnits = amount.movePointRight(2).longValueExact();
+    }
+
+    @Benchmark
+    public String formatBigDecimal() {
+        return NumberFormatter.format(amount);
+    }
+
+    @Benchmark
+    public String formatDouble() {
+        return NumberFormatter.format(doubleAmount);
+    }
+
+    @Benchmark
+    public String formatCurrency() {
+        return NumberFormatter.formatCurrency(amount);
+    }
+
+    @Benchmark
+    public StringBuilder appendBigDecimal() {
+        builder.setLength(0);
+        return NumberFormatter.append(builder, amount, true);
+    }
+
+    @Benchmark
+    public int writeMinorUnits() {
+        return NumberFormatter.writeMinorUnits(chars, 0, minorUnits, true);
+    }
+
+    @Benchmark
+    public ByteBuffer putMinorUnits() {
+        bytes.clear();
+        return NumberFormatter.putMinorUnits(bytes, minorUnits, true);
+    }
+}
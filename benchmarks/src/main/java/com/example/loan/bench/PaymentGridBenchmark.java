@@ -0,0 +1,54 @@
+package com.example.loan.bench;
+
+import com.example.loan.LoanCalculator;
+import com.example.loan.PaymentGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabulka splátek pro sazby 1 % až 10 % po 0,01 % a doby 60 až 480 měsíců
+ * (379 321 buněk): PaymentGrid proti jednomu volání LoanCalculator na buňku.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentGridBenchmark {
+
+    private static final BigDecimal PRINCIPAL = new BigDecimal("3500000");
+    private static final BigDecimal FROM_RATE = new BigDecimal("1.00");
+    private static final BigDecimal TO_RATE = new BigDecimal("10.00");
+    private static final BigDecimal RATE_STEP = new BigDecimal("0.01");
+
+    @Benchmark
+    public PaymentGrid paymentGrid() {
+        return PaymentGrid.calculate(PRINCIPAL, FROM_RATE, TO_RATE, RATE_STEP, 60, 480, 1, false);
+    }
+
+    @Benchmark
+    public PaymentGrid paymentGridWithInterest() {
+        return PaymentGrid.calculate(PRINCIPAL, FROM_RATE, TO_RATE, RATE_STEP, 60, 480, 1, true);
+    }
+
+    @Benchmark
+    public void bigDecimalPerCell(Blackhole blackhole) {
+        for (BigDecimal rate = FROM_RATE; rate.compareTo(TO_RATE) <= 0; rate = rate.add(RATE_STEP)) {
+            for (int term = 60; term <= 480; term++) {
+                blackhole.consume(LoanCalculator.calculateMonthlyPayment(PRINCIPAL, rate, term));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.loan.bench;
+
+import com.example.loan.LoanSpec;
+import com.example.loan.RateStressResult;
+import com.example.loan.RateStressSimulation;
+import com.example.loan.VasicekRateModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monte Carlo simulace refixací pro hypotéku na 30 let s pětiletou fixací.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateStressBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int paths;
+
+    private LoanSpec loan;
+    private RateStressSimulation simulation;
+
+    @Setup
+    public void setUp() {
+        loan = new LoanSpec(new BigDecimal("3500000"), new BigDecimal("4.89"), 360);
+        simulation = new RateStressSimulation(new VasicekRateModel(0.2, 4.0, 1.2), 60, paths, 42);
+    }
+
+    @Benchmark
+    public RateStressResult simulate() {
+        return simulation.simulate(loan);
+    }
+}
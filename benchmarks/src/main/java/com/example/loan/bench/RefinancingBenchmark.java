@@ -0,0 +1,86 @@
+package com.example.loan.bench;
+
+import com.example.loan.LoanCalculator;
+import com.example.loan.LoanSpec;
+import com.example.loan.Payment;
+import com.example.loan.RefinancingComparison;
+import com.example.loan.RefinancingOffer;
+import com.example.loan.RefinancingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porovnání stávajícího úvěru s mnoha nabídkami refinancování: {@link RefinancingComparison}
+ * proti původnímu postupu se sestavením a sečtením kalendáře pro každou nabídku.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefinancingBenchmark {
+
+    @Param({ "1000" })
+    public int offers;
+
+    private LoanSpec currentLoan;
+    private RefinancingOffer[] candidates;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        currentLoan = new LoanSpec(new BigDecimal("4000000.00"), new BigDecimal("6.19"), 360);
+        candidates = new RefinancingOffer[offers];
+        for (int i = 0; i < offers; i++) {
+            candidates[i] = new RefinancingOffer("N-" + i, BigDecimal.valueOf(random.nextInt(300, 700), 2),
+                    12 * random.nextInt(10, 31), BigDecimal.valueOf(random.nextLong(0, 5_000_000), 2));
+        }
+    }
+
+    @Benchmark
+    public RefinancingResult[] compareAll() {
+        RefinancingComparison comparison = new RefinancingComparison(currentLoan, 60, new BigDecimal("20000"),
+                new BigDecimal("3"));
+        return comparison.compareAll(candidates);
+    }
+
+    @Benchmark
+    public BigDecimal compareWithSchedules() {
+        List<Payment> current = LoanCalculator.generatePaymentSchedule(currentLoan.getPrincipal(),
+                currentLoan.getAnnualInterestRate(), currentLoan.getLoanTermMonths());
+        BigDecimal balance = current.get(59).getRemainingBalance();
+        BigDecimal remainingInterest = sumInterest(current.subList(60, current.size()));
+        BigDecimal best = null;
+        for (RefinancingOffer offer : candidates) {
+            BigDecimal savings = remainingInterest.subtract(sumInterest(LoanCalculator.generatePaymentSchedule(
+                    balance, offer.getAnnualInterestRate(), offer.getLoanTermMonths())));
+            if (best == null || savings.compareTo(best) > 0) {
+                best = savings;
+            }
+        }
+        return best;
+    }
+
+    private static BigDecimal sumInterest(List<Payment> schedule) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Payment payment : schedule) {
+            sum = sum.add(payment.getInterestPaid());
+        }
+        return sum;
+    }
+}
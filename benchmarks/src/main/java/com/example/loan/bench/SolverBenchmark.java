@@ -0,0 +1,77 @@
+package com.example.loan.bench;
+
+import com.example.loan.FixedPointLoanCalculator;
+import com.example.loan.LoanCalculator;
+import com.example.loan.LoanSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inverzní výpočty z {@link LoanSolver} proti hledání sazby procházením mřížky
+ * dopředným výpočtem v BigDecimal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    private long principal;
+    private long monthlyRate;
+    private long monthlyPayment;
+    private BigDecimal principalAmount;
+    private BigDecimal monthlyPaymentAmount;
+
+    @Setup
+    public void setUp() {
+        principal = 300_000_000L;
+        monthlyRate = FixedPointLoanCalculator.monthlyInterestRate(new BigDecimal("5.49"));
+        monthlyPayment = 1_500_000L;
+        principalAmount = FixedPointLoanCalculator.toBigDecimal(principal);
+        monthlyPaymentAmount = FixedPointLoanCalculator.toBigDecimal(monthlyPayment);
+    }
+
+    @Benchmark
+    public long solvePrincipal() {
+        return LoanSolver.solvePrincipal(monthlyPayment, monthlyRate, 360);
+    }
+
+    @Benchmark
+    public int solveTerm() {
+        return LoanSolver.solveTerm(principal, monthlyRate, monthlyPayment);
+    }
+
+    @Benchmark
+    public BigDecimal solveRate() {
+        return LoanSolver.solveRate(principal, monthlyPayment, 360, 2);
+    }
+
+    @Benchmark
+    public BigDecimal solveRpsn() {
+        return LoanSolver.solveRpsn(principal, 2_000_000L, monthlyPayment, 360);
+    }
+
+    @Benchmark
+    public BigDecimal scanRate() {
+        BigDecimal step = new BigDecimal("0.01");
+        BigDecimal rate = BigDecimal.ZERO;
+        while (LoanCalculator.calculateMonthlyPayment(principalAmount, rate.add(step), 360)
+                .compareTo(monthlyPaymentAmount) <= 0) {
+            rate = rate.add(step);
+        }
+        return rate;
+    }
+}
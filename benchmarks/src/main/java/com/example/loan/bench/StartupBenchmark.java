@@ -0,0 +1,123 @@
+package com.example.loan.bench;
+
+import com.example.loan.StartupCheck;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Studený start aplikace: doba od spuštění nové JVM do prvního vykreslení okna
+ * ({@code Main --startup-check}, viz {@link StartupCheck}), s {@code calculate} až do zobrazení
+ * prvního kalendáře s grafem.
+ * Vedlejší výsledek {@code peakRssKilobytes} je špičková velikost rezidentní paměti procesu
+ * (jen na Linuxu).
+ * <p>
+ * Spouští se sestavený JAR aplikace, s {@code cds=true} s archivem tříd z profilu {@code cds}
+ * (nejdřív {@code mvn -Pcds package} v kořenovém adresáři projektu). Adresář projektu lze změnit
+ * vlastností {@code -Dloan.app.dir=...}. Měření potřebuje grafické prostředí.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    // Cesty ke sestavené aplikaci relativně k adresáři projektu; archiv tříd platí jen pro stejnou cestu k JAR
+    private static final String APP_JAR = "target/loan-calculator-1.0-SNAPSHOT-jar-with-dependencies.jar";
+    private static final String CDS_ARCHIVE = "target/loan-calculator-1.0-SNAPSHOT.jsa";
+
+    @Param({ "false", "true" })
+    public boolean cds;
+
+    @Param({ "false", "true" })
+    public boolean calculate;
+
+    private File appDir;
+    private List<String> command;
+
+    /**
+     * Špičková velikost rezidentní paměti spuštěné aplikace v kB.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long peakRssKilobytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakRssKilobytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        appDir = new File(System.getProperty("loan.app.dir", ".."));
+        if (!new File(appDir, APP_JAR).isFile()) {
+            throw new IllegalStateException("Chybí sestavená aplikace " + new File(appDir, APP_JAR));
+        }
+        if (cds && !new File(appDir, CDS_ARCHIVE).isFile()) {
+            throw new IllegalStateException("Chybí archiv tříd " + new File(appDir, CDS_ARCHIVE));
+        }
+        command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        if (cds) {
+            // Bez -Xshare:on by nepoužitelný archiv (jiné JDK nebo JAR) JVM tiše ignorovala
+            command.add("-Xshare:on");
+            command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE);
+        }
+        command.add("-cp");
+        command.add(APP_JAR);
+        command.add("com.example.loan.Main");
+        command.add("--startup-check");
+        if (calculate) {
+            command.add("calculate");
+        }
+    }
+
+    @Benchmark
+    public int coldStart(Footprint footprint) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .directory(appDir)
+                .redirectErrorStream(true)
+                .start();
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(StartupCheck.PEAK_RSS_PREFIX)) {
+                    String value = line.substring(StartupCheck.PEAK_RSS_PREFIX.length());
+                    footprint.peakRssKilobytes = Long.parseLong(value);
+                } else {
+                    output.append(line).append('\n');
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Aplikace skončila s kódem " + exitCode + ":\n" + output);
+        }
+        return exitCode;
+    }
+}
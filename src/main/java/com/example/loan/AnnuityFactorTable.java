@@ -0,0 +1,253 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Předpočítané anuitní faktory r / (1 - (1 + r)^-n) pro mřížku ročních sazeb po 0,01 %
+ * a doby splácení 1 až {@code maxTerm} měsíců. Pro sazbu a dobu na mřížce se splátka
+ * spočítá jedním vyhledáním v tabulce a jedním násobením; mimo mřížku se použije
+ * {@link FixedPointLoanCalculator}.
+ * <p>
+ * Výsledek je vždy shodný s {@link LoanCalculator#calculateMonthlyPayment}: faktor je
+ * v double, a pokud součin leží příliš blízko poloviny haléře, splátka se dopočítá přesně.
+ * Řádky tabulky (jedna sazba, všechny doby) se sestavují líně při prvním použití,
+ * nebo se celá tabulka načte z binárního souboru uloženého přes {@link #save(Path)}.
+ */
+public class AnnuityFactorTable {
+
+    // Výchozí rozsah mřížky: 0,00 % až 20,00 % ročně, 1 až 1200 měsíců
+    public static final int DEFAULT_MIN_RATE_STEP = 0;
+    public static final int DEFAULT_MAX_RATE_STEP = 2000;
+    public static final int DEFAULT_MAX_TERM = 1200;
+
+    // Identifikace binárního souboru s tabulkou ("AFT1")
+    private static final int FILE_MAGIC = 0x41465431;
+    private static final int FILE_HEADER_BYTES = 4 * Integer.BYTES;
+
+    private final int minRateStep;
+    private final int maxRateStep;
+    private final int maxTerm;
+    // Řádek pro každý krok sazby; index faktoru v řádku je doba splácení - 1
+    private final AtomicReferenceArray<double[]> rows;
+
+    /**
+     * Vytvoří prázdnou tabulku s výchozí mřížkou; řádky se sestaví při prvním použití.
+     */
+    public AnnuityFactorTable() {
+        this(DEFAULT_MIN_RATE_STEP, DEFAULT_MAX_RATE_STEP, DEFAULT_MAX_TERM);
+    }
+
+    /**
+     * Vytvoří prázdnou tabulku; řádky se sestaví při prvním použití.
+     *
+     * @param minRateStep Nejnižší roční sazba v setinách procenta (může být záporná).
+     * @param maxRateStep Nejvyšší roční sazba v setinách procenta.
+     * @param maxTerm Nejdelší doba splácení v měsících.
+     */
+    public AnnuityFactorTable(int minRateStep, int maxRateStep, int maxTerm) {
+        if (minRateStep > maxRateStep || maxTerm <= 0 || minRateStep <= -10000) {
+            throw new IllegalArgumentException("Neplatný rozsah tabulky: sazby " + minRateStep + ".." + maxRateStep
+                    + ", doba " + maxTerm);
+        }
+        this.minRateStep = minRateStep;
+        this.maxRateStep = maxRateStep;
+        this.maxTerm = maxTerm;
+        this.rows = new AtomicReferenceArray<>(maxRateStep - minRateStep + 1);
+    }
+
+    /**
+     * Sdílená tabulka s výchozí mřížkou, vytvořená při prvním přístupu.
+     *
+     * @return Sdílená tabulka.
+     */
+    public static AnnuityFactorTable standard() {
+        return StandardHolder.INSTANCE;
+    }
+
+    /**
+     * Vypočítá měsíční splátku; pro sazbu na mřížce z tabulky.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka v haléřích.
+     */
+    public long calculateMonthlyPayment(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        return calculateMonthlyPayment(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), loanTermMonths);
+    }
+
+    /**
+     * Vypočítá měsíční splátku; pro sazbu a dobu na mřížce z tabulky.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka v haléřích.
+     */
+    public long calculateMonthlyPayment(long principal, long monthlyRate, int loanTermMonths) {
+        int step = rateStep(monthlyRate);
+        if (monthlyRate == 0 || step < minRateStep || step > maxRateStep
+                || loanTermMonths <= 0 || loanTermMonths > maxTerm) {
+            return FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, loanTermMonths);
+        }
+        if (!LoanMetrics.ENABLED) {
+            return tablePayment(principal, monthlyRate, loanTermMonths, step);
+        }
+        long start = System.nanoTime();
+        long payment = tablePayment(principal, monthlyRate, loanTermMonths, step);
+        LoanMetrics.recordPayment(System.nanoTime() - start);
+        return payment;
+    }
+
+    private long tablePayment(long principal, long monthlyRate, int loanTermMonths, int step) {
+        double factor = row(step)[loanTermMonths - 1];
+        // Horní odhad |n * ln(1 + r)| bez volání log1p: |ln(1 + r)| <= |r| / (1 + min(r, 0))
+        double rate = (double) monthlyRate / FixedPointLoanCalculator.RATE_ONE;
+        double exponent = loanTermMonths * Math.abs(rate) / (1 + Math.min(rate, 0));
+        return FixedPointLoanCalculator.roundPaymentEstimate(principal * factor, exponent, principal, monthlyRate,
+                loanTermMonths);
+    }
+
+    /**
+     * Zjistí, zda je měsíční sazba na mřížce tabulky.
+     *
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @return true, pokud sazba odpovídá některému kroku mřížky.
+     */
+    public boolean isOnGrid(long monthlyRate) {
+        int step = rateStep(monthlyRate);
+        return step >= minRateStep && step <= maxRateStep;
+    }
+
+    /**
+     * Sestaví všechny dosud chybějící řádky tabulky.
+     */
+    public void buildAll() {
+        for (int step = minRateStep; step <= maxRateStep; step++) {
+            row(step);
+        }
+    }
+
+    /**
+     * Uloží celou tabulku do binárního souboru (hlavička a faktory po řádcích, little-endian).
+     *
+     * @param file Cílový soubor.
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(FILE_HEADER_BYTES + maxTerm * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(FILE_MAGIC).putInt(minRateStep).putInt(maxRateStep).putInt(maxTerm);
+            writeFully(channel, buffer);
+            for (int step = minRateStep; step <= maxRateStep; step++) {
+                for (double factor : row(step)) {
+                    buffer.putDouble(factor);
+                }
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    /**
+     * Načte tabulku uloženou přes {@link #save(Path)}.
+     *
+     * @param file Zdrojový soubor.
+     * @return Tabulka se všemi řádky.
+     * @throws IOException Pokud soubor nelze přečíst nebo nemá očekávaný formát.
+     */
+    public static AnnuityFactorTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (data.remaining() < FILE_HEADER_BYTES || data.getInt() != FILE_MAGIC) {
+                throw new IOException("Soubor není tabulka anuitních faktorů: " + file);
+            }
+            AnnuityFactorTable table = new AnnuityFactorTable(data.getInt(), data.getInt(), data.getInt());
+            long expected = FILE_HEADER_BYTES
+                    + (long) table.rows.length() * table.maxTerm * Double.BYTES;
+            if (channel.size() != expected) {
+                throw new IOException("Neočekávaná velikost tabulky anuitních faktorů: " + channel.size());
+            }
+            for (int i = 0; i < table.rows.length(); i++) {
+                double[] row = new double[table.maxTerm];
+                data.asDoubleBuffer().get(row);
+                data.position(data.position() + row.length * Double.BYTES);
+                table.rows.set(i, row);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Vrátí řádek faktorů pro krok sazby; chybějící řádek se sestaví.
+     * Souběžné sestavení stejného řádku je neškodné, obě vlákna spočítají stejné hodnoty.
+     */
+    private double[] row(int step) {
+        int index = step - minRateStep;
+        double[] row = rows.get(index);
+        if (row == null) {
+            row = buildRow(monthlyRateForStep(step));
+            rows.set(index, row);
+        }
+        return row;
+    }
+
+    /**
+     * Spočítá faktory pro všechny doby splácení jedné sazby.
+     */
+    private double[] buildRow(long monthlyRate) {
+        double[] row = new double[maxTerm];
+        double rate = (double) monthlyRate / FixedPointLoanCalculator.RATE_ONE;
+        double logGrowth = Math.log1p(rate);
+        for (int n = 1; n <= maxTerm; n++) {
+            // Pro nulovou sazbu se tabulka nepoužívá, řádek zůstane nulový
+            row[n - 1] = monthlyRate == 0 ? 0 : rate / -Math.expm1(-n * logGrowth);
+        }
+        return row;
+    }
+
+    /**
+     * Měsíční sazba pro roční sazbu {@code step} setin procenta, zaokrouhlená stejně
+     * jako v {@link LoanCalculator}: step / 120000 na 10 desetinných míst.
+     */
+    static long monthlyRateForStep(int step) {
+        return FixedPointLoanCalculator.divideHalfUp(step * 250_000L, 3);
+    }
+
+    /**
+     * Nejbližší krok mřížky pro měsíční sazbu, nebo Integer.MIN_VALUE, pokud sazba na mřížce není.
+     */
+    private static int rateStep(long monthlyRate) {
+        long step = Math.round(monthlyRate * 3 / 250_000.0);
+        if (step < Integer.MIN_VALUE + 1 || step > Integer.MAX_VALUE
+                || monthlyRateForStep((int) step) != monthlyRate) {
+            return Integer.MIN_VALUE;
+        }
+        return (int) step;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Líná inicializace sdílené tabulky (idiom holder třídy).
+     */
+    private static class StandardHolder {
+        static final AnnuityFactorTable INSTANCE = new AnnuityFactorTable();
+    }
+}
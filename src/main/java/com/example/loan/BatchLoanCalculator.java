@@ -0,0 +1,158 @@
+package com.example.loan;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Dávkový výpočet splátek pro celé portfolio úvěrů.
+ * Práce se dělí rekurzivně na úseky pole a počítá se ve fork-join poolu;
+ * každý výsledek se zapisuje na index svého zadání, takže pořadí výsledků odpovídá vstupu.
+ */
+public class BatchLoanCalculator implements AutoCloseable {
+
+    // Výchozí počet úvěrů, pod který se úsek už dále nedělí
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    private final ForkJoinPool pool;
+    // Pool vytvořený touto instancí se při close() ukončí, sdílený pool ne
+    private final boolean ownsPool;
+    private final int threshold;
+
+    /**
+     * Vytvoří kalkulačku nad společným fork-join poolem JVM.
+     */
+    public BatchLoanCalculator() {
+        this(ForkJoinPool.commonPool(), false, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Vytvoří kalkulačku s vlastním poolem o zadaném stupni paralelismu.
+     *
+     * @param parallelism Počet pracovních vláken (1 znamená sekvenční výpočet v jednom vlákně poolu).
+     */
+    public BatchLoanCalculator(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Vytvoří kalkulačku nad zadaným poolem.
+     *
+     * @param pool Fork-join pool, který se použije pro výpočet (kalkulačka ho neukončuje).
+     * @param threshold Počet úvěrů, pod který se úsek už dále nedělí.
+     */
+    public BatchLoanCalculator(ForkJoinPool pool, int threshold) {
+        this(pool, false, threshold);
+    }
+
+    private BatchLoanCalculator(ForkJoinPool pool, boolean ownsPool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Práh dělení musí být kladný: " + threshold);
+        }
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Vypočítá splátky, celkové úroky a volitelně celé kalendáře pro všechny úvěry.
+     *
+     * @param loans Zadání úvěrů.
+     * @param includeSchedules Zda se mají sestavit i splátkové kalendáře.
+     * @return Výsledky ve stejném pořadí jako zadání.
+     */
+    public LoanResult[] calculate(LoanSpec[] loans, boolean includeSchedules) {
+        LoanResult[] results = new LoanResult[loans.length];
+        long start = LoanMetrics.ENABLED ? System.nanoTime() : 0;
+        if (loans.length > 0) {
+            pool.invoke(new CalculateTask(loans, results, 0, loans.length, includeSchedules, threshold));
+        }
+        if (LoanMetrics.ENABLED) {
+            LoanMetrics.recordBatch(loans.length, System.nanoTime() - start);
+        }
+        return results;
+    }
+
+    /**
+     * Vypočítá výsledky pro proud zadání. Proud se nejdříve sesbírá do pole,
+     * aby šel rozdělit na úseky a zachovat pořadí.
+     *
+     * @param loans Proud zadání úvěrů.
+     * @param includeSchedules Zda se mají sestavit i splátkové kalendáře.
+     * @return Výsledky ve stejném pořadí jako zadání.
+     */
+    public List<LoanResult> calculate(Stream<LoanSpec> loans, boolean includeSchedules) {
+        return Arrays.asList(calculate(loans.toArray(LoanSpec[]::new), includeSchedules));
+    }
+
+    /**
+     * Vypočítá výsledek jednoho úvěru v aktuálním vlákně.
+     *
+     * @param loan Zadání úvěru.
+     * @param includeSchedule Zda se má sestavit i splátkový kalendář.
+     * @return Výsledek výpočtu.
+     */
+    public static LoanResult calculate(LoanSpec loan, boolean includeSchedule) {
+        if (includeSchedule) {
+            ScheduleTable schedule = ScheduleTable.generate(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(),
+                    loan.getLoanTermMonths());
+            return new LoanResult(schedule.getSummary(), schedule);
+        }
+        return new LoanResult(LoanSummary.calculate(loan), null);
+    }
+
+    /**
+     * @return Stupeň paralelismu použitého poolu.
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Ukončí vlastní pool; sdílený pool zůstává beze změny.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Úloha počítající úsek pole zadání; větší úseky se půlí.
+     */
+    private static class CalculateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LoanSpec[] loans;
+        private final LoanResult[] results;
+        private final int from;
+        private final int to;
+        private final boolean includeSchedules;
+        private final int threshold;
+
+        CalculateTask(LoanSpec[] loans, LoanResult[] results, int from, int to, boolean includeSchedules, int threshold) {
+            this.loans = loans;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.includeSchedules = includeSchedules;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    results[i] = calculate(loans[i], includeSchedules);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CalculateTask(loans, results, from, middle, includeSchedules, threshold),
+                    new CalculateTask(loans, results, middle, to, includeSchedules, threshold));
+        }
+    }
+}
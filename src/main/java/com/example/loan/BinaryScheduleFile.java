@@ -0,0 +1,354 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binární soubor se splátkovými kalendáři více úvěrů, čtený přes paměťové mapování.
+ * Libovolný měsíc libovolného úvěru se přečte v konstantním čase bez procházení zbytku souboru.
+ * Soubory vytváří {@link BinaryScheduleWriter}.
+ * <p>
+ * Formát (big-endian, všechny částky v haléřích):
+ * <ul>
+ *     <li>hlavička souboru: magic, verze, rezerva (16 bajtů),</li>
+ *     <li>pro každý úvěr hlavička s parametry a součty jako v metadata sekci CSV
+ *         (výše úvěru, sazba, doba splácení, měsíční sazba, splátka, úroky, celkem zaplaceno,
+ *         datum exportu, počet řádků, identifikátor) zarovnaná na 8 bajtů,
+ *         za ní řádky pevné délky 32 bajtů (jistina, úrok, celkem, zůstatek),</li>
+ *     <li>index: pozice hlavičky každého úvěru,</li>
+ *     <li>zakončení: pozice indexu, počet úvěrů, magic (16 bajtů).</li>
+ * </ul>
+ * Soubor se mapuje po úsecích 1 GiB, které se překrývají o {@value #SEGMENT_OVERLAP} bajtů,
+ * takže každá hlavička i řádek leží celý v jednom úseku a velikost souboru není omezená na 2 GiB.
+ * <p>
+ * Čtení je vláknově bezpečné.
+ */
+public class BinaryScheduleFile implements AutoCloseable {
+
+    // "LSCH"
+    static final int MAGIC = 0x4C534348;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 16;
+    static final int TRAILER_SIZE = 16;
+    // Pevná část hlavičky úvěru před identifikátorem
+    static final int LOAN_HEADER_SIZE = 72;
+    static final int ROW_SIZE = 32;
+    // Nejdelší identifikátor úvěru v bajtech UTF-8
+    static final int MAX_ID_LENGTH = 1024;
+
+    // Pozice údajů v hlavičce úvěru
+    private static final int PRINCIPAL = 0;
+    private static final int RATE_UNSCALED = 8;
+    private static final int RATE_SCALE = 16;
+    private static final int LOAN_TERM = 20;
+    private static final int MONTHLY_RATE = 24;
+    private static final int MONTHLY_PAYMENT = 32;
+    private static final int TOTAL_INTEREST = 40;
+    private static final int TOTAL_PAID = 48;
+    private static final int EXPORT_TIME = 56;
+    private static final int ROW_COUNT = 64;
+    private static final int ID_LENGTH = 68;
+
+    // Pozice řádku ve sloupcích
+    private static final int PRINCIPAL_PAID = 0;
+    private static final int INTEREST_PAID = 8;
+    private static final int TOTAL_PAYMENT = 16;
+    private static final int REMAINING_BALANCE = 24;
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    static final int SEGMENT_OVERLAP = 4096;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long indexOffset;
+    private final int loanCount;
+
+    private BinaryScheduleFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < FILE_HEADER_SIZE + TRAILER_SIZE) {
+            throw new IllegalArgumentException("Soubor je příliš krátký na binární kalendář: " + size + " B");
+        }
+        int segmentCount = (int) ((size - 1) >>> SEGMENT_BITS) + 1;
+        segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            long length = Math.min(size - start, (1L << SEGMENT_BITS) + SEGMENT_OVERLAP);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+
+        if (getInt(0) != MAGIC || getInt(size - Integer.BYTES) != MAGIC) {
+            throw new IllegalArgumentException("Soubor není binární splátkový kalendář.");
+        }
+        if (getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Nepodporovaná verze binárního kalendáře: " + getInt(Integer.BYTES));
+        }
+        indexOffset = getLong(size - TRAILER_SIZE);
+        loanCount = getInt(size - TRAILER_SIZE + Long.BYTES);
+        if (loanCount < 0 || indexOffset < FILE_HEADER_SIZE
+                || indexOffset + (long) loanCount * Long.BYTES != size - TRAILER_SIZE) {
+            throw new IllegalArgumentException("Poškozený index binárního kalendáře.");
+        }
+    }
+
+    /**
+     * Otevře soubor pro čtení a namapuje ho do paměti.
+     *
+     * @param file Binární soubor z {@link BinaryScheduleWriter}.
+     * @return Otevřený soubor.
+     * @throws IOException Pokud soubor nelze otevřít nebo namapovat.
+     * @throws IllegalArgumentException Pokud soubor nemá očekávaný formát.
+     */
+    public static BinaryScheduleFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new BinaryScheduleFile(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Počet úvěrů v souboru.
+     */
+    public int getLoanCount() {
+        return loanCount;
+    }
+
+    /**
+     * @return Identifikátor úvěru, nebo null, pokud nebyl zadán.
+     */
+    public String getId(int loan) {
+        long header = headerOffset(loan);
+        int length = getInt(header + ID_LENGTH);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer segment = segment(header).duplicate();
+        segment.position(offsetInSegment(header) + LOAN_HEADER_SIZE);
+        segment.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Výše úvěru v haléřích.
+     */
+    public long getPrincipal(int loan) {
+        return getLong(headerOffset(loan) + PRINCIPAL);
+    }
+
+    /**
+     * @return Roční úroková sazba v procentech (se stejným počtem desetinných míst jako při zápisu).
+     */
+    public BigDecimal getAnnualInterestRate(int loan) {
+        long header = headerOffset(loan);
+        return BigDecimal.valueOf(getLong(header + RATE_UNSCALED), getInt(header + RATE_SCALE));
+    }
+
+    /**
+     * @return Doba splácení v měsících.
+     */
+    public int getLoanTermMonths(int loan) {
+        return getInt(headerOffset(loan) + LOAN_TERM);
+    }
+
+    /**
+     * @return Měsíční sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     */
+    public long getMonthlyRate(int loan) {
+        return getLong(headerOffset(loan) + MONTHLY_RATE);
+    }
+
+    /**
+     * @return Pravidelná měsíční splátka v haléřích.
+     */
+    public long getMonthlyPayment(int loan) {
+        return getLong(headerOffset(loan) + MONTHLY_PAYMENT);
+    }
+
+    /**
+     * @return Zaplacené úroky v haléřích.
+     */
+    public long getTotalInterest(int loan) {
+        return getLong(headerOffset(loan) + TOTAL_INTEREST);
+    }
+
+    /**
+     * @return Celkem zaplaceno v haléřích.
+     */
+    public long getTotalPaid(int loan) {
+        return getLong(headerOffset(loan) + TOTAL_PAID);
+    }
+
+    /**
+     * @return Datum a čas exportu kalendáře.
+     */
+    public LocalDateTime getExportTime(int loan) {
+        return LocalDateTime.ofEpochSecond(getLong(headerOffset(loan) + EXPORT_TIME), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return Počet řádků (měsíců) kalendáře.
+     */
+    public int getRowCount(int loan) {
+        return getInt(headerOffset(loan) + ROW_COUNT);
+    }
+
+    /**
+     * @return Zadání úvěru (výše úvěru, sazba, doba splácení a identifikátor).
+     */
+    public LoanSpec getLoanSpec(int loan) {
+        return new LoanSpec(getId(loan), FixedPointLoanCalculator.toBigDecimal(getPrincipal(loan)),
+                getAnnualInterestRate(loan), getLoanTermMonths(loan));
+    }
+
+    /**
+     * @param loan Index úvěru (od 0).
+     * @param month Číslo měsíce (od 1).
+     * @return Splacená jistina v haléřích.
+     */
+    public long getPrincipalPaid(int loan, int month) {
+        return getLong(rowOffset(loan, month) + PRINCIPAL_PAID);
+    }
+
+    /**
+     * @return Zaplacený úrok v haléřích.
+     */
+    public long getInterestPaid(int loan, int month) {
+        return getLong(rowOffset(loan, month) + INTEREST_PAID);
+    }
+
+    /**
+     * @return Celková splátka v haléřích.
+     */
+    public long getTotalPayment(int loan, int month) {
+        return getLong(rowOffset(loan, month) + TOTAL_PAYMENT);
+    }
+
+    /**
+     * @return Zůstatek po splátce v haléřích.
+     */
+    public long getRemainingBalance(int loan, int month) {
+        return getLong(rowOffset(loan, month) + REMAINING_BALANCE);
+    }
+
+    /**
+     * Předá všechny řádky kalendáře úvěru příjemci.
+     *
+     * @param loan Index úvěru (od 0).
+     * @param consumer Příjemce splátek.
+     */
+    public void forEach(int loan, PaymentConsumer consumer) {
+        int rowCount = getRowCount(loan);
+        long row = rowsOffset(headerOffset(loan));
+        for (int month = 1; month <= rowCount; month++, row += ROW_SIZE) {
+            consumer.accept(month, getLong(row + PRINCIPAL_PAID), getLong(row + INTEREST_PAID),
+                    getLong(row + TOTAL_PAYMENT), getLong(row + REMAINING_BALANCE));
+        }
+    }
+
+    /**
+     * Zapíše kalendář úvěru do CSV souboru ve stejném formátu jako {@link CsvExporter#exportScheduleToCsv},
+     * s uloženými součty a datem exportu.
+     *
+     * @param loan Index úvěru (od 0).
+     * @param filePath Cesta k souboru, kam se má CSV uložit.
+     * @param delimiter Oddělovač sloupců.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public void exportToCsv(int loan, String filePath, String delimiter) throws IOException {
+        CsvRowFormat rowFormat = new CsvRowFormat(delimiter);
+        int maxRowLength = rowFormat.maxRowLength(0);
+        String header = CsvStreamWriter.formatHeader(delimiter,
+                FixedPointLoanCalculator.toBigDecimal(getPrincipal(loan)), getAnnualInterestRate(loan),
+                getLoanTermMonths(loan), getMonthlyPayment(loan), getTotalInterest(loan), getTotalPaid(loan),
+                getExportTime(loan), CsvStreamWriter.DEFAULT_CURRENCY);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel output = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(output, ByteBuffer.wrap(header.getBytes(StandardCharsets.UTF_8)));
+            int rowCount = getRowCount(loan);
+            long row = rowsOffset(headerOffset(loan));
+            for (int month = 1; month <= rowCount; month++, row += ROW_SIZE) {
+                if (buffer.remaining() < maxRowLength) {
+                    buffer.flip();
+                    writeFully(output, buffer);
+                    buffer.clear();
+                }
+                rowFormat.putRow(buffer, month, getLong(row + PRINCIPAL_PAID), getLong(row + INTEREST_PAID),
+                        getLong(row + TOTAL_PAYMENT), getLong(row + REMAINING_BALANCE));
+            }
+            buffer.flip();
+            writeFully(output, buffer);
+        }
+    }
+
+    /**
+     * Zavře soubor. Namapované úseky uvolní garbage collector.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Velikost hlavičky úvěru s identifikátorem zadané délky, zarovnaná na 8 bajtů.
+     */
+    static int headerSize(int idLength) {
+        return (LOAN_HEADER_SIZE + idLength + 7) & ~7;
+    }
+
+    private long headerOffset(int loan) {
+        if (loan < 0 || loan >= loanCount) {
+            throw new IndexOutOfBoundsException("Úvěr " + loan + " mimo soubor s " + loanCount + " úvěry");
+        }
+        return getLong(indexOffset + (long) loan * Long.BYTES);
+    }
+
+    private long rowsOffset(long header) {
+        return header + headerSize(Math.max(0, getInt(header + ID_LENGTH)));
+    }
+
+    private long rowOffset(int loan, int month) {
+        long header = headerOffset(loan);
+        int rowCount = getInt(header + ROW_COUNT);
+        if (month < 1 || month > rowCount) {
+            throw new IndexOutOfBoundsException("Měsíc " + month + " mimo kalendář s " + rowCount + " měsíci");
+        }
+        return rowsOffset(header) + (long) (month - 1) * ROW_SIZE;
+    }
+
+    private MappedByteBuffer segment(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)];
+    }
+
+    private static int offsetInSegment(long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+
+    private long getLong(long position) {
+        return segment(position).getLong(offsetInSegment(position));
+    }
+
+    private int getInt(long position) {
+        return segment(position).getInt(offsetInSegment(position));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Zápis splátkových kalendářů do binárního souboru pro {@link BinaryScheduleFile}.
+ * Úvěry se zapisují postupně (přímo z výpočtu, ze sloupcového kalendáře nebo z CSV
+ * ve formátu {@link CsvExporter}), index úvěrů se zapíše až při {@link #close()}.
+ * <p>
+ * Instance není vláknově bezpečná.
+ */
+public class BinaryScheduleWriter implements AutoCloseable {
+
+    // Velikost bufferu pro zápis
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final RowWriter rowWriter = new RowWriter();
+    // Pozice v souboru za posledním zapsaným bajtem (včetně obsahu bufferu)
+    private long position;
+    private long[] loanOffsets = new long[16];
+    private int loanCount;
+
+    /**
+     * Vytvoří soubor a zapíše jeho hlavičku.
+     *
+     * @param file Cílový soubor (existující obsah se přepíše).
+     * @throws IOException Pokud soubor nelze vytvořit.
+     */
+    public BinaryScheduleWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(BinaryScheduleFile.MAGIC).putInt(BinaryScheduleFile.VERSION).putLong(0);
+        position = BinaryScheduleFile.FILE_HEADER_SIZE;
+    }
+
+    /**
+     * Vypočítá splátkový kalendář úvěru a zapíše ho. Jako datum exportu se uloží aktuální čas.
+     *
+     * @param loan Zadání úvěru.
+     * @return Index úvěru v souboru (od 0).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public int write(LoanSpec loan) throws IOException {
+        long principal = loan.getPrincipalMinorUnits();
+        long monthlyRate = loan.getMonthlyRate();
+        int term = loan.getLoanTermMonths();
+        long monthlyPayment = FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, term);
+        long totalInterest = FixedPointLoanCalculator.calculateTotalInterest(principal, monthlyRate, term,
+                monthlyPayment);
+        int index = beginLoan(loan.getId(), principal, loan.getAnnualInterestRate(), term, monthlyRate,
+                monthlyPayment, totalInterest, Math.multiplyExact(monthlyPayment, term), now(), term);
+        try {
+            FixedPointLoanCalculator.generatePaymentSchedule(principal, monthlyRate, term, rowWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return index;
+    }
+
+    /**
+     * Zapíše již spočítaný sloupcový kalendář. Jako datum exportu se uloží aktuální čas.
+     *
+     * @param loan Zadání úvěru, ke kterému kalendář patří.
+     * @param schedule Sloupcový splátkový kalendář.
+     * @return Index úvěru v souboru (od 0).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public int write(LoanSpec loan, ScheduleTable schedule) throws IOException {
+        LoanSummary summary = schedule.getSummary();
+        int index = beginLoan(loan.getId(), loan.getPrincipalMinorUnits(), loan.getAnnualInterestRate(),
+                loan.getLoanTermMonths(), loan.getMonthlyRate(), summary.getMonthlyPayment(),
+                summary.getTotalInterest(), summary.getTotalPaid(), now(), schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            writeRow(schedule.getPrincipalPaid(i), schedule.getInterestPaid(i), schedule.getTotalPayment(i),
+                    schedule.getRemainingBalance(i));
+        }
+        return index;
+    }
+
+    /**
+     * Převede CSV soubor ve formátu {@link CsvExporter#exportScheduleToCsv} (metadata sekce
+     * a splátkový kalendář) na jeden úvěr v binárním souboru. Oddělovač se rozpozná
+     * automaticky ({@link CsvScheduleReader}). Částky, sazba i datum exportu se převezmou
+     * z CSV beze změny, takže {@link BinaryScheduleFile#exportToCsv} se stejným oddělovačem
+     * vytvoří stejný soubor.
+     *
+     * @param csvFile Zdrojový CSV soubor v kódování UTF-8.
+     * @return Index úvěru v souboru (od 0).
+     * @throws IOException Pokud dojde k chybě při čtení nebo zápisu.
+     * @throws IllegalArgumentException Pokud soubor nemá očekávaný formát nebo je kalendář v jiné měně než CZK.
+     */
+    public int importCsv(Path csvFile) throws IOException {
+        // Počet řádků je v hlavičce úvěru, proto se řádky nejdřív načtou
+        RowBuffer rows = new RowBuffer();
+        CsvScheduleHeader header = new CsvScheduleReader().read(csvFile, rows);
+        if (!CsvStreamWriter.DEFAULT_CURRENCY.equals(header.getCurrency())) {
+            throw new IllegalArgumentException("Binární kalendář ukládá jen částky v CZK: " + header.getCurrency());
+        }
+        BigDecimal annualInterestRate = header.getAnnualInterestRate();
+        int index = beginLoan(null, header.getPrincipal(), annualInterestRate, header.getLoanTermMonths(),
+                FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), header.getMonthlyPayment(),
+                header.getTotalInterest(), header.getTotalPaid(), header.getExportTime(), header.getRowCount());
+        long[] values = rows.values;
+        for (int i = 0; i < header.getRowCount(); i++) {
+            writeRow(values[4 * i], values[4 * i + 1], values[4 * i + 2], values[4 * i + 3]);
+        }
+        return index;
+    }
+
+    /**
+     * @return Počet dosud zapsaných úvěrů.
+     */
+    public int getLoanCount() {
+        return loanCount;
+    }
+
+    /**
+     * Zapíše index úvěrů a zakončení souboru a soubor zavře.
+     *
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            for (int i = 0; i < loanCount; i++) {
+                ensureCapacity(Long.BYTES);
+                buffer.putLong(loanOffsets[i]);
+            }
+            ensureCapacity(BinaryScheduleFile.TRAILER_SIZE);
+            buffer.putLong(indexOffset).putInt(loanCount).putInt(BinaryScheduleFile.MAGIC);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Zapíše hlavičku úvěru; za ní musí následovat přesně rowCount řádků.
+     */
+    private int beginLoan(String id, long principal, BigDecimal annualInterestRate, int loanTermMonths,
+            long monthlyRate, long monthlyPayment, long totalInterest, long totalPaid, LocalDateTime exportTime,
+            int rowCount) throws IOException {
+        byte[] idBytes = id == null ? null : id.getBytes(StandardCharsets.UTF_8);
+        if (idBytes != null && idBytes.length > BinaryScheduleFile.MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("Identifikátor úvěru je příliš dlouhý: " + id);
+        }
+        if (annualInterestRate.unscaledValue().bitLength() > 63) {
+            throw new IllegalArgumentException("Úroková sazba má příliš mnoho číslic: " + annualInterestRate);
+        }
+        if (loanCount == loanOffsets.length) {
+            loanOffsets = Arrays.copyOf(loanOffsets, 2 * loanOffsets.length);
+        }
+        loanOffsets[loanCount] = position;
+
+        int idLength = idBytes == null ? 0 : idBytes.length;
+        int headerSize = BinaryScheduleFile.headerSize(idLength);
+        ensureCapacity(headerSize);
+        int start = buffer.position();
+        buffer.putLong(principal)
+                .putLong(annualInterestRate.unscaledValue().longValue())
+                .putInt(annualInterestRate.scale())
+                .putInt(loanTermMonths)
+                .putLong(monthlyRate)
+                .putLong(monthlyPayment)
+                .putLong(totalInterest)
+                .putLong(totalPaid)
+                .putLong(exportTime.toEpochSecond(ZoneOffset.UTC))
+                .putInt(rowCount)
+                .putInt(idBytes == null ? -1 : idLength);
+        if (idBytes != null) {
+            buffer.put(idBytes);
+        }
+        // Doplnění na násobek 8 bajtů, aby řádky byly zarovnané
+        while (buffer.position() - start < headerSize) {
+            buffer.put((byte) 0);
+        }
+        position += headerSize;
+        return loanCount++;
+    }
+
+    private void writeRow(long principalPaid, long interestPaid, long totalPayment, long remainingBalance)
+            throws IOException {
+        ensureCapacity(BinaryScheduleFile.ROW_SIZE);
+        buffer.putLong(principalPaid).putLong(interestPaid).putLong(totalPayment).putLong(remainingBalance);
+        position += BinaryScheduleFile.ROW_SIZE;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Příjemce řádků přímo z výpočtu; chyby zápisu se předávají jako UncheckedIOException.
+     */
+    private class RowWriter implements PaymentConsumer {
+        @Override
+        public void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+                long remainingBalance) {
+            try {
+                writeRow(principalPaid, interestPaid, totalPayment, remainingBalance);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Řádky načtené z CSV, čtyři částky na řádek.
+     */
+    private static class RowBuffer implements PaymentConsumer {
+        private long[] values = new long[4 * 360];
+
+        @Override
+        public void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+                long remainingBalance) {
+            int offset = 4 * (monthNumber - 1);
+            if (offset == values.length) {
+                values = Arrays.copyOf(values, 2 * values.length);
+            }
+            values[offset] = principalPaid;
+            values[offset + 1] = interestPaid;
+            values[offset + 2] = totalPayment;
+            values[offset + 3] = remainingBalance;
+        }
+    }
+}
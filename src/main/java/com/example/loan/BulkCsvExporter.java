@@ -0,0 +1,322 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Hromadný export splátkových kalendářů celého portfolia do jednoho CSV souboru
+ * (nebo do jednoho souboru na každou část portfolia).
+ * Každý řádek začíná sloupcem s identifikátorem úvěru (chybí-li identifikátor,
+ * použije se pořadové číslo úvěru v portfoliu od 1) a sloupcem s kódem měny úvěru.
+ * Oba sloupce se pro úvěr připraví jednou a do řádků se jen kopírují, takže portfolio
+ * ve více měnách se zapisuje stejně rychle jako portfolio v jedné měně.
+ * <p>
+ * Řádky se formátují přímo z výpočtu do velkého přímého bufferu, který se při zaplnění
+ * zapíše do {@link FileChannel}. V režimu {@link Mode#MAPPED} se místo toho píše do paměťově
+ * mapovaných oken souboru, která se posouvají za zapsaná data; velikost výstupu tak
+ * nemusí být známa předem a soubor se na konci zkrátí na skutečnou délku.
+ */
+public class BulkCsvExporter {
+
+    /**
+     * Způsob zápisu do souboru.
+     */
+    public enum Mode {
+        // Zápis přes přímý buffer a FileChannel.write
+        CHANNEL,
+        // Zápis do paměťově mapovaných oken souboru
+        MAPPED
+    }
+
+    // Výchozí velikost bufferu, resp. mapovaného okna
+    public static final int DEFAULT_BUFFER_SIZE = 4 * 1024 * 1024;
+    // Nejdelší identifikátor úvěru v bajtech, který se ještě vejde do rezervy řádku
+    private static final int MAX_ID_LENGTH = 1024;
+    // Délka kódu měny ISO 4217
+    private static final int CURRENCY_CODE_LENGTH = 3;
+
+    private final String delimiter;
+    private final Mode mode;
+    private final int bufferSize;
+
+    /**
+     * Vytvoří exportér s výchozí velikostí bufferu.
+     *
+     * @param delimiter Oddělovač sloupců.
+     * @param mode Způsob zápisu do souboru.
+     */
+    public BulkCsvExporter(String delimiter, Mode mode) {
+        this(delimiter, mode, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Vytvoří exportér.
+     *
+     * @param delimiter Oddělovač sloupců.
+     * @param mode Způsob zápisu do souboru.
+     * @param bufferSize Velikost bufferu, resp. mapovaného okna v bajtech.
+     */
+    public BulkCsvExporter(String delimiter, Mode mode, int bufferSize) {
+        if (bufferSize < 64 * 1024) {
+            throw new IllegalArgumentException("Buffer musí mít alespoň 64 kB: " + bufferSize);
+        }
+        this.delimiter = delimiter;
+        this.mode = mode;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Exportuje kalendáře všech úvěrů do jednoho souboru.
+     *
+     * @param loans Úvěry portfolia.
+     * @param file Cílový soubor (existující obsah se přepíše).
+     * @return Počet zapsaných bajtů.
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public long export(LoanSpec[] loans, Path file) throws IOException {
+        return export(loans, 0, loans.length, file);
+    }
+
+    /**
+     * Exportuje kalendáře úseku portfolia do jednoho souboru.
+     *
+     * @param loans Úvěry portfolia.
+     * @param from Index prvního exportovaného úvěru.
+     * @param to Index za posledním exportovaným úvěrem.
+     * @param file Cílový soubor (existující obsah se přepíše).
+     * @return Počet zapsaných bajtů.
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public long export(LoanSpec[] loans, int from, int to, Path file) throws IOException {
+        if (!LoanMetrics.ENABLED) {
+            return write(loans, from, to, file);
+        }
+        CsvExportEvent event = LoanMetrics.beginExport();
+        long start = System.nanoTime();
+        long bytes = write(loans, from, to, file);
+        long rows = 0;
+        for (int i = from; i < to; i++) {
+            rows += loans[i].getLoanTermMonths();
+        }
+        LoanMetrics.recordExport(event, "portfolio", rows, bytes, start);
+        return bytes;
+    }
+
+    private long write(LoanSpec[] loans, int from, int to, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output output = mode == Mode.MAPPED ? new MappedOutput(channel, bufferSize)
+                    : new ChannelOutput(channel, bufferSize);
+            PortfolioWriter writer = new PortfolioWriter(output, new CsvRowFormat(delimiter));
+            output.buffer().put(formatHeader().getBytes(StandardCharsets.UTF_8));
+            for (int i = from; i < to; i++) {
+                writer.writeLoan(loans[i], i);
+            }
+            return output.finish();
+        }
+    }
+
+    /**
+     * Rozdělí portfolio na zadaný počet souvislých částí a každou exportuje paralelně
+     * do vlastního souboru {@code prefix-000.csv}, {@code prefix-001.csv}, ...
+     *
+     * @param loans Úvěry portfolia.
+     * @param directory Adresář pro výstupní soubory.
+     * @param prefix Předpona názvů souborů.
+     * @param shards Počet částí.
+     * @return Celkový počet zapsaných bajtů.
+     * @throws IOException Pokud dojde k chybě při zápisu kterékoli části.
+     */
+    public long exportSharded(LoanSpec[] loans, Path directory, String prefix, int shards) throws IOException {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Počet částí musí být kladný: " + shards);
+        }
+        try {
+            return IntStream.range(0, shards).parallel().mapToLong(shard -> {
+                int from = (int) ((long) loans.length * shard / shards);
+                int to = (int) ((long) loans.length * (shard + 1) / shards);
+                Path file = directory.resolve(String.format("%s-%03d.csv", prefix, shard));
+                try {
+                    return export(loans, from, to, file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Záhlaví souboru portfolia.
+     */
+    private String formatHeader() {
+        String lineSeparator = System.lineSeparator();
+        return "# Splátkový kalendář portfolia" + lineSeparator
+                + "Úvěr" + delimiter + "Měna" + delimiter + "Měsíc" + delimiter + "Jistina" + delimiter + "Úrok" + delimiter
+                + "Celkem" + delimiter + "Zbývá" + lineSeparator;
+    }
+
+    /**
+     * Zápis řádků jednoho souboru; přijímá splátky přímo z výpočtu.
+     */
+    private static class PortfolioWriter implements PaymentConsumer {
+        private final Output output;
+        private final CsvRowFormat rowFormat;
+        private final int maxRowLength;
+        // Sloupce identifikátoru a měny právě zapisovaného úvěru včetně oddělovačů
+        private final ByteBuffer rowPrefix;
+
+        PortfolioWriter(Output output, CsvRowFormat rowFormat) {
+            this.output = output;
+            this.rowFormat = rowFormat;
+            int prefixLength = MAX_ID_LENGTH + CURRENCY_CODE_LENGTH + 2 * rowFormat.delimiter().length;
+            this.maxRowLength = rowFormat.maxRowLength(prefixLength);
+            this.rowPrefix = ByteBuffer.allocate(prefixLength);
+        }
+
+        void writeLoan(LoanSpec loan, int index) throws IOException {
+            byte[] currencyCode = CurrencyFormat.forCurrency(loan.getCurrency()).currencyCodeUtf8();
+            rowPrefix.clear();
+            if (loan.getId() == null) {
+                CsvRowFormat.putLong(rowPrefix, index + 1L);
+            } else {
+                byte[] loanId = loan.getId().getBytes(StandardCharsets.UTF_8);
+                if (loanId.length > MAX_ID_LENGTH) {
+                    throw new IllegalArgumentException("Identifikátor úvěru je příliš dlouhý: " + loan.getId());
+                }
+                rowPrefix.put(loanId);
+            }
+            rowPrefix.put(rowFormat.delimiter()).put(currencyCode).put(rowFormat.delimiter());
+            try {
+                FixedPointLoanCalculator.generatePaymentSchedule(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(),
+                        loan.getLoanTermMonths(), this);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+                long remainingBalance) {
+            ByteBuffer buffer;
+            try {
+                buffer = output.reserve(maxRowLength);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.put(rowPrefix.array(), 0, rowPrefix.position());
+            rowFormat.putRow(buffer, monthNumber, principalPaid, interestPaid, totalPayment, remainingBalance);
+        }
+    }
+
+    /**
+     * Cíl zápisu: buffer, do kterého se formátuje, a jeho uvolňování do souboru.
+     */
+    private abstract static class Output {
+        /**
+         * @return Aktuální buffer pro zápis.
+         */
+        abstract ByteBuffer buffer();
+
+        /**
+         * Zajistí, aby v bufferu bylo alespoň zadané množství volného místa.
+         *
+         * @return Buffer pro zápis.
+         */
+        abstract ByteBuffer reserve(int length) throws IOException;
+
+        /**
+         * Dokončí zápis.
+         *
+         * @return Celkový počet zapsaných bajtů.
+         */
+        abstract long finish() throws IOException;
+    }
+
+    /**
+     * Zápis přes přímý buffer, který se při zaplnění vyprázdní do kanálu.
+     */
+    private static class ChannelOutput extends Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long written;
+
+        ChannelOutput(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        @Override
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        @Override
+        ByteBuffer reserve(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                flush();
+            }
+            return buffer;
+        }
+
+        @Override
+        long finish() throws IOException {
+            flush();
+            return written;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Zápis do paměťově mapovaných oken; nové okno začíná tam, kde skončila data předchozího.
+     */
+    private static class MappedOutput extends Output {
+        private final FileChannel channel;
+        private final int windowSize;
+        // Pozice začátku aktuálního okna v souboru
+        private long windowStart;
+        private ByteBuffer window;
+
+        MappedOutput(FileChannel channel, int windowSize) throws IOException {
+            this.channel = channel;
+            this.windowSize = windowSize;
+            this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, windowSize);
+        }
+
+        @Override
+        ByteBuffer buffer() {
+            return window;
+        }
+
+        @Override
+        ByteBuffer reserve(int length) throws IOException {
+            if (window.remaining() < length) {
+                windowStart += window.position();
+                window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, windowSize);
+            }
+            return window;
+        }
+
+        @Override
+        long finish() throws IOException {
+            long size = windowStart + window.position();
+            // Mapování zvětšilo soubor na konec okna, zkrátíme ho na skutečná data
+            channel.truncate(size);
+            return size;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.loan;
+
+/**
+ * Neměnný snímek statistik cache.
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final long weight;
+
+    /**
+     * Konstruktor pro vytvoření snímku statistik.
+     *
+     * @param hitCount Počet nalezených položek.
+     * @param missCount Počet nenalezených položek.
+     * @param evictionCount Počet vyřazených položek.
+     * @param size Aktuální počet položek.
+     * @param weight Aktuální odhad obsazené paměti v bajtech.
+     */
+    public CacheStats(long hitCount, long missCount, long evictionCount, int size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return Podíl nalezených položek ze všech dotazů (0, pokud dotaz ještě nebyl).
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+               "hits=" + hitCount +
+               ", misses=" + missCount +
+               ", evictions=" + evictionCount +
+               ", size=" + size +
+               ", weight=" + weight +
+               '}';
+    }
+}
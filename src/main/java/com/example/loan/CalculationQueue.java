@@ -0,0 +1,464 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fronta výpočtů a exportů uvnitř procesu pro situace, kdy najednou přijde mnoho požadavků.
+ * <ul>
+ *     <li>Počet přijatých a nedokončených úloh je omezený kapacitou; při plné frontě metody
+ *         {@code submit...} čekají, až se místo uvolní, takže se zátěž přenese na volající.</li>
+ *     <li>Výpočty běží v poolu pro práci s CPU (jedno vlákno na jádro), zápis exportů
+ *         v odděleném poolu pro I/O, takže pomalý disk neblokuje výpočty.</li>
+ *     <li>Samotné výpočty splátky se slučují do dávek: první požadavek naplánuje jednu úlohu,
+ *         která pak zpracuje všechny splátky, jež mezitím přibyly (nejvýše {@code maxBatchSize}
+ *         najednou). Bez zátěže tak dávka nic nečeká, pod zátěží se režie rozloží.</li>
+ *     <li>Stejný požadavek, který se už počítá, se nepočítá znovu: volající dostane výsledek
+ *         rozpracované úlohy. Úvěry se porovnávají podle normalizovaného zadání ({@link LoanKey}).</li>
+ * </ul>
+ * Výsledky jsou {@link CompletableFuture}; každý volající dostane vlastní kopii, takže zrušení
+ * jedné kopie neovlivní ostatní volající ani rozpracovaný výpočet.
+ * <p>
+ * Hloubku fronty, počet rozpracovaných úloh a dobu čekání na zpracování (histogram v µs)
+ * lze sledovat přímo, nebo po {@link LoanMetrics#registerQueue} v přehledu metrik.
+ * Třída je vláknově bezpečná.
+ */
+public class CalculationQueue implements AutoCloseable {
+
+    // Výchozí počet přijatých a nedokončených úloh
+    public static final int DEFAULT_CAPACITY = 1024;
+    // Výchozí největší počet splátek v jedné dávce
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    // Výchozí počet vláken pro zápis exportů
+    public static final int DEFAULT_IO_THREADS = 2;
+
+    private final int capacity;
+    private final int maxBatchSize;
+    private final ExecutorService cpuPool;
+    private final ExecutorService ioPool;
+    // Volná místa ve frontě
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    // Rozpracované úlohy podle zadání pro sloučení stejných požadavků
+    private final ConcurrentHashMap<LoanKey, CompletableFuture<Long>> inFlightPayments = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LoanKey, CompletableFuture<LoanSummary>> inFlightSummaries =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LoanKey, CompletableFuture<ScheduleTable>> inFlightSchedules =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<Object>, CompletableFuture<Long>> inFlightExports =
+            new ConcurrentHashMap<>();
+
+    // Splátky čekající na dávku a příznak, že je dávka naplánovaná v poolu
+    private final Queue<PaymentJob> pendingPayments = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean paymentBatchScheduled = new AtomicBoolean();
+
+    // Úlohy přijaté, ale dosud nespuštěné
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    // Doba od přijetí úlohy do jejího spuštění v µs
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder paymentBatches = new LongAdder();
+    private final LongAdder batchedPayments = new LongAdder();
+
+    /**
+     * Vytvoří frontu s výchozí kapacitou, jedním výpočetním vláknem na jádro a dvěma vlákny pro export.
+     */
+    public CalculationQueue() {
+        this(DEFAULT_CAPACITY, Runtime.getRuntime().availableProcessors(), DEFAULT_IO_THREADS,
+                DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Vytvoří frontu.
+     *
+     * @param capacity Největší počet přijatých a nedokončených úloh.
+     * @param cpuThreads Počet vláken pro výpočty.
+     * @param ioThreads Počet vláken pro zápis exportů.
+     * @param maxBatchSize Největší počet splátek v jedné dávce.
+     */
+    public CalculationQueue(int capacity, int cpuThreads, int ioThreads, int maxBatchSize) {
+        if (capacity <= 0 || cpuThreads <= 0 || ioThreads <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Kapacita, počty vláken i velikost dávky musí být kladné: "
+                    + capacity + ", " + cpuThreads + ", " + ioThreads + ", " + maxBatchSize);
+        }
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.permits = new Semaphore(capacity);
+        this.ioPool = new ThreadPoolExecutor(ioThreads, ioThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("loan-io-"));
+        // Export přechází z výpočtu do zápisu; pool pro I/O se proto ukončí až po dokončení všech výpočtů
+        this.cpuPool = new ThreadPoolExecutor(cpuThreads, cpuThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("loan-cpu-")) {
+            @Override
+            protected void terminated() {
+                ioPool.shutdown();
+            }
+        };
+    }
+
+    /**
+     * Zařadí výpočet měsíční splátky; splátky se počítají v dávkách.
+     *
+     * @param loan Zadání úvěru.
+     * @return Splátka v haléřích.
+     * @throws InterruptedException Pokud je vlákno přerušeno při čekání na místo ve frontě.
+     * @throws IllegalStateException Pokud je fronta uzavřená.
+     */
+    public CompletableFuture<Long> submitPayment(LoanSpec loan) throws InterruptedException {
+        LoanKey key = LoanKey.of(loan);
+        return submit(inFlightPayments, key, future -> {
+            queueDepth.incrementAndGet();
+            pendingPayments.add(new PaymentJob(key, future, System.nanoTime()));
+            schedulePaymentBatch();
+        });
+    }
+
+    /**
+     * Zařadí výpočet souhrnu úvěru bez sestavení kalendáře.
+     *
+     * @param loan Zadání úvěru.
+     * @return Souhrn úvěru.
+     * @throws InterruptedException Pokud je vlákno přerušeno při čekání na místo ve frontě.
+     * @throws IllegalStateException Pokud je fronta uzavřená.
+     */
+    public CompletableFuture<LoanSummary> submitSummary(LoanSpec loan) throws InterruptedException {
+        return submit(inFlightSummaries, LoanKey.of(loan), future ->
+                run(cpuPool, () -> LoanSummary.calculate(loan), future));
+    }
+
+    /**
+     * Zařadí výpočet splátkového kalendáře.
+     *
+     * @param loan Zadání úvěru.
+     * @return Neměnný splátkový kalendář.
+     * @throws InterruptedException Pokud je vlákno přerušeno při čekání na místo ve frontě.
+     * @throws IllegalStateException Pokud je fronta uzavřená.
+     */
+    public CompletableFuture<ScheduleTable> submitSchedule(LoanSpec loan) throws InterruptedException {
+        LoanKey key = LoanKey.of(loan);
+        return submit(inFlightSchedules, key, future -> run(cpuPool, () -> generate(key), future));
+    }
+
+    /**
+     * Zařadí export kalendáře do CSV souboru ve formátu {@link CsvExporter}. Kalendář se spočítá
+     * ve výpočetním poolu a zapíše v poolu pro I/O. Stejný export do stejného souboru, který
+     * už probíhá, se nespustí podruhé.
+     *
+     * @param loan Zadání úvěru (včetně měny).
+     * @param file Cílový soubor (existující obsah se přepíše).
+     * @param delimiter Oddělovač sloupců.
+     * @return Počet zapsaných bajtů; při chybě zápisu se future dokončí s {@link IOException}.
+     * @throws InterruptedException Pokud je vlákno přerušeno při čekání na místo ve frontě.
+     * @throws IllegalStateException Pokud je fronta uzavřená.
+     */
+    public CompletableFuture<Long> submitExport(LoanSpec loan, Path file, String delimiter)
+            throws InterruptedException {
+        LoanKey key = LoanKey.of(loan);
+        Path target = file.toAbsolutePath().normalize();
+        List<Object> exportKey = Arrays.asList(key, loan.getCurrency(), target, delimiter);
+        return submit(inFlightExports, exportKey, future -> {
+            CompletableFuture<ScheduleTable> schedule = new CompletableFuture<>();
+            run(cpuPool, () -> generate(key), schedule);
+            schedule.whenComplete((table, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    try {
+                        run(ioPool, () -> write(loan, table, target, delimiter), future);
+                    } catch (RejectedExecutionException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * @return Kapacita fronty.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Počet úloh přijatých, ale dosud nespuštěných (včetně splátek čekajících na dávku).
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return Počet přijatých a dosud nedokončených úloh.
+     */
+    public int getInFlight() {
+        return capacity - permits.availablePermits();
+    }
+
+    /**
+     * @return Histogram doby od přijetí úlohy do jejího spuštění v mikrosekundách.
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * @return Počet přijatých úloh (bez požadavků sloučených s rozpracovanou úlohou).
+     */
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return Počet požadavků, které dostaly výsledek už rozpracované stejné úlohy.
+     */
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * @return Počet úloh dokončených s chybou.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return Počet dávek výpočtu splátek.
+     */
+    public long getPaymentBatches() {
+        return paymentBatches.sum();
+    }
+
+    /**
+     * @return Počet splátek spočítaných ve všech dávkách.
+     */
+    public long getBatchedPayments() {
+        return batchedPayments.sum();
+    }
+
+    /**
+     * Přestane přijímat nové úlohy; už přijaté úlohy se dokončí.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        cpuPool.shutdown();
+    }
+
+    /**
+     * Počká na dokončení přijatých úloh po {@link #close()}.
+     *
+     * @param timeout Nejdelší doba čekání.
+     * @param unit Jednotka doby čekání.
+     * @return true, pokud se všechny úlohy dokončily.
+     * @throws InterruptedException Pokud je vlákno při čekání přerušeno.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        return cpuPool.awaitTermination(timeout, unit)
+                && ioPool.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Přijme úlohu, pokud stejná úloha už neběží. Místo ve frontě se uvolní po dokončení úlohy;
+     * sloučený požadavek místo nezabírá.
+     *
+     * @param start Zařadí úlohu, která dokončí předanou future.
+     */
+    private <K, T> CompletableFuture<T> submit(ConcurrentHashMap<K, CompletableFuture<T>> inFlight, K key,
+            Consumer<CompletableFuture<T>> start) throws InterruptedException {
+        CompletableFuture<T> existing = inFlight.get(key);
+        if (existing != null) {
+            deduplicated.increment();
+            return existing.copy();
+        }
+        checkOpen();
+        permits.acquire();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            permits.release();
+            deduplicated.increment();
+            return existing.copy();
+        }
+        submitted.increment();
+        future.whenComplete((result, error) -> {
+            inFlight.remove(key, future);
+            permits.release();
+            if (error != null) {
+                failed.increment();
+            }
+        });
+        try {
+            checkOpen();
+            start.accept(future);
+        } catch (IllegalStateException | RejectedExecutionException e) {
+            // Fronta se mezitím uzavřela
+            future.completeExceptionally(e);
+        }
+        return future.copy();
+    }
+
+    /**
+     * Spustí úlohu v poolu a zaznamená, jak dlouho čekala. Výjimka {@link UncheckedIOException}
+     * se rozbalí na původní {@link IOException}.
+     */
+    private <T> void run(ExecutorService pool, Supplier<T> task, CompletableFuture<T> future) {
+        long accepted = System.nanoTime();
+        queueDepth.incrementAndGet();
+        try {
+            pool.execute(() -> {
+                started(accepted);
+                try {
+                    future.complete(task.get());
+                } catch (UncheckedIOException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (RuntimeException | Error e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueDepth.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void started(long acceptedNanos) {
+        queueDepth.decrementAndGet();
+        waitTime.record((System.nanoTime() - acceptedNanos) / 1000);
+    }
+
+    /**
+     * Naplánuje dávku splátek, pokud už není naplánovaná.
+     */
+    private void schedulePaymentBatch() {
+        if (paymentBatchScheduled.compareAndSet(false, true)) {
+            try {
+                cpuPool.execute(this::runPaymentBatch);
+            } catch (RejectedExecutionException e) {
+                paymentBatchScheduled.set(false);
+                failPendingPayments(e);
+            }
+        }
+    }
+
+    /**
+     * Spočítá nejvýše {@code maxBatchSize} čekajících splátek. Pokud další zůstaly, naplánuje
+     * novou dávku, aby se mezi dávkami dostaly ke slovu i ostatní výpočty; při ukončování
+     * poolu je spočítá rovnou v tomto vlákně.
+     */
+    private void runPaymentBatch() {
+        while (true) {
+            calculatePaymentBatch();
+            paymentBatchScheduled.set(false);
+            // Splátka přidaná po vyprázdnění fronty, ale před uvolněním příznaku, by jinak zůstala ležet
+            if (pendingPayments.isEmpty() || !paymentBatchScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                cpuPool.execute(this::runPaymentBatch);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Pool se ukončuje, zbytek se spočítá v tomto vlákně
+            }
+        }
+    }
+
+    private void calculatePaymentBatch() {
+        AnnuityFactorTable factors = AnnuityFactorTable.standard();
+        int count = 0;
+        PaymentJob job;
+        while (count < maxBatchSize && (job = pendingPayments.poll()) != null) {
+            started(job.acceptedNanos);
+            count++;
+            try {
+                LoanKey key = job.key;
+                job.future.complete(factors.calculateMonthlyPayment(key.getPrincipal(), key.getMonthlyRate(),
+                        key.getLoanTermMonths()));
+            } catch (RuntimeException e) {
+                job.future.completeExceptionally(e);
+            }
+        }
+        if (count > 0) {
+            paymentBatches.increment();
+            batchedPayments.add(count);
+        }
+    }
+
+    private void failPendingPayments(Throwable error) {
+        PaymentJob job;
+        while ((job = pendingPayments.poll()) != null) {
+            queueDepth.decrementAndGet();
+            job.future.completeExceptionally(error);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Fronta výpočtů je uzavřená");
+        }
+    }
+
+    private static ScheduleTable generate(LoanKey key) {
+        return ScheduleTable.generate(key.getPrincipal(), key.getMonthlyRate(), key.getLoanTermMonths());
+    }
+
+    private static long write(LoanSpec loan, ScheduleTable schedule, Path file, String delimiter) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            new CsvStreamWriter(delimiter).write(schedule, loan.getPrincipal(), loan.getAnnualInterestRate(),
+                    loan.getLoanTermMonths(), loan.getCurrency(), channel);
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Splátka čekající na dávku.
+     */
+    private static final class PaymentJob {
+        final LoanKey key;
+        final CompletableFuture<Long> future;
+        final long acceptedNanos;
+
+        PaymentJob(LoanKey key, CompletableFuture<Long> future, long acceptedNanos) {
+            this.key = key;
+            this.future = future;
+            this.acceptedNanos = acceptedNanos;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.loan;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR událost exportu do CSV. Zapisuje se jen se zapnutými {@link LoanMetrics}.
+ */
+@Name("com.example.loan.CsvExport")
+@Label("Export do CSV")
+@Category("Hypoteční kalkulačka")
+@Description("Zápis splátkového kalendáře, portfolia nebo tabulky splátek do CSV.")
+public class CsvExportEvent extends Event {
+
+    @Label("Druh exportu")
+    String kind;
+
+    @Label("Řádky s daty")
+    long rows;
+
+    @Label("Zapsané bajty")
+    @DataAmount
+    long bytes;
+}
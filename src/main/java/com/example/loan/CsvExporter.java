@@ -4,8 +4,15 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Currency;
 import java.util.List;
 import java.util.Locale;
 
@@ -14,6 +21,9 @@ import java.util.Locale;
  */
 public class CsvExporter {
 
+    // Velikost bufferu pro export tabulky splátek
+    private static final int GRID_BUFFER_SIZE = 1024 * 1024;
+
     /**
      * Exportuje seznam splátek do CSV souboru s metadata sekcí.
      *
@@ -35,12 +45,15 @@ public class CsvExporter {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal totalPaid = monthlyPayment.multiply(new BigDecimal(loanTermMonths));
 
+        CsvExportEvent event = LoanMetrics.ENABLED ? LoanMetrics.beginExport() : null;
+        long start = LoanMetrics.ENABLED ? System.nanoTime() : 0;
+
         // Aktuální datum a čas
         LocalDateTime now = LocalDateTime.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
         // Použití try-with-resources pro automatické uzavření PrintWriteru
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, StandardCharsets.UTF_8))) {
             // Metadata sekce
             writer.println("# Informace o úvěru");
             writer.printf(Locale.US, "Výše úvěru%s%.2f%n", delimiter, principal);
@@ -67,5 +80,181 @@ public class CsvExporter {
                         payment.getRemainingBalance());
             }
         }
+        if (LoanMetrics.ENABLED) {
+            LoanMetrics.recordExport(event, "schedule", schedule.size(), Files.size(Paths.get(filePath)), start);
+        }
+    }
+
+    /**
+     * Exportuje sloupcový splátkový kalendář do CSV souboru s metadata sekcí.
+     * Výstup je shodný s {@link #exportScheduleToCsv(List, String, BigDecimal, BigDecimal, int, String)},
+     * ale řádky se zapisují přímo ze sloupců v haléřích bez vytváření objektů Payment.
+     *
+     * @param schedule           Sloupcový splátkový kalendář.
+     * @param filePath           Cesta k souboru, kam se má CSV uložit.
+     * @param principal          Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths     Doba splácení úvěru v měsících.
+     * @param delimiter          Oddělovač sloupců.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public static void exportScheduleToCsv(ScheduleTable schedule, String filePath,
+            BigDecimal principal, BigDecimal annualInterestRate,
+            int loanTermMonths, String delimiter) throws IOException {
+        exportScheduleToCsv(schedule, filePath, principal, annualInterestRate, loanTermMonths, delimiter,
+                CurrencyFormat.CZK.getCurrency());
+    }
+
+    /**
+     * Exportuje sloupcový splátkový kalendář v zadané měně do CSV souboru s metadata sekcí.
+     * Částky zůstávají ve tvaru "1234.56"; měna jiná než CZK se zapíše do řádku "Měna".
+     *
+     * @param schedule           Sloupcový splátkový kalendář.
+     * @param filePath           Cesta k souboru, kam se má CSV uložit.
+     * @param principal          Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths     Doba splácení úvěru v měsících.
+     * @param delimiter          Oddělovač sloupců.
+     * @param currency           Měna kalendáře.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public static void exportScheduleToCsv(ScheduleTable schedule, String filePath,
+            BigDecimal principal, BigDecimal annualInterestRate,
+            int loanTermMonths, String delimiter, Currency currency) throws IOException {
+        try (FileChannel channel = openForWriting(filePath)) {
+            new CsvStreamWriter(delimiter).write(schedule, principal, annualInterestRate, loanTermMonths, currency,
+                    channel);
+        }
+    }
+
+    /**
+     * Vypočítá splátkový kalendář a rovnou ho exportuje do CSV souboru.
+     * Řádky se zapisují přímo z výpočtu, bez sestavení kalendáře v paměti,
+     * a souhrnné údaje se sčítají během zápisu.
+     *
+     * @param principal          Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths     Doba splácení úvěru v měsících.
+     * @param filePath           Cesta k souboru, kam se má CSV uložit.
+     * @param delimiter          Oddělovač sloupců.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public static void exportLoanToCsv(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths,
+            String filePath, String delimiter) throws IOException {
+        exportLoanToCsv(new LoanSpec(principal, annualInterestRate, loanTermMonths), filePath, delimiter);
+    }
+
+    /**
+     * Vypočítá splátkový kalendář úvěru v jeho měně a rovnou ho exportuje do CSV souboru.
+     * Měna jiná než CZK se zapíše do řádku "Měna".
+     *
+     * @param loan      Zadání úvěru.
+     * @param filePath  Cesta k souboru, kam se má CSV uložit.
+     * @param delimiter Oddělovač sloupců.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public static void exportLoanToCsv(LoanSpec loan, String filePath, String delimiter) throws IOException {
+        try (FileChannel channel = openForWriting(filePath)) {
+            new CsvStreamWriter(delimiter).write(loan, channel);
+        }
+    }
+
+    /**
+     * Exportuje splátkové kalendáře celého portfolia do jednoho CSV souboru se sloupci identifikátoru
+     * a měny úvěru.
+     * Pro sdílení do více souborů nebo zápis přes paměťové mapování viz {@link BulkCsvExporter}.
+     *
+     * @param loans     Úvěry portfolia.
+     * @param filePath  Cesta k souboru, kam se má CSV uložit.
+     * @param delimiter Oddělovač sloupců.
+     * @return Počet zapsaných bajtů.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public static long exportPortfolioToCsv(LoanSpec[] loans, String filePath, String delimiter) throws IOException {
+        return new BulkCsvExporter(delimiter, BulkCsvExporter.Mode.CHANNEL).export(loans, Paths.get(filePath));
+    }
+
+    /**
+     * Exportuje tabulku splátek podle sazby a doby splácení do CSV souboru.
+     * Každá buňka tabulky je jeden řádek "sazba;doba;splátka;úroky;celkem", řádky jsou
+     * seřazené podle sazby a v rámci sazby podle doby. Bez spočítaných úroků zůstanou
+     * sloupce úroků prázdné. Soubor je v kódování UTF-8.
+     *
+     * @param grid      Tabulka splátek.
+     * @param filePath  Cesta k souboru, kam se má CSV uložit.
+     * @param delimiter Oddělovač sloupců.
+     * @return Počet zapsaných řádků s daty.
+     * @throws IOException Pokud dojde k chybě při zápisu do souboru.
+     */
+    public static long exportPaymentGridToCsv(PaymentGrid grid, String filePath, String delimiter)
+            throws IOException {
+        String lineSeparator = System.lineSeparator();
+        StringBuilder header = new StringBuilder(256);
+        header.append("# Tabulka splátek").append(lineSeparator);
+        header.append("Výše úvěru").append(delimiter)
+                .append(FixedPointLoanCalculator.toBigDecimal(grid.getPrincipal()).toPlainString())
+                .append(lineSeparator);
+        header.append("Datum exportu").append(delimiter)
+                .append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .append(lineSeparator);
+        header.append(lineSeparator);
+        header.append("# Splátky podle sazby a doby splácení").append(lineSeparator);
+        header.append("Roční úrok (%)").append(delimiter).append("Doba splácení (měsíce)").append(delimiter)
+                .append("Pravidelná splátka").append(delimiter).append("Zaplacené úroky").append(delimiter)
+                .append("Celkem zaplaceno").append(lineSeparator);
+
+        CsvRowFormat rowFormat = new CsvRowFormat(delimiter);
+        byte[] delimiterBytes = rowFormat.delimiter();
+        byte[] lineSeparatorBytes = lineSeparator.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(GRID_BUFFER_SIZE);
+        long rows = 0;
+        CsvExportEvent event = LoanMetrics.ENABLED ? LoanMetrics.beginExport() : null;
+        long start = LoanMetrics.ENABLED ? System.nanoTime() : 0;
+        try (FileChannel channel = openForWriting(filePath)) {
+            buffer.put(header.toString().getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < grid.getRateCount(); i++) {
+                // Sazba se převede na bajty jednou pro celý řádek tabulky
+                byte[] rate = grid.getAnnualRate(i).toPlainString().getBytes(StandardCharsets.UTF_8);
+                int maxRowLength = rowFormat.maxRowLength(rate.length + delimiterBytes.length);
+                for (int j = 0; j < grid.getTermCount(); j++) {
+                    if (buffer.remaining() < maxRowLength) {
+                        writeBuffer(channel, buffer);
+                    }
+                    buffer.put(rate).put(delimiterBytes);
+                    CsvRowFormat.putLong(buffer, grid.getTerm(j));
+                    buffer.put(delimiterBytes);
+                    CsvRowFormat.putAmount(buffer, grid.getMonthlyPayment(i, j));
+                    buffer.put(delimiterBytes);
+                    if (grid.hasTotalInterest()) {
+                        CsvRowFormat.putAmount(buffer, grid.getTotalInterest(i, j));
+                    }
+                    buffer.put(delimiterBytes);
+                    CsvRowFormat.putAmount(buffer, grid.getTotalPaid(i, j));
+                    buffer.put(lineSeparatorBytes);
+                    rows++;
+                }
+            }
+            writeBuffer(channel, buffer);
+            if (LoanMetrics.ENABLED) {
+                LoanMetrics.recordExport(event, "grid", rows, channel.position(), start);
+            }
+        }
+        return rows;
+    }
+
+    private static void writeBuffer(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Otevře soubor pro zápis; existující obsah se přepíše.
+     */
+    private static FileChannel openForWriting(String filePath) throws IOException {
+        return FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.example.loan;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formátování řádků splátkového kalendáře přímo do bajtového bufferu.
+ * Čísla se zapisují ručně (ASCII, tedy i platné UTF-8) ve tvaru "1234.56",
+ * stejně jako {@code printf(Locale.US, "%.2f", ...)}, takže zápis řádku nic nealokuje.
+ */
+class CsvRowFormat {
+
+    // Nejdelší číslo typu long včetně znaménka a desetinné tečky
+    static final int MAX_NUMBER_LENGTH = 21;
+
+    private final byte[] delimiter;
+    private final byte[] lineSeparator;
+
+    /**
+     * @param delimiter Oddělovač sloupců.
+     */
+    CsvRowFormat(String delimiter) {
+        this.delimiter = delimiter.getBytes(StandardCharsets.UTF_8);
+        this.lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Největší délka řádku s pěti číselnými sloupci a zadaným počtem dalších bajtů na začátku.
+     *
+     * @param prefixLength Délka předsazeného sloupce včetně oddělovače.
+     * @return Délka v bajtech.
+     */
+    int maxRowLength(int prefixLength) {
+        return prefixLength + 5 * MAX_NUMBER_LENGTH + 4 * delimiter.length + lineSeparator.length;
+    }
+
+    /**
+     * @return Oddělovač sloupců v UTF-8.
+     */
+    byte[] delimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Zapíše řádek "měsíc;jistina;úrok;celkem;zbývá" včetně konce řádku.
+     */
+    void putRow(ByteBuffer target, int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+            long remainingBalance) {
+        putLong(target, monthNumber);
+        target.put(delimiter);
+        putAmount(target, principalPaid);
+        target.put(delimiter);
+        putAmount(target, interestPaid);
+        target.put(delimiter);
+        putAmount(target, totalPayment);
+        target.put(delimiter);
+        putAmount(target, remainingBalance);
+        target.put(lineSeparator);
+    }
+
+    /**
+     * Zapíše částku v haléřích ve tvaru "1234.56".
+     */
+    static void putAmount(ByteBuffer target, long minorUnits) {
+        if (minorUnits < 0) {
+            target.put((byte) '-');
+        }
+        long value = Math.abs(minorUnits);
+        int cents = (int) (value % FixedPointLoanCalculator.MINOR_UNITS);
+        putLong(target, value / FixedPointLoanCalculator.MINOR_UNITS);
+        target.put((byte) '.');
+        target.put((byte) ('0' + cents / 10));
+        target.put((byte) ('0' + cents % 10));
+    }
+
+    /**
+     * Zapíše nezáporné celé číslo. Číslice se píší odzadu na absolutní pozice, bez pomocného pole.
+     */
+    static void putLong(ByteBuffer target, long value) {
+        int length = digitCount(value);
+        int start = target.position();
+        for (int i = start + length - 1; i >= start; i--) {
+            target.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        target.position(start + length);
+    }
+
+    /**
+     * @return Počet číslic nezáporného čísla (pro nulu 1).
+     */
+    static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
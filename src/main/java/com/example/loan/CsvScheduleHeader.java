@@ -0,0 +1,123 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * Metadata splátkového kalendáře načtená z CSV souboru ve formátu
+ * {@link CsvExporter#exportScheduleToCsv} (sekce "# Informace o úvěru") spolu
+ * s rozpoznaným oddělovačem a počtem načtených řádků kalendáře.
+ * Částky jsou v setinách měny přesně tak, jak jsou v souboru.
+ */
+public class CsvScheduleHeader {
+    // Rozpoznaný oddělovač sloupců
+    private final String delimiter;
+    // Výše úvěru
+    private final long principal;
+    // Roční úroková sazba v procentech s měřítkem ze souboru
+    private final BigDecimal annualInterestRate;
+    // Doba splácení v měsících
+    private final int loanTermMonths;
+    // Pravidelná měsíční splátka
+    private final long monthlyPayment;
+    // Celkové zaplacené úroky
+    private final long totalInterest;
+    // Celkem zaplaceno
+    private final long totalPaid;
+    // Datum exportu
+    private final LocalDateTime exportTime;
+    // Měna kalendáře (bez řádku "Měna" v souboru CZK)
+    private final Currency currency;
+    // Počet řádků kalendáře v souboru
+    private final int rowCount;
+
+    CsvScheduleHeader(String delimiter, long principal, BigDecimal annualInterestRate, int loanTermMonths,
+            long monthlyPayment, long totalInterest, long totalPaid, LocalDateTime exportTime, Currency currency,
+            int rowCount) {
+        this.delimiter = delimiter;
+        this.principal = principal;
+        this.annualInterestRate = annualInterestRate;
+        this.loanTermMonths = loanTermMonths;
+        this.monthlyPayment = monthlyPayment;
+        this.totalInterest = totalInterest;
+        this.totalPaid = totalPaid;
+        this.exportTime = exportTime;
+        this.currency = currency;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return Oddělovač sloupců rozpoznaný z prvního řádku metadat.
+     */
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    public long getPrincipal() {
+        return principal;
+    }
+
+    public BigDecimal getAnnualInterestRate() {
+        return annualInterestRate;
+    }
+
+    public int getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    public LocalDateTime getExportTime() {
+        return exportTime;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return Počet řádků splátkového kalendáře, které soubor obsahoval.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public BigDecimal getPrincipalAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(principal);
+    }
+
+    /**
+     * @return Zadání úvěru z metadat, např. pro nový výpočet kalendáře.
+     * @throws IllegalArgumentException Pokud metadata neprojdou kontrolou {@link LoanSpec#validate}.
+     * @throws ArithmeticException Pokud je sazba nenulová, ale na měsíční sazbu se zaokrouhlí na nulu.
+     */
+    public LoanSpec getLoanSpec() {
+        return new LoanSpec(null, getPrincipalAmount(), annualInterestRate, loanTermMonths, currency);
+    }
+
+    @Override
+    public String toString() {
+        return "CsvScheduleHeader{" +
+               "principal=" + getPrincipalAmount() +
+               ", annualInterestRate=" + annualInterestRate +
+               ", loanTermMonths=" + loanTermMonths +
+               ", monthlyPayment=" + FixedPointLoanCalculator.toBigDecimal(monthlyPayment) +
+               ", totalInterest=" + FixedPointLoanCalculator.toBigDecimal(totalInterest) +
+               ", totalPaid=" + FixedPointLoanCalculator.toBigDecimal(totalPaid) +
+               ", exportTime=" + exportTime +
+               ", currency=" + currency +
+               ", rowCount=" + rowCount +
+               '}';
+    }
+}
@@ -0,0 +1,572 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Proudové čtení CSV souborů ve formátu {@link CsvExporter#exportScheduleToCsv}:
+ * metadata sekce "# Informace o úvěru" a splátkový kalendář. Oddělovač se rozpozná
+ * z prvního řádku metadat (vše mezi popisem a hodnotou), takže nesmí obsahovat číslice
+ * ani znaménko minus. Nepovinný řádek "Měna" za datem exportu určuje měnu kalendáře,
+ * bez něj je kalendář v CZK.
+ * <p>
+ * Soubor se čte po blocích do jednoho bajtového bufferu a čísla se převádějí přímo
+ * z bajtů UTF-8 na haléře, bez vytváření řetězců pro řádky nebo hodnoty. Řádky kalendáře
+ * se předávají příjemci {@link PaymentConsumer}, takže velikost souboru není omezená pamětí.
+ * Metodou {@link #verify} lze kalendář zároveň porovnat s novým výpočtem ze zadání v metadatech.
+ * <p>
+ * Instance není vláknově bezpečná; lze ji ale opakovaně použít pro další soubory.
+ */
+public class CsvScheduleReader {
+
+    // Výchozí velikost bufferu; omezuje zároveň nejdelší řádek souboru
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    // Nejmenší povolená velikost bufferu
+    private static final int MIN_BUFFER_SIZE = 1024;
+    // Nejvíce číslic celé části částky, aby se hodnota v haléřích vešla do long
+    private static final int MAX_AMOUNT_DIGITS = 16;
+    // Nejvíce číslic desetinného čísla (sazby), aby se vešlo do long
+    private static final int MAX_DECIMAL_DIGITS = 18;
+
+    // Řádky metadata sekce v pořadí, v jakém je zapisuje CsvExporter
+    private static final byte[] METADATA_SECTION = utf8("# Informace o úvěru");
+    private static final byte[] PRINCIPAL_LABEL = utf8("Výše úvěru");
+    private static final byte[] RATE_LABEL = utf8("Roční úrok (%)");
+    private static final byte[] TERM_LABEL = utf8("Doba splácení (měsíce)");
+    private static final byte[] PAYMENT_LABEL = utf8("Pravidelná splátka");
+    private static final byte[] INTEREST_LABEL = utf8("Zaplacené úroky");
+    private static final byte[] TOTAL_PAID_LABEL = utf8("Celkem zaplaceno");
+    private static final byte[] EXPORT_TIME_LABEL = utf8("Datum exportu");
+    private static final byte[] CURRENCY_LABEL = utf8("Měna");
+    private static final byte[] SCHEDULE_SECTION = utf8("# Splátkový kalendář");
+    private static final byte[] BYTE_ORDER_MARK = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    private final byte[] buffer;
+    private final ByteBuffer window;
+
+    // Stav rozpracovaného souboru
+    private ReadableByteChannel channel;
+    private boolean endOfInput;
+    // Konec platných dat v bufferu
+    private int limit;
+    // Aktuální řádek [lineStart, lineEnd) bez konce řádku a začátek dalšího řádku
+    private int lineStart;
+    private int lineEnd;
+    private int nextLine;
+    // Pozice parseru v aktuálním řádku
+    private int cursor;
+    private long lineNumber;
+    private byte[] delimiter;
+
+    // Načtená metadata
+    private long principal;
+    private BigDecimal annualInterestRate;
+    private int loanTermMonths;
+    private long monthlyPayment;
+    private long totalInterest;
+    private long totalPaid;
+    private LocalDateTime exportTime;
+    private Currency currency;
+
+    /**
+     * Vytvoří čtečku s výchozí velikostí bufferu.
+     */
+    public CsvScheduleReader() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Vytvoří čtečku s danou velikostí bufferu.
+     *
+     * @param bufferSize Velikost bufferu v bajtech; žádný řádek souboru nesmí být delší.
+     * @throws IllegalArgumentException Pokud je buffer menší než 1 KiB.
+     */
+    public CsvScheduleReader(int bufferSize) {
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer musí mít alespoň " + MIN_BUFFER_SIZE + " bajtů: " + bufferSize);
+        }
+        buffer = new byte[bufferSize];
+        window = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Načte CSV soubor a řádky kalendáře předá příjemci.
+     *
+     * @param file Soubor v kódování UTF-8.
+     * @param consumer Příjemce řádků kalendáře (částky v haléřích).
+     * @return Metadata souboru včetně rozpoznaného oddělovače a počtu řádků.
+     * @throws IOException Pokud dojde k chybě při čtení.
+     * @throws IllegalArgumentException Pokud soubor nemá očekávaný formát.
+     */
+    public CsvScheduleHeader read(Path file, PaymentConsumer consumer) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(fileChannel, consumer);
+        }
+    }
+
+    /**
+     * Načte CSV data z kanálu a řádky kalendáře předá příjemci. Kanál se nezavírá.
+     *
+     * @param source Zdroj dat v kódování UTF-8.
+     * @param consumer Příjemce řádků kalendáře (částky v haléřích).
+     * @return Metadata včetně rozpoznaného oddělovače a počtu řádků.
+     * @throws IOException Pokud dojde k chybě při čtení.
+     * @throws IllegalArgumentException Pokud data nemají očekávaný formát.
+     */
+    public CsvScheduleHeader read(ReadableByteChannel source, PaymentConsumer consumer) throws IOException {
+        begin(source);
+        try {
+            readMetadata();
+            return header(readRows(consumer));
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Načte CSV soubor a každý řádek porovná s kalendářem nově vypočteným z výše úvěru,
+     * sazby a doby splácení uvedených v metadatech (výpočet je shodný s {@link LoanCalculator}).
+     *
+     * @param file Soubor v kódování UTF-8.
+     * @return Zpráva o rozdílech mezi souborem a výpočtem.
+     * @throws IOException Pokud dojde k chybě při čtení.
+     * @throws IllegalArgumentException Pokud soubor nemá očekávaný formát.
+     * @throws ArithmeticException Pokud ze sazby v metadatech nelze kalendář spočítat.
+     */
+    public ScheduleDriftReport verify(Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            begin(fileChannel);
+            try {
+                readMetadata();
+                ScheduleTable expected = ScheduleTable.generate(principal,
+                        FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), loanTermMonths);
+                DriftCollector drift = new DriftCollector(expected);
+                CsvScheduleHeader header = header(readRows(drift));
+                return new ScheduleDriftReport(file, header, expected.size(), drift.mismatchedRows,
+                        drift.firstMismatchMonth, drift.maxDrift,
+                        monthlyPayment - expected.getMonthlyPayment(),
+                        totalInterest - expected.getTotalInterest(),
+                        totalPaid - expected.getTotalPaid());
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Ověří více souborů paralelně; každé vlákno používá vlastní čtečku.
+     *
+     * @param files Soubory k ověření.
+     * @return Zprávy o rozdílech ve stejném pořadí jako soubory.
+     * @throws IOException Pokud dojde k chybě při čtení kteréhokoli souboru.
+     * @throws IllegalArgumentException Pokud některý soubor nemá očekávaný formát.
+     */
+    public static List<ScheduleDriftReport> verifyAll(List<Path> files) throws IOException {
+        ThreadLocal<CsvScheduleReader> readers = ThreadLocal.withInitial(CsvScheduleReader::new);
+        try {
+            return files.parallelStream().map(file -> {
+                try {
+                    return readers.get().verify(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void begin(ReadableByteChannel source) {
+        channel = source;
+        endOfInput = false;
+        limit = 0;
+        nextLine = 0;
+        lineNumber = 0;
+        delimiter = null;
+    }
+
+    private CsvScheduleHeader header(int rowCount) {
+        return new CsvScheduleHeader(new String(delimiter, StandardCharsets.UTF_8), principal, annualInterestRate,
+                loanTermMonths, monthlyPayment, totalInterest, totalPaid, exportTime, currency, rowCount);
+    }
+
+    private void readMetadata() throws IOException {
+        if (!nextLine()) {
+            throw error("Soubor je prázdný");
+        }
+        if (startsWith(BYTE_ORDER_MARK)) {
+            lineStart += BYTE_ORDER_MARK.length;
+        }
+        if (!lineEquals(METADATA_SECTION)) {
+            throw error("Soubor nezačíná metadata sekcí");
+        }
+
+        // Oddělovač je vše mezi popisem a první číslicí hodnoty
+        expectLine(PRINCIPAL_LABEL);
+        int start = cursor;
+        while (cursor < lineEnd && !isDigit(buffer[cursor]) && buffer[cursor] != '-') {
+            cursor++;
+        }
+        if (cursor == start || cursor == lineEnd) {
+            throw error("Nelze rozpoznat oddělovač");
+        }
+        delimiter = new byte[cursor - start];
+        System.arraycopy(buffer, start, delimiter, 0, delimiter.length);
+        principal = parseAmount();
+        expectLineEnd();
+
+        expectLine(RATE_LABEL);
+        skipDelimiter();
+        annualInterestRate = parseDecimal();
+        expectLineEnd();
+
+        expectLine(TERM_LABEL);
+        skipDelimiter();
+        loanTermMonths = parseInt();
+        expectLineEnd();
+
+        monthlyPayment = readAmount(PAYMENT_LABEL);
+        totalInterest = readAmount(INTEREST_LABEL);
+        totalPaid = readAmount(TOTAL_PAID_LABEL);
+
+        expectLine(EXPORT_TIME_LABEL);
+        skipDelimiter();
+        exportTime = parseDateTime();
+        expectLineEnd();
+
+        boolean hasLine = nextLine();
+        currency = CsvStreamWriter.DEFAULT_CURRENCY;
+        if (hasLine && startsWith(CURRENCY_LABEL)) {
+            cursor = lineStart + CURRENCY_LABEL.length;
+            skipDelimiter();
+            currency = parseCurrency();
+            hasLine = nextLine();
+        }
+
+        // Prázdné řádky, název sekce a záhlaví tabulky
+        while (hasLine && lineStart == lineEnd) {
+            hasLine = nextLine();
+        }
+        if (!hasLine || !lineEquals(SCHEDULE_SECTION) || !nextLine()) {
+            throw error("Soubor neobsahuje splátkový kalendář");
+        }
+    }
+
+    private long readAmount(byte[] label) throws IOException {
+        expectLine(label);
+        skipDelimiter();
+        long amount = parseAmount();
+        expectLineEnd();
+        return amount;
+    }
+
+    private int readRows(PaymentConsumer consumer) throws IOException {
+        int rowCount = 0;
+        while (nextLine()) {
+            if (lineStart == lineEnd) {
+                continue;
+            }
+            cursor = lineStart;
+            if (parseInt() != rowCount + 1) {
+                throw error("Očekáván měsíc " + (rowCount + 1));
+            }
+            skipDelimiter();
+            long principalPaid = parseAmount();
+            skipDelimiter();
+            long interestPaid = parseAmount();
+            skipDelimiter();
+            long totalPayment = parseAmount();
+            skipDelimiter();
+            long remainingBalance = parseAmount();
+            expectLineEnd();
+            consumer.accept(++rowCount, principalPaid, interestPaid, totalPayment, remainingBalance);
+        }
+        return rowCount;
+    }
+
+    /**
+     * Posune se na další řádek; při nedostatku dat posune nedočtený řádek na začátek
+     * bufferu a doplní ho z kanálu.
+     *
+     * @return false na konci dat.
+     */
+    private boolean nextLine() throws IOException {
+        int scan = nextLine;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    setLine(i, i + 1);
+                    return true;
+                }
+            }
+            if (endOfInput) {
+                if (nextLine == limit) {
+                    return false;
+                }
+                setLine(limit, limit);
+                return true;
+            }
+            int pending = limit - nextLine;
+            if (pending == buffer.length) {
+                lineNumber++;
+                throw error("Řádek je delší než buffer (" + buffer.length + " bajtů)");
+            }
+            System.arraycopy(buffer, nextLine, buffer, 0, pending);
+            nextLine = 0;
+            limit = pending;
+            scan = pending;
+
+            window.limit(buffer.length).position(limit);
+            int read = channel.read(window);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    private void setLine(int end, int next) {
+        lineStart = nextLine;
+        lineEnd = end > lineStart && buffer[end - 1] == '\r' ? end - 1 : end;
+        nextLine = next;
+        cursor = lineStart;
+        lineNumber++;
+    }
+
+    private void expectLine(byte[] label) throws IOException {
+        if (!nextLine() || !startsWith(label)) {
+            throw error("Chybí údaj \"" + new String(label, StandardCharsets.UTF_8) + "\" v metadata sekci");
+        }
+        cursor = lineStart + label.length;
+    }
+
+    private boolean startsWith(byte[] prefix) {
+        if (lineEnd - lineStart < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[lineStart + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean lineEquals(byte[] text) {
+        return lineEnd - lineStart == text.length && startsWith(text);
+    }
+
+    private void skipDelimiter() {
+        byte[] expected = delimiter;
+        if (lineEnd - cursor < expected.length) {
+            throw error("Očekáván oddělovač");
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer[cursor + i] != expected[i]) {
+                throw error("Očekáván oddělovač");
+            }
+        }
+        cursor += expected.length;
+    }
+
+    private void expectLineEnd() {
+        if (cursor != lineEnd) {
+            throw error("Neočekávané znaky na konci řádku");
+        }
+    }
+
+    /**
+     * Převede částku "-1234.56" (nejvýše dvě desetinná místa) na haléře.
+     */
+    private long parseAmount() {
+        boolean negative = cursor < lineEnd && buffer[cursor] == '-';
+        if (negative) {
+            cursor++;
+        }
+        int start = cursor;
+        long value = 0;
+        while (cursor < lineEnd && isDigit(buffer[cursor])) {
+            value = value * 10 + (buffer[cursor++] - '0');
+        }
+        int digits = cursor - start;
+        if (digits == 0 || digits > MAX_AMOUNT_DIGITS) {
+            throw error("Neplatná částka");
+        }
+        int decimals = 0;
+        if (cursor < lineEnd && buffer[cursor] == '.') {
+            cursor++;
+            while (cursor < lineEnd && isDigit(buffer[cursor])) {
+                if (++decimals > 2) {
+                    throw error("Částka má více než dvě desetinná místa");
+                }
+                value = value * 10 + (buffer[cursor++] - '0');
+            }
+            if (decimals == 0) {
+                throw error("Neplatná částka");
+            }
+        }
+        for (; decimals < 2; decimals++) {
+            value *= 10;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Převede desetinné číslo na BigDecimal se stejným měřítkem, jaké má v souboru.
+     */
+    private BigDecimal parseDecimal() {
+        boolean negative = cursor < lineEnd && buffer[cursor] == '-';
+        if (negative) {
+            cursor++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; cursor < lineEnd; cursor++) {
+            byte b = buffer[cursor];
+            if (isDigit(b)) {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    scale++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0 || digits > MAX_DECIMAL_DIGITS || (fraction && scale == 0)) {
+            throw error("Neplatné číslo");
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    private int parseInt() {
+        int start = cursor;
+        long value = 0;
+        while (cursor < lineEnd && isDigit(buffer[cursor]) && cursor - start < 10) {
+            value = value * 10 + (buffer[cursor++] - '0');
+        }
+        if (cursor == start || value > Integer.MAX_VALUE || (cursor < lineEnd && isDigit(buffer[cursor]))) {
+            throw error("Neplatné celé číslo");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Převede datum ve formátu {@link CsvStreamWriter#DATE_FORMATTER} ("yyyy-MM-dd HH:mm:ss").
+     */
+    private LocalDateTime parseDateTime() {
+        int year = parseDigits(4, '-');
+        int month = parseDigits(2, '-');
+        int day = parseDigits(2, ' ');
+        int hour = parseDigits(2, ':');
+        int minute = parseDigits(2, ':');
+        int second = parseDigits(2, (char) 0);
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            throw error("Neplatné datum exportu");
+        }
+    }
+
+    /**
+     * Převede kód měny ISO 4217 (tři velká písmena) do konce řádku.
+     */
+    private Currency parseCurrency() {
+        if (lineEnd - cursor != 3) {
+            throw error("Neplatný kód měny");
+        }
+        for (int i = cursor; i < lineEnd; i++) {
+            if (buffer[i] < 'A' || buffer[i] > 'Z') {
+                throw error("Neplatný kód měny");
+            }
+        }
+        String code = new String(buffer, cursor, 3, StandardCharsets.US_ASCII);
+        cursor = lineEnd;
+        try {
+            return Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw error("Neznámá měna " + code);
+        }
+    }
+
+    private int parseDigits(int count, char separator) {
+        if (lineEnd - cursor < count + (separator == 0 ? 0 : 1)) {
+            throw error("Neplatné datum exportu");
+        }
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            byte b = buffer[cursor++];
+            if (!isDigit(b)) {
+                throw error("Neplatné datum exportu");
+            }
+            value = value * 10 + (b - '0');
+        }
+        if (separator != 0 && buffer[cursor++] != separator) {
+            throw error("Neplatné datum exportu");
+        }
+        return value;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " (řádek " + lineNumber + ")");
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Porovnává načtené řádky s nově vypočteným kalendářem.
+     */
+    private static class DriftCollector implements PaymentConsumer {
+        private final ScheduleTable expected;
+        private int mismatchedRows;
+        private int firstMismatchMonth;
+        private long maxDrift;
+
+        DriftCollector(ScheduleTable expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+                long remainingBalance) {
+            int i = monthNumber - 1;
+            if (i >= expected.size()) {
+                return;
+            }
+            long drift = Math.max(
+                    Math.max(Math.abs(principalPaid - expected.getPrincipalPaid(i)),
+                            Math.abs(interestPaid - expected.getInterestPaid(i))),
+                    Math.max(Math.abs(totalPayment - expected.getTotalPayment(i)),
+                            Math.abs(remainingBalance - expected.getRemainingBalance(i))));
+            if (drift != 0) {
+                if (mismatchedRows++ == 0) {
+                    firstMismatchMonth = monthNumber;
+                }
+                maxDrift = Math.max(maxDrift, drift);
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.loan;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Currency;
+
+/**
+ * Proudový zápis splátkového kalendáře do CSV ve stejném formátu jako {@link CsvExporter}.
+ * Řádky přicházejí přímo z výpočtu (writer je {@link PaymentConsumer}), čísla se formátují ručně
+ * do opakovaně používaného bajtového bufferu a souhrnné údaje se sčítají během zápisu.
+ * Metadata sekce je v souboru před řádky, proto se řádky drží v bufferu (cca 50 bajtů na měsíc)
+ * a obě části se zapíší do kanálu najednou, jakmile jsou známy součty.
+ * Výstup je v kódování UTF-8.
+ * <p>
+ * Částky se zapisují vždy ve strojovém tvaru "1234.56" bez ohledu na měnu; kalendář v jiné
+ * měně než CZK má v metadata sekci navíc řádek "Měna" s kódem ISO 4217. Soubory v CZK
+ * jsou tak stejné jako dřív.
+ * <p>
+ * Instance není vláknově bezpečná; pro hromadný export ji lze opakovaně použít pro další úvěry.
+ */
+public class CsvStreamWriter implements PaymentConsumer {
+
+    // Výchozí velikost bufferu pro řádky (stačí pro kalendář na 1200 měsíců)
+    private static final int INITIAL_ROW_CAPACITY = 64 * 1024;
+    static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Měna, pro kterou se řádek "Měna" nezapisuje
+    static final Currency DEFAULT_CURRENCY = CurrencyFormat.CZK.getCurrency();
+
+    private final String delimiter;
+    private final CsvRowFormat rowFormat;
+    // Největší možná délka jednoho řádku v bajtech
+    private final int maxRowLength;
+
+    private ByteBuffer rows = ByteBuffer.allocateDirect(INITIAL_ROW_CAPACITY);
+    // Součty za právě zapisovaný kalendář
+    private long monthlyPayment;
+    private long totalInterest;
+    private int rowCount;
+    // Měření právě zapisovaného kalendáře (jen se zapnutými metrikami)
+    private CsvExportEvent exportEvent;
+    private long exportStart;
+
+    /**
+     * Vytvoří writer se zadaným oddělovačem sloupců.
+     *
+     * @param delimiter Oddělovač sloupců.
+     */
+    public CsvStreamWriter(String delimiter) {
+        this.delimiter = delimiter;
+        this.rowFormat = new CsvRowFormat(delimiter);
+        this.maxRowLength = rowFormat.maxRowLength(0);
+    }
+
+    /**
+     * Vypočítá splátkový kalendář a rovnou ho zapíše do kanálu včetně metadata sekce.
+     *
+     * @param loan Zadání úvěru.
+     * @param channel Cílový kanál (kanál se neuzavírá).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public void write(LoanSpec loan, WritableByteChannel channel) throws IOException {
+        begin();
+        FixedPointLoanCalculator.generatePaymentSchedule(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(),
+                loan.getLoanTermMonths(), this);
+        finish(loan.getPrincipal(), loan.getAnnualInterestRate(), loan.getLoanTermMonths(), loan.getCurrency(),
+                channel);
+    }
+
+    /**
+     * Zapíše již spočítaný sloupcový kalendář do kanálu včetně metadata sekce.
+     *
+     * @param schedule Sloupcový splátkový kalendář.
+     * @param principal Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param channel Cílový kanál (kanál se neuzavírá).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public void write(ScheduleTable schedule, BigDecimal principal, BigDecimal annualInterestRate,
+            int loanTermMonths, WritableByteChannel channel) throws IOException {
+        write(schedule, principal, annualInterestRate, loanTermMonths, DEFAULT_CURRENCY, channel);
+    }
+
+    /**
+     * Zapíše již spočítaný sloupcový kalendář v zadané měně do kanálu včetně metadata sekce.
+     *
+     * @param schedule Sloupcový splátkový kalendář.
+     * @param principal Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param currency Měna kalendáře.
+     * @param channel Cílový kanál (kanál se neuzavírá).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     */
+    public void write(ScheduleTable schedule, BigDecimal principal, BigDecimal annualInterestRate,
+            int loanTermMonths, Currency currency, WritableByteChannel channel) throws IOException {
+        begin();
+        for (int i = 0; i < schedule.size(); i++) {
+            accept(i + 1, schedule.getPrincipalPaid(i), schedule.getInterestPaid(i),
+                    schedule.getTotalPayment(i), schedule.getRemainingBalance(i));
+        }
+        finish(principal, annualInterestRate, loanTermMonths, currency, channel);
+    }
+
+    /**
+     * Zahájí nový kalendář: vyprázdní buffer řádků a vynuluje součty.
+     */
+    public void begin() {
+        rows.clear();
+        monthlyPayment = 0;
+        totalInterest = 0;
+        rowCount = 0;
+        if (LoanMetrics.ENABLED) {
+            exportEvent = LoanMetrics.beginExport();
+            exportStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Naformátuje jeden řádek kalendáře do bufferu a přičte ho do součtů.
+     */
+    @Override
+    public void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+            long remainingBalance) {
+        ensureRowCapacity();
+        if (rowCount == 0) {
+            monthlyPayment = totalPayment;
+        }
+        rowCount++;
+        totalInterest = Math.addExact(totalInterest, interestPaid);
+
+        rowFormat.putRow(rows, monthNumber, principalPaid, interestPaid, totalPayment, remainingBalance);
+    }
+
+    /**
+     * Zapíše metadata sekci se součty a za ni všechny řádky z bufferu.
+     *
+     * @param principal Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param channel Cílový kanál (kanál se neuzavírá).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     * @throws ArithmeticException Pokud se součty kalendáře nevejdou do long.
+     */
+    public void finish(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths,
+            WritableByteChannel channel) throws IOException {
+        finish(principal, annualInterestRate, loanTermMonths, DEFAULT_CURRENCY, channel);
+    }
+
+    /**
+     * Zapíše metadata sekci se součty a měnou a za ni všechny řádky z bufferu.
+     *
+     * @param principal Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param currency Měna kalendáře.
+     * @param channel Cílový kanál (kanál se neuzavírá).
+     * @throws IOException Pokud dojde k chybě při zápisu.
+     * @throws ArithmeticException Pokud se součty kalendáře nevejdou do long.
+     */
+    public void finish(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths, Currency currency,
+            WritableByteChannel channel) throws IOException {
+        // Celkem zaplaceno u extrémních jistin přeteče long; export pak skončí výjimkou místo chybného součtu
+        long totalPaid = Math.multiplyExact(monthlyPayment, loanTermMonths);
+        ByteBuffer header = ByteBuffer.wrap(formatHeader(delimiter, principal, annualInterestRate, loanTermMonths,
+                monthlyPayment, totalInterest, totalPaid, LocalDateTime.now(), currency)
+                .getBytes(StandardCharsets.UTF_8));
+        rows.flip();
+        long bytes = header.remaining() + rows.remaining();
+        try {
+            if (channel instanceof GatheringByteChannel) {
+                ByteBuffer[] buffers = { header, rows };
+                while (header.hasRemaining() || rows.hasRemaining()) {
+                    ((GatheringByteChannel) channel).write(buffers);
+                }
+            } else {
+                writeFully(channel, header);
+                writeFully(channel, rows);
+            }
+        } finally {
+            rows.clear();
+        }
+        if (LoanMetrics.ENABLED && exportEvent != null) {
+            LoanMetrics.recordExport(exportEvent, "schedule", rowCount, bytes, exportStart);
+            exportEvent = null;
+        }
+    }
+
+    /**
+     * @return Pravidelná měsíční splátka posledního kalendáře v haléřích.
+     */
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    /**
+     * @return Součet úroků posledního kalendáře v haléřích.
+     */
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    /**
+     * @return Počet řádků posledního kalendáře.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Sestaví metadata sekci a záhlaví tabulky stejně jako {@link CsvExporter}.
+     * Částky jsou v setinách měny; řádek "Měna" se zapíše jen pro jinou měnu než CZK.
+     */
+    static String formatHeader(String delimiter, BigDecimal principal, BigDecimal annualInterestRate,
+            int loanTermMonths, long monthlyPayment, long totalInterest, long totalPaid, LocalDateTime exportTime,
+            Currency currency) {
+        String lineSeparator = System.lineSeparator();
+
+        StringBuilder header = new StringBuilder(512);
+        header.append("# Informace o úvěru").append(lineSeparator);
+        header.append("Výše úvěru").append(delimiter);
+        appendDecimal(header, principal).append(lineSeparator);
+        header.append("Roční úrok (%)").append(delimiter);
+        appendDecimal(header, annualInterestRate).append(lineSeparator);
+        header.append("Doba splácení (měsíce)").append(delimiter).append(loanTermMonths).append(lineSeparator);
+        header.append("Pravidelná splátka").append(delimiter);
+        appendDecimal(header, FixedPointLoanCalculator.toBigDecimal(monthlyPayment)).append(lineSeparator);
+        header.append("Zaplacené úroky").append(delimiter);
+        appendDecimal(header, FixedPointLoanCalculator.toBigDecimal(totalInterest)).append(lineSeparator);
+        header.append("Celkem zaplaceno").append(delimiter);
+        appendDecimal(header, FixedPointLoanCalculator.toBigDecimal(totalPaid)).append(lineSeparator);
+        header.append("Datum exportu").append(delimiter).append(exportTime.format(DATE_FORMATTER))
+                .append(lineSeparator);
+        if (!DEFAULT_CURRENCY.equals(currency)) {
+            header.append("Měna").append(delimiter).append(currency.getCurrencyCode()).append(lineSeparator);
+        }
+        header.append(lineSeparator);
+        header.append("# Splátkový kalendář").append(lineSeparator);
+        header.append("Měsíc").append(delimiter).append("Jistina").append(delimiter).append("Úrok")
+                .append(delimiter).append("Celkem").append(delimiter).append("Zbývá").append(lineSeparator);
+        return header.toString();
+    }
+
+    /**
+     * Připojí číslo na dvě desetinná místa stejně jako {@code printf(Locale.US, "%.2f", value)},
+     * tedy se zaokrouhlením HALF_UP a se znaménkem mínus i u záporné hodnoty zaokrouhlené na nulu.
+     */
+    private static StringBuilder appendDecimal(StringBuilder target, BigDecimal value) {
+        if (value.signum() < 0) {
+            target.append('-');
+        }
+        return target.append(value.abs().setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    /**
+     * Zvětší buffer řádků, pokud by se do něj další řádek nevešel. Obsah se zachová.
+     */
+    private void ensureRowCapacity() {
+        if (rows.remaining() < maxRowLength) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(rows.capacity() * 2);
+            rows.flip();
+            larger.put(rows);
+            rows = larger;
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
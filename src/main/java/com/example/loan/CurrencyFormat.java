@@ -0,0 +1,570 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formátování částek pro jednu měnu a národní prostředí: oddělovač tisícovek, desetinný
+ * oddělovač a symbol měny před číslem nebo za ním.
+ * <p>
+ * Vše, co závisí na měně a prostředí (znaky, jejich UTF-8 podoba a největší délka zápisu),
+ * se spočítá jednou při vytvoření; instance je neměnná a vláknově bezpečná, takže se sdílí
+ * pro celou aplikaci. Číslice se zapisují ručně stejně jako v {@link NumberFormatter}
+ * (zaokrouhlení HALF_EVEN, u záporných čísel zaokrouhlených na nulu "-0,00"), zápis částky
+ * v setinách měny do {@link StringBuilder}, pole znaků nebo {@link ByteBuffer} proto nic
+ * nealokuje a stojí stejně pro všechny měny.
+ * <p>
+ * Formáty pro CZK, EUR a PLN jsou připravené předem; další měny lze přidat přes
+ * {@link #register(CurrencyFormat)}, např. z {@link #of(Locale)}. Výpočet probíhá
+ * v setinách, podporované jsou proto jen měny se dvěma desetinnými místy.
+ */
+public class CurrencyFormat {
+
+    // Česká koruna: "1 234,56 Kč"
+    public static final CurrencyFormat CZK = new CurrencyFormat(Currency.getInstance("CZK"), new Locale("cs", "CZ"),
+            ' ', ',', "", " Kč");
+    // Euro ve slovenském zápisu: "1 234,56 €"
+    public static final CurrencyFormat EUR = new CurrencyFormat(Currency.getInstance("EUR"), new Locale("sk", "SK"),
+            ' ', ',', "", " €");
+    // Polský zlotý: "1 234,56 zł"
+    public static final CurrencyFormat PLN = new CurrencyFormat(Currency.getInstance("PLN"), new Locale("pl", "PL"),
+            ' ', ',', "", " zł");
+
+    // Nejdelší zápis částky typu long v setinách bez symbolu měny: znaménko, 17 číslic, 5 oddělovačů a desetinná část
+    private static final int MAX_NUMBER_LENGTH = 26;
+    // Nejvyšší počet platných číslic, pro který se neškálovaná hodnota vejde do long
+    private static final int MAX_LONG_PRECISION = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_PRECISION + 1];
+    // Připravené formáty podle měny
+    private static final Map<Currency, CurrencyFormat> FORMATS = new ConcurrentHashMap<>();
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        register(CZK);
+        register(EUR);
+        register(PLN);
+    }
+
+    private final Currency currency;
+    private final Locale locale;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    // Symbol měny včetně mezery před číslem, resp. za ním (jeden z nich je prázdný)
+    private final String prefix;
+    private final String suffix;
+    private final String nan;
+    private final String infinity;
+    // Předem převedené do UTF-8 pro zápis do ByteBuffer
+    private final byte[] currencyCodeUtf8;
+    private final byte[] groupingUtf8;
+    private final byte[] decimalUtf8;
+    private final byte[] prefixUtf8;
+    private final byte[] suffixUtf8;
+    // Nejdelší zápis částky typu long v setinách včetně symbolu měny ve znacích, resp. v bajtech UTF-8
+    private final int maxLength;
+    private final int maxBytes;
+
+    /**
+     * Vytvoří formát se zadanými oddělovači a symbolem měny.
+     *
+     * @param currency Měna (se dvěma desetinnými místy).
+     * @param locale Národní prostředí pro symboly NaN a nekonečna.
+     * @param groupingSeparator Oddělovač tisícovek.
+     * @param decimalSeparator Desetinný oddělovač.
+     * @param prefix Text před číslem (symbol měny včetně mezery), nebo "".
+     * @param suffix Text za číslem (symbol měny včetně mezery), nebo "".
+     * @throws IllegalArgumentException Pokud měna nemá dvě desetinná místa nebo jsou oddělovače
+     *         stejné či jde o číslici nebo mínus.
+     */
+    public CurrencyFormat(Currency currency, Locale locale, char groupingSeparator, char decimalSeparator,
+            String prefix, String suffix) {
+        if (currency.getDefaultFractionDigits() != 2) {
+            throw new IllegalArgumentException("Měna " + currency.getCurrencyCode()
+                    + " nemá dvě desetinná místa");
+        }
+        if (groupingSeparator == decimalSeparator || !isSeparator(groupingSeparator)
+                || !isSeparator(decimalSeparator)) {
+            throw new IllegalArgumentException("Neplatné oddělovače: '" + groupingSeparator + "', '"
+                    + decimalSeparator + "'");
+        }
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.currency = currency;
+        this.locale = locale;
+        this.groupingSeparator = groupingSeparator;
+        this.decimalSeparator = decimalSeparator;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.nan = symbols.getNaN();
+        this.infinity = symbols.getInfinity();
+        this.currencyCodeUtf8 = currency.getCurrencyCode().getBytes(StandardCharsets.US_ASCII);
+        this.groupingUtf8 = String.valueOf(groupingSeparator).getBytes(StandardCharsets.UTF_8);
+        this.decimalUtf8 = String.valueOf(decimalSeparator).getBytes(StandardCharsets.UTF_8);
+        this.prefixUtf8 = prefix.getBytes(StandardCharsets.UTF_8);
+        this.suffixUtf8 = suffix.getBytes(StandardCharsets.UTF_8);
+        this.maxLength = MAX_NUMBER_LENGTH + prefix.length() + suffix.length();
+        this.maxBytes = MAX_NUMBER_LENGTH + 5 * (groupingUtf8.length - 1) + decimalUtf8.length - 1
+                + prefixUtf8.length + suffixUtf8.length;
+    }
+
+    /**
+     * Vytvoří formát podle pravidel národního prostředí: oddělovače i umístění symbolu měny
+     * se převezmou z {@link NumberFormat#getCurrencyInstance(Locale)}.
+     *
+     * @param locale Národní prostředí se zemí, podle které se určí měna.
+     * @return Nový formát (do seznamu připravených formátů se nepřidává).
+     * @throws IllegalArgumentException Pokud prostředí nemá měnu se dvěma desetinnými místy.
+     */
+    public static CurrencyFormat of(Locale locale) {
+        NumberFormat format = NumberFormat.getCurrencyInstance(locale);
+        if (!(format instanceof DecimalFormat) || format.getCurrency() == null) {
+            throw new IllegalArgumentException("Národní prostředí nemá měnu: " + locale);
+        }
+        DecimalFormat decimalFormat = (DecimalFormat) format;
+        DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        return new CurrencyFormat(format.getCurrency(), locale, symbols.getGroupingSeparator(),
+                symbols.getMonetaryDecimalSeparator(), decimalFormat.getPositivePrefix(),
+                decimalFormat.getPositiveSuffix());
+    }
+
+    /**
+     * Přidá formát mezi připravené formáty; nahradí dříve registrovaný formát stejné měny.
+     *
+     * @param format Formát měny.
+     */
+    public static void register(CurrencyFormat format) {
+        FORMATS.put(format.getCurrency(), format);
+    }
+
+    /**
+     * Vrátí připravený formát měny.
+     *
+     * @param currency Měna.
+     * @return Formát měny.
+     * @throws IllegalArgumentException Pokud pro měnu není formát registrovaný.
+     */
+    public static CurrencyFormat forCurrency(Currency currency) {
+        CurrencyFormat format = FORMATS.get(currency);
+        if (format == null) {
+            throw new IllegalArgumentException("Pro měnu " + currency.getCurrencyCode()
+                    + " není registrovaný formát");
+        }
+        return format;
+    }
+
+    /**
+     * Vrátí připravený formát měny podle kódu ISO 4217.
+     *
+     * @param currencyCode Kód měny, např. "EUR".
+     * @return Formát měny.
+     * @throws IllegalArgumentException Pokud kód není platný nebo pro měnu není formát registrovaný.
+     */
+    public static CurrencyFormat forCode(String currencyCode) {
+        return forCurrency(Currency.getInstance(currencyCode));
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return Kód měny ISO 4217.
+     */
+    public String getCurrencyCode() {
+        return currency.getCurrencyCode();
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return Kód měny v ASCII pro zápis do CSV (pole se nesmí měnit).
+     */
+    byte[] currencyCodeUtf8() {
+        return currencyCodeUtf8;
+    }
+
+    /**
+     * @return Nejdelší zápis částky typu long v setinách včetně symbolu měny ve znacích.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return Nejdelší zápis částky typu long v setinách včetně symbolu měny v bajtech UTF-8.
+     */
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Formátuje BigDecimal bez symbolu měny.
+     *
+     * @param value Hodnota k formátování
+     * @return Formátovaný řetězec
+     */
+    public String format(BigDecimal value) {
+        return append(new StringBuilder(32), value, false).toString();
+    }
+
+    /**
+     * Formátuje double bez symbolu měny.
+     * Hodnota se převádí přes BigDecimal (alokuje), číslice a zaokrouhlení odpovídají DecimalFormat.
+     *
+     * @param value Hodnota k formátování
+     * @return Formátovaný řetězec
+     */
+    public String format(double value) {
+        return appendDouble(new StringBuilder(32), value, false).toString();
+    }
+
+    /**
+     * Formátuje částku v setinách měny bez symbolu měny.
+     *
+     * @param minorUnits Částka v setinách
+     * @return Formátovaný řetězec
+     */
+    public String formatMinorUnits(long minorUnits) {
+        return appendMinorUnits(new StringBuilder(32), minorUnits, false).toString();
+    }
+
+    /**
+     * Formátuje číslo se symbolem měny.
+     *
+     * @param value Hodnota k formátování
+     * @return Formátovaný řetězec s měnou
+     */
+    public String formatCurrency(BigDecimal value) {
+        return append(new StringBuilder(32), value, true).toString();
+    }
+
+    /**
+     * Formátuje číslo se symbolem měny.
+     *
+     * @param value Hodnota k formátování
+     * @return Formátovaný řetězec s měnou
+     */
+    public String formatCurrency(double value) {
+        return appendDouble(new StringBuilder(32), value, true).toString();
+    }
+
+    /**
+     * Formátuje částku v setinách měny se symbolem měny.
+     *
+     * @param minorUnits Částka v setinách
+     * @return Formátovaný řetězec s měnou
+     */
+    public String formatCurrencyMinorUnits(long minorUnits) {
+        return appendMinorUnits(new StringBuilder(32), minorUnits, true).toString();
+    }
+
+    /**
+     * Připojí číslo. Hodnota null se zapíše jako nula.
+     *
+     * @param target Cílový StringBuilder
+     * @param value Hodnota k formátování
+     * @param currency Zda připojit symbol měny
+     * @return Cílový StringBuilder
+     */
+    public StringBuilder append(StringBuilder target, BigDecimal value, boolean currency) {
+        BigDecimal amount = value == null ? BigDecimal.ZERO : value;
+        boolean negative = amount.signum() < 0;
+        long units = negativeUnits(amount);
+        if (units <= 0) {
+            appendUnits(target, negative, units, currency);
+        } else {
+            appendLarge(target, amount, negative, currency);
+        }
+        return currency ? target.append(suffix) : target;
+    }
+
+    /**
+     * Připojí částku v setinách měny.
+     *
+     * @param target Cílový StringBuilder
+     * @param minorUnits Částka v setinách
+     * @param currency Zda připojit symbol měny
+     * @return Cílový StringBuilder
+     */
+    public StringBuilder appendMinorUnits(StringBuilder target, long minorUnits, boolean currency) {
+        appendUnits(target, minorUnits < 0, minorUnits > 0 ? -minorUnits : minorUnits, currency);
+        return currency ? target.append(suffix) : target;
+    }
+
+    /**
+     * Zapíše číslo do pole znaků. Hodnota null se zapíše jako nula.
+     * Částce s nejvýše 18 platnými číslicemi stačí {@link #getMaxLength()} znaků.
+     *
+     * @param target Cílové pole
+     * @param offset Index prvního zapsaného znaku
+     * @param value Hodnota k formátování
+     * @param currency Zda připojit symbol měny
+     * @return Index za posledním zapsaným znakem
+     */
+    public int write(char[] target, int offset, BigDecimal value, boolean currency) {
+        BigDecimal amount = value == null ? BigDecimal.ZERO : value;
+        long units = negativeUnits(amount);
+        if (units > 0) {
+            String text = append(new StringBuilder(64), amount, currency).toString();
+            text.getChars(0, text.length(), target, offset);
+            return offset + text.length();
+        }
+        return writeUnits(target, offset, amount.signum() < 0, units, currency);
+    }
+
+    /**
+     * Zapíše částku v setinách měny do pole znaků (nejvýše {@link #getMaxLength()} znaků).
+     *
+     * @param target Cílové pole
+     * @param offset Index prvního zapsaného znaku
+     * @param minorUnits Částka v setinách
+     * @param currency Zda připojit symbol měny
+     * @return Index za posledním zapsaným znakem
+     */
+    public int writeMinorUnits(char[] target, int offset, long minorUnits, boolean currency) {
+        return writeUnits(target, offset, minorUnits < 0, minorUnits > 0 ? -minorUnits : minorUnits, currency);
+    }
+
+    /**
+     * Zapíše číslo do bufferu v kódování UTF-8. Hodnota null se zapíše jako nula.
+     *
+     * @param target Cílový buffer
+     * @param value Hodnota k formátování
+     * @param currency Zda připojit symbol měny
+     * @return Cílový buffer
+     */
+    public ByteBuffer put(ByteBuffer target, BigDecimal value, boolean currency) {
+        BigDecimal amount = value == null ? BigDecimal.ZERO : value;
+        long units = negativeUnits(amount);
+        if (units > 0) {
+            return target.put(append(new StringBuilder(64), amount, currency).toString()
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        putUnits(target, amount.signum() < 0, units, currency);
+        return currency ? target.put(suffixUtf8) : target;
+    }
+
+    /**
+     * Zapíše částku v setinách měny do bufferu v kódování UTF-8 (nejvýše {@link #getMaxBytes()} bajtů).
+     *
+     * @param target Cílový buffer
+     * @param minorUnits Částka v setinách
+     * @param currency Zda připojit symbol měny
+     * @return Cílový buffer
+     */
+    public ByteBuffer putMinorUnits(ByteBuffer target, long minorUnits, boolean currency) {
+        putUnits(target, minorUnits < 0, minorUnits > 0 ? -minorUnits : minorUnits, currency);
+        return currency ? target.put(suffixUtf8) : target;
+    }
+
+    /**
+     * Zaokrouhlí hodnotu na setiny (HALF_EVEN) a vrátí jejich počet jako nekladné číslo
+     * (záporná doména pokryje i Long.MIN_VALUE). Pokud se hodnota do long nevejde, vrátí 1.
+     */
+    private static long negativeUnits(BigDecimal value) {
+        int precision = value.precision();
+        if (precision > MAX_LONG_PRECISION) {
+            return 1;
+        }
+        int scale = value.scale();
+        // Neškálovaná hodnota bez BigInteger: posun desetinné čárky je jen nový objekt, který JIT odstraní
+        long unscaled = value.scaleByPowerOfTen(scale).longValue();
+        long negative = unscaled > 0 ? -unscaled : unscaled;
+        if (scale <= 2) {
+            return precision + 2 - scale <= MAX_LONG_PRECISION ? negative * POWERS_OF_TEN[2 - scale] : 1;
+        }
+        if (scale - 2 > MAX_LONG_PRECISION) {
+            // |hodnota| < 10^-2 / 10, zaokrouhlí se na nulu
+            return 0;
+        }
+        long divisor = POWERS_OF_TEN[scale - 2];
+        long quotient = negative / divisor;
+        long remainder = negative % divisor;
+        // Polovina a více se zaokrouhlí od nuly, přesná polovina jen k sudému číslu
+        long twiceRemainder = -2 * remainder;
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0)) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    private void appendUnits(StringBuilder target, boolean negative, long negativeUnits, boolean currency) {
+        if (negative) {
+            target.append('-');
+        }
+        if (currency) {
+            target.append(prefix);
+        }
+        long integer = negativeUnits / FixedPointLoanCalculator.MINOR_UNITS;
+        for (int i = digitCount(integer) - 1; i >= 0; i--) {
+            long power = POWERS_OF_TEN[i];
+            target.append((char) ('0' - integer / power));
+            integer %= power;
+            if (i % 3 == 0 && i > 0) {
+                target.append(groupingSeparator);
+            }
+        }
+        int cents = (int) -(negativeUnits % FixedPointLoanCalculator.MINOR_UNITS);
+        target.append(decimalSeparator).append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10));
+    }
+
+    private int writeUnits(char[] target, int offset, boolean negative, long negativeUnits, boolean currency) {
+        int position = offset;
+        if (negative) {
+            target[position++] = '-';
+        }
+        if (currency) {
+            prefix.getChars(0, prefix.length(), target, position);
+            position += prefix.length();
+        }
+        long integer = negativeUnits / FixedPointLoanCalculator.MINOR_UNITS;
+        for (int i = digitCount(integer) - 1; i >= 0; i--) {
+            long power = POWERS_OF_TEN[i];
+            target[position++] = (char) ('0' - integer / power);
+            integer %= power;
+            if (i % 3 == 0 && i > 0) {
+                target[position++] = groupingSeparator;
+            }
+        }
+        int cents = (int) -(negativeUnits % FixedPointLoanCalculator.MINOR_UNITS);
+        target[position++] = decimalSeparator;
+        target[position++] = (char) ('0' + cents / 10);
+        target[position++] = (char) ('0' + cents % 10);
+        if (currency) {
+            suffix.getChars(0, suffix.length(), target, position);
+            position += suffix.length();
+        }
+        return position;
+    }
+
+    private void putUnits(ByteBuffer target, boolean negative, long negativeUnits, boolean currency) {
+        if (negative) {
+            target.put((byte) '-');
+        }
+        if (currency) {
+            target.put(prefixUtf8);
+        }
+        long integer = negativeUnits / FixedPointLoanCalculator.MINOR_UNITS;
+        for (int i = digitCount(integer) - 1; i >= 0; i--) {
+            long power = POWERS_OF_TEN[i];
+            target.put((byte) ('0' - integer / power));
+            integer %= power;
+            if (i % 3 == 0 && i > 0) {
+                putSeparator(target, groupingUtf8);
+            }
+        }
+        int cents = (int) -(negativeUnits % FixedPointLoanCalculator.MINOR_UNITS);
+        putSeparator(target, decimalUtf8);
+        target.put((byte) ('0' + cents / 10)).put((byte) ('0' + cents % 10));
+    }
+
+    /**
+     * Oddělovač je téměř vždy jeden bajt; ten se zapíše bez kopírování pole.
+     */
+    private static void putSeparator(ByteBuffer target, byte[] separator) {
+        if (separator.length == 1) {
+            target.put(separator[0]);
+        } else {
+            target.put(separator);
+        }
+    }
+
+    /**
+     * Pomalá cesta pro hodnoty, které se v setinách nevejdou do long.
+     */
+    private void appendLarge(StringBuilder target, BigDecimal value, boolean negative, boolean currency) {
+        String digits = value.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().abs().toString();
+        if (digits.length() < 3) {
+            // Alespoň jedna celá číslice a dvě desetinná místa
+            digits = "00".substring(digits.length() - 1) + digits;
+        }
+        if (negative) {
+            target.append('-');
+        }
+        if (currency) {
+            target.append(prefix);
+        }
+        int integerDigits = digits.length() - 2;
+        for (int i = 0; i < integerDigits; i++) {
+            target.append(digits.charAt(i));
+            int remaining = integerDigits - i - 1;
+            if (remaining % 3 == 0 && remaining > 0) {
+                target.append(groupingSeparator);
+            }
+        }
+        target.append(decimalSeparator).append(digits, integerDigits, digits.length());
+    }
+
+    /**
+     * Číslice bere stejně jako DecimalFormat z nejkratšího zápisu double; jen když zápis
+     * končí přesnou polovinou setiny, zaokrouhluje se přesná binární hodnota.
+     */
+    private StringBuilder appendDouble(StringBuilder target, double value, boolean currency) {
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        if (Double.isNaN(value)) {
+            target.append(nan);
+        } else if (Double.isInfinite(value)) {
+            target.append(negative ? "-" : "").append(currency ? prefix : "").append(infinity);
+        } else {
+            BigDecimal digits = BigDecimal.valueOf(value);
+            BigDecimal amount = isHalfTie(digits) ? new BigDecimal(value) : digits;
+            long units = negativeUnits(amount);
+            if (units <= 0) {
+                appendUnits(target, negative, units, currency);
+            } else {
+                appendLarge(target, amount, negative, currency);
+            }
+        }
+        return currency ? target.append(suffix) : target;
+    }
+
+    /**
+     * @return true, pokud hodnota leží přesně v polovině mezi dvěma setinami.
+     */
+    private static boolean isHalfTie(BigDecimal value) {
+        int scale = value.scale();
+        if (scale <= 2 || scale - 2 > MAX_LONG_PRECISION || value.precision() > MAX_LONG_PRECISION) {
+            return false;
+        }
+        long unscaled = Math.abs(value.scaleByPowerOfTen(scale).longValue());
+        long divisor = POWERS_OF_TEN[scale - 2];
+        return unscaled % divisor * 2 == divisor;
+    }
+
+    /**
+     * @return Počet číslic nekladného čísla (pro nulu 1).
+     */
+    private static int digitCount(long negativeValue) {
+        int count = 1;
+        while (negativeValue <= -10) {
+            negativeValue /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isSeparator(char c) {
+        return (c < '0' || c > '9') && c != '-';
+    }
+
+    @Override
+    public String toString() {
+        return "CurrencyFormat{" +
+               "currency=" + currency.getCurrencyCode() +
+               ", locale=" + locale +
+               '}';
+    }
+}
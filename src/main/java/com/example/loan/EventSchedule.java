@@ -0,0 +1,456 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splátkový kalendář s událostmi v čase: změnami sazby při refixaci a mimořádnými splátkami.
+ * Bez událostí je kalendář shodný s {@link FixedPointLoanCalculator#generatePaymentSchedule}.
+ * <p>
+ * Kalendář je sloupcový jako {@link ScheduleTable} a pro každý měsíc si navíc pamatuje stav
+ * výpočtu (sazbu, pravidelnou splátku a plánovaný konec). Při přidání, odebrání nebo změně
+ * události v měsíci k se proto měsíce 1 až k-1 znovu nepočítají: výpočet naváže na uložený
+ * stav po měsíci k-1 a přepočítá jen zbytek kalendáře.
+ * <p>
+ * Když se po události přepočítává doba splácení, zůstává splátka stejná a úvěr skončí
+ * v měsíci, kdy splátka pokryje zůstatek i úrok; poslední splátka je pak nižší.
+ * Instance není vláknově bezpečná.
+ */
+public class EventSchedule {
+
+    // Nejdelší povolená délka kalendáře (100 let), stejná jako pro zadání úvěru
+    public static final int MAX_TERM_MONTHS = LoanSpec.MAX_LOAN_TERM_MONTHS;
+
+    // Plánovaný konec není pevný, úvěr skončí, až splátka pokryje zůstatek
+    private static final int OPEN_END = 0;
+
+    private final long principal;
+    private final long initialMonthlyRate;
+    private final int loanTermMonths;
+    // Události seřazené podle měsíce; události ve stejném měsíci v pořadí přidání
+    private final List<LoanEvent> events = new ArrayList<>();
+
+    // Sloupce kalendáře (haléře), index 0 odpovídá prvnímu měsíci
+    private long[] principalPaid;
+    private long[] interestPaid;
+    private long[] totalPayment;
+    private long[] remainingBalance;
+    // Stav výpočtu po každém měsíci, ze kterého lze navázat
+    private long[] monthlyRates;
+    private long[] regularPayments;
+    private int[] lastMonths;
+    private int size;
+    // Počet měsíců přepočítaných při poslední změně
+    private int recomputedMonths;
+
+    /**
+     * Vytvoří kalendář bez událostí.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     */
+    public EventSchedule(long principal, long monthlyRate, int loanTermMonths) {
+        LoanSpec.validateTerm(loanTermMonths);
+        this.principal = principal;
+        this.initialMonthlyRate = monthlyRate;
+        this.loanTermMonths = loanTermMonths;
+        allocate(loanTermMonths);
+        recompute(1);
+    }
+
+    /**
+     * Vytvoří kalendář bez událostí.
+     *
+     * @param loan Zadání úvěru.
+     */
+    public EventSchedule(LoanSpec loan) {
+        this(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(), loan.getLoanTermMonths());
+    }
+
+    /**
+     * Přidá událost a přepočítá kalendář od jejího měsíce.
+     *
+     * @param event Událost.
+     * @throws IllegalArgumentException Pokud by se úvěr s novou událostí nesplatil do {@link #MAX_TERM_MONTHS}
+     *                                  měsíců; kalendář pak zůstane beze změny.
+     */
+    public void addEvent(LoanEvent event) {
+        int index = insertionIndex(event.getMonth());
+        events.add(index, event);
+        try {
+            recompute(event.getMonth());
+        } catch (IllegalArgumentException e) {
+            events.remove(index);
+            recompute(event.getMonth());
+            throw e;
+        }
+    }
+
+    /**
+     * Odebere událost a přepočítá kalendář od jejího měsíce.
+     *
+     * @param event Událost.
+     * @return true, pokud v kalendáři byla.
+     */
+    public boolean removeEvent(LoanEvent event) {
+        int index = events.indexOf(event);
+        if (index < 0) {
+            return false;
+        }
+        events.remove(index);
+        try {
+            recompute(event.getMonth());
+        } catch (IllegalArgumentException e) {
+            events.add(index, event);
+            recompute(event.getMonth());
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Nahradí událost upravenou a přepočítá kalendář od dřívějšího z obou měsíců.
+     *
+     * @param original Původní událost.
+     * @param replacement Upravená událost.
+     * @return true, pokud původní událost v kalendáři byla.
+     */
+    public boolean replaceEvent(LoanEvent original, LoanEvent replacement) {
+        int index = events.indexOf(original);
+        if (index < 0) {
+            return false;
+        }
+        events.remove(index);
+        int replacementIndex = insertionIndex(replacement.getMonth());
+        events.add(replacementIndex, replacement);
+        int fromMonth = Math.min(original.getMonth(), replacement.getMonth());
+        try {
+            recompute(fromMonth);
+        } catch (IllegalArgumentException e) {
+            events.remove(replacementIndex);
+            events.add(index, original);
+            recompute(fromMonth);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Nahradí všechny události najednou. Přepočítá se jen od prvního měsíce, ve kterém
+     * se nové události od dosavadních liší; pořadí událostí ve stejném měsíci se zachová.
+     *
+     * @param newEvents Nové události v libovolném pořadí měsíců.
+     * @throws IllegalArgumentException Pokud by se úvěr s novými událostmi nesplatil; kalendář zůstane beze změny.
+     */
+    public void setEvents(List<LoanEvent> newEvents) {
+        List<LoanEvent> sorted = new ArrayList<>(newEvents);
+        sorted.sort(Comparator.comparingInt(LoanEvent::getMonth));
+
+        int common = 0;
+        while (common < events.size() && common < sorted.size() && events.get(common).equals(sorted.get(common))) {
+            common++;
+        }
+        int fromMonth = Integer.MAX_VALUE;
+        if (common < events.size()) {
+            fromMonth = events.get(common).getMonth();
+        }
+        if (common < sorted.size()) {
+            fromMonth = Math.min(fromMonth, sorted.get(common).getMonth());
+        }
+        if (fromMonth == Integer.MAX_VALUE) {
+            recomputedMonths = 0;
+            return;
+        }
+
+        List<LoanEvent> original = new ArrayList<>(events);
+        events.clear();
+        events.addAll(sorted);
+        try {
+            recompute(fromMonth);
+        } catch (IllegalArgumentException e) {
+            events.clear();
+            events.addAll(original);
+            recompute(fromMonth);
+            throw e;
+        }
+    }
+
+    /**
+     * @return Události seřazené podle měsíce (neměnný pohled).
+     */
+    public List<LoanEvent> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * @return Počet měsíců, které se přepočítaly při poslední změně událostí.
+     */
+    public int getRecomputedMonths() {
+        return recomputedMonths;
+    }
+
+    /**
+     * @return Počet měsíců kalendáře (do doplacení úvěru).
+     */
+    public int size() {
+        return size;
+    }
+
+    // Přístup ke sloupcům (částky v haléřích, index od 0)
+    public long getPrincipalPaid(int index) {
+        return principalPaid[checkIndex(index)];
+    }
+
+    public long getInterestPaid(int index) {
+        return interestPaid[checkIndex(index)];
+    }
+
+    public long getTotalPayment(int index) {
+        return totalPayment[checkIndex(index)];
+    }
+
+    public long getRemainingBalance(int index) {
+        return remainingBalance[checkIndex(index)];
+    }
+
+    /**
+     * @param index Index měsíce (od 0).
+     * @return Měsíční sazba platná v daném měsíci v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     */
+    public long getMonthlyRate(int index) {
+        return monthlyRates[checkIndex(index)];
+    }
+
+    /**
+     * @param index Index měsíce (od 0).
+     * @return Pravidelná splátka platná v daném měsíci (bez mimořádných splátek) v haléřích.
+     */
+    public long getRegularPayment(int index) {
+        return regularPayments[checkIndex(index)];
+    }
+
+    /**
+     * @return Součet zaplacených úroků v haléřích.
+     * @throws ArithmeticException Pokud součet přeteče rozsah long.
+     */
+    public long getTotalInterest() {
+        return sum(interestPaid);
+    }
+
+    /**
+     * @return Součet všech plateb včetně mimořádných splátek v haléřích.
+     * @throws ArithmeticException Pokud součet přeteče rozsah long.
+     */
+    public long getTotalPaid() {
+        return sum(totalPayment);
+    }
+
+    // Souhrnné údaje jako BigDecimal pro zobrazení
+    public BigDecimal getTotalInterestAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(getTotalInterest());
+    }
+
+    public BigDecimal getTotalPaidAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(getTotalPaid());
+    }
+
+    /**
+     * Předá všechny řádky kalendáře zpracovateli, např. {@link CsvStreamWriter}.
+     *
+     * @param consumer Zpracovatel řádků.
+     */
+    public void forEach(PaymentConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(i + 1, principalPaid[i], interestPaid[i], totalPayment[i], remainingBalance[i]);
+        }
+    }
+
+    /**
+     * Přepočítá kalendář od začátku měsíce {@code fromMonth}; předchozí měsíce zůstanou.
+     */
+    private void recompute(int fromMonth) {
+        if (size > 0 && fromMonth > size) {
+            // Událost až po doplacení úvěru kalendář nemění
+            recomputedMonths = 0;
+            return;
+        }
+
+        // Stav na začátku měsíce fromMonth
+        long balance;
+        long rate;
+        long payment;
+        int lastMonth;
+        if (fromMonth == 1) {
+            balance = principal;
+            rate = initialMonthlyRate;
+            payment = FixedPointLoanCalculator.calculateMonthlyPayment(principal, rate, loanTermMonths);
+            lastMonth = loanTermMonths;
+        } else {
+            int previous = fromMonth - 2;
+            balance = remainingBalance[previous];
+            rate = monthlyRates[previous];
+            payment = regularPayments[previous];
+            lastMonth = lastMonths[previous];
+        }
+        int eventIndex = insertionIndex(fromMonth - 1);
+
+        for (int month = fromMonth; ; month++) {
+            if (month > MAX_TERM_MONTHS) {
+                throw new IllegalArgumentException("Úvěr by se nesplatil do " + MAX_TERM_MONTHS + " měsíců.");
+            }
+
+            // Uplatnění událostí tohoto měsíce
+            long prepaid = 0;
+            for (; eventIndex < events.size() && events.get(eventIndex).getMonth() <= month; eventIndex++) {
+                LoanEvent event = events.get(eventIndex);
+                if (event.getType() == LoanEvent.Type.RATE_CHANGE) {
+                    rate = event.getMonthlyRate();
+                } else {
+                    long amount = Math.min(event.getAmount(), balance);
+                    balance -= amount;
+                    prepaid += amount;
+                }
+                if (event.getRecalculation() == LoanEvent.Recalculation.PAYMENT) {
+                    int remainingMonths = lastMonth != OPEN_END ? lastMonth - month + 1
+                            : estimateRemainingMonths(balance, rate, payment);
+                    lastMonth = month + remainingMonths - 1;
+                    payment = balance > 0
+                            ? FixedPointLoanCalculator.calculateMonthlyPayment(balance, rate, remainingMonths)
+                            : 0;
+                } else {
+                    lastMonth = OPEN_END;
+                }
+            }
+
+            ensureCapacity(month);
+            int index = month - 1;
+            if (prepaid > 0 && balance == 0) {
+                // Mimořádná splátka úvěr doplatila
+                store(index, prepaid, 0, prepaid, 0, rate, payment, month);
+                size = month;
+                break;
+            }
+
+            long interest = FixedPointLoanCalculator.multiplyByRate(balance, rate);
+            long principalPart;
+            long total;
+            boolean last;
+            if (lastMonth != OPEN_END) {
+                // Pevný konec: stejný výpočet jako FixedPointLoanCalculator, poslední splátka vyrovná zůstatek
+                principalPart = payment - interest;
+                balance -= principalPart;
+                total = payment;
+                last = month == lastMonth;
+                if (last) {
+                    principalPart += balance;
+                    balance = 0;
+                }
+            } else {
+                if (payment <= interest) {
+                    throw new IllegalArgumentException("Splátka " + FixedPointLoanCalculator.toBigDecimal(payment)
+                            + " nepokryje úrok v měsíci " + month + ", úvěr by se nikdy nesplatil.");
+                }
+                // Volný konec: splácí se stejnou splátkou, poslední je jen zbytek
+                last = balance + interest <= payment;
+                principalPart = last ? balance : payment - interest;
+                total = principalPart + interest;
+                balance -= principalPart;
+            }
+            store(index, principalPart + prepaid, interest, total + prepaid, balance, rate, payment,
+                    last ? month : lastMonth);
+            if (last) {
+                size = month;
+                break;
+            }
+        }
+        recomputedMonths = size - fromMonth + 1;
+    }
+
+    /**
+     * Odhad počtu zbývajících splátek, pokud se splácí stálou splátkou (pro přepočet splátky
+     * po předchozím přepočtu doby): n = -ln(1 - B·r / P) / ln(1 + r), zaokrouhleno nahoru.
+     */
+    private static int estimateRemainingMonths(long balance, long monthlyRate, long payment) {
+        if (balance <= 0 || payment <= 0) {
+            return 1;
+        }
+        double months;
+        if (monthlyRate == 0) {
+            months = (double) balance / payment;
+        } else {
+            double rate = (double) monthlyRate / FixedPointLoanCalculator.RATE_ONE;
+            double ratio = balance * rate / payment;
+            months = ratio >= 1 ? MAX_TERM_MONTHS : -Math.log1p(-ratio) / Math.log1p(rate);
+        }
+        return (int) Math.max(1, Math.min(MAX_TERM_MONTHS, Math.ceil(months)));
+    }
+
+    private void store(int index, long principalPart, long interest, long total, long balance, long rate,
+            long payment, int lastMonth) {
+        principalPaid[index] = principalPart;
+        interestPaid[index] = interest;
+        totalPayment[index] = total;
+        remainingBalance[index] = balance;
+        monthlyRates[index] = rate;
+        regularPayments[index] = payment;
+        lastMonths[index] = lastMonth;
+    }
+
+    /**
+     * Index, na který se vloží událost v zadaném měsíci (za všechny události do tohoto měsíce včetně).
+     */
+    private int insertionIndex(int month) {
+        int index = events.size();
+        while (index > 0 && events.get(index - 1).getMonth() > month) {
+            index--;
+        }
+        return index;
+    }
+
+    private void allocate(int capacity) {
+        principalPaid = new long[capacity];
+        interestPaid = new long[capacity];
+        totalPayment = new long[capacity];
+        remainingBalance = new long[capacity];
+        monthlyRates = new long[capacity];
+        regularPayments = new long[capacity];
+        lastMonths = new int[capacity];
+    }
+
+    /**
+     * Zvětší sloupce, pokud se kalendář po prodloužení doby do nich nevejde.
+     */
+    private void ensureCapacity(int months) {
+        if (months <= principalPaid.length) {
+            return;
+        }
+        int capacity = Math.min(MAX_TERM_MONTHS, Math.max(months, principalPaid.length * 2));
+        principalPaid = Arrays.copyOf(principalPaid, capacity);
+        interestPaid = Arrays.copyOf(interestPaid, capacity);
+        totalPayment = Arrays.copyOf(totalPayment, capacity);
+        remainingBalance = Arrays.copyOf(remainingBalance, capacity);
+        monthlyRates = Arrays.copyOf(monthlyRates, capacity);
+        regularPayments = Arrays.copyOf(regularPayments, capacity);
+        lastMonths = Arrays.copyOf(lastMonths, capacity);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", velikost: " + size);
+        }
+        return index;
+    }
+
+    private long sum(long[] column) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total = Math.addExact(total, column[i]);
+        }
+        return total;
+    }
+}
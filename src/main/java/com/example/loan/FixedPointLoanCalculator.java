@@ -0,0 +1,325 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Celočíselná varianta výpočtu splátkového kalendáře.
+ * Částky jsou v haléřích (long), měsíční úroková sazba je v desetimiliardtinách
+ * (long se 10 desetinnými místy). Výsledky jsou shodné s {@link LoanCalculator}
+ * až na haléř, protože se zaokrouhluje na stejných místech a stejným režimem (HALF_UP):
+ * <ul>
+ *   <li>měsíční sazba = roční sazba / 1200 zaokrouhlená na 10 desetinných míst,</li>
+ *   <li>měsíční splátka = anuitní vzorec zaokrouhlený na haléře,</li>
+ *   <li>měsíční úrok = zůstatek × měsíční sazba zaokrouhlený na haléře,</li>
+ *   <li>poslední splátka jistiny obsahuje zbytek po zaokrouhlování.</li>
+ * </ul>
+ * Generování kalendáře nealokuje žádné objekty na měsíc.
+ */
+public class FixedPointLoanCalculator {
+
+    // Počet haléřů v jedné koruně
+    public static final long MINOR_UNITS = 100;
+    // Počet desetinných míst měsíční úrokové sazby
+    public static final int RATE_SCALE = 10;
+    // Hodnota 1 v měřítku měsíční sazby
+    public static final long RATE_ONE = 10_000_000_000L;
+
+    // Polovina RATE_ONE pro zaokrouhlení HALF_UP
+    private static final long RATE_HALF = RATE_ONE / 2;
+    // Dělitel pro rozklad součinu na dvě poloviny, aby nepřetekl long
+    private static final long SPLIT = 100_000L;
+    // Relativní chyba výpočtu v double na jednotku exponentu (s rezervou)
+    private static final double RELATIVE_ERROR = 1e-15;
+    // Největší splátka v haléřích, kterou double reprezentuje s přesností na zlomky haléře
+    private static final double MAX_DOUBLE_PAYMENT = 1e15;
+
+    /**
+     * Převede částku na haléře.
+     *
+     * @param amount Částka v korunách s nejvýše dvěma desetinnými místy.
+     * @return Částka v haléřích.
+     * @throws ArithmeticException Pokud má částka více desetinných míst nebo se nevejde do long.
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Převede částku v haléřích na BigDecimal v korunách se dvěma desetinnými místy.
+     *
+     * @param minorUnits Částka v haléřích.
+     * @return Částka v korunách.
+     */
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    /**
+     * Vypočítá měsíční úrokovou sazbu stejně jako {@link LoanCalculator}.
+     *
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @return Měsíční sazba v měřítku {@link #RATE_ONE}.
+     */
+    public static long monthlyInterestRate(BigDecimal annualInterestRate) {
+        return LoanCalculator.monthlyInterestRate(annualInterestRate).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Vypočítá měsíční anuitní splátku z parametrů v BigDecimal.
+     * Chová se stejně jako {@link LoanCalculator#calculateMonthlyPayment}, včetně výjimky
+     * pro nenulovou sazbu, která se na 10 desetinných míst zaokrouhlí na nulu.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka v haléřích.
+     */
+    public static long calculateMonthlyPayment(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        return calculateMonthlyPayment(toMinorUnits(principal), checkedMonthlyRate(annualInterestRate), loanTermMonths);
+    }
+
+    /**
+     * Vypočítá měsíční sazbu a odmítne nenulovou roční sazbu, která se zaokrouhlí na nulu.
+     * BigDecimal výpočet v takovém případě dělí nulou, takže se chováme stejně.
+     *
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @return Měsíční sazba v měřítku {@link #RATE_ONE}.
+     */
+    static long checkedMonthlyRate(BigDecimal annualInterestRate) {
+        long monthlyRate = monthlyInterestRate(annualInterestRate);
+        if (monthlyRate == 0 && annualInterestRate.signum() != 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return monthlyRate;
+    }
+
+    /**
+     * Vypočítá měsíční anuitní splátku.
+     * Splátka se nejdříve odhadne v double; pokud je odhad příliš blízko poloviny haléře
+     * na to, aby bylo zaokrouhlení jisté, dopočítá se přesně přes BigDecimal.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link #RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka v haléřích.
+     */
+    public static long calculateMonthlyPayment(long principal, long monthlyRate, int loanTermMonths) {
+        if (!LoanMetrics.ENABLED) {
+            return monthlyPayment(principal, monthlyRate, loanTermMonths);
+        }
+        long start = System.nanoTime();
+        long payment = monthlyPayment(principal, monthlyRate, loanTermMonths);
+        LoanMetrics.recordPayment(System.nanoTime() - start);
+        return payment;
+    }
+
+    private static long monthlyPayment(long principal, long monthlyRate, int loanTermMonths) {
+        checkTerm(loanTermMonths);
+        // Speciální případ pro nulovou úrokovou sazbu
+        if (monthlyRate == 0) {
+            return divideHalfUp(principal, loanTermMonths);
+        }
+
+        // P * r / (1 - (1 + r)^-n), mocnina přes log1p/expm1 kvůli přesnosti pro malé sazby
+        double rate = (double) monthlyRate / RATE_ONE;
+        double exponent = loanTermMonths * Math.log1p(rate);
+        double estimate = principal * rate / -Math.expm1(-exponent);
+        return roundPaymentEstimate(estimate, exponent, principal, monthlyRate, loanTermMonths);
+    }
+
+    /**
+     * Zaokrouhlí odhad splátky spočítaný v double na haléře. Pokud je odhad tak blízko
+     * poloviny haléře, že chyba výpočtu v double může změnit výsledek zaokrouhlení,
+     * splátka se spočítá přesně přes BigDecimal.
+     *
+     * @param estimate Odhad splátky v haléřích.
+     * @param exponent Exponent n * ln(1 + r), ze kterého odhad vznikl, nebo jiná horní mez
+     *                 zesílení relativní chyby odhadu (určuje velikost chyby).
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link #RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka v haléřích.
+     */
+    static long roundPaymentEstimate(double estimate, double exponent, long principal, long monthlyRate,
+            int loanTermMonths) {
+        double tolerance = Math.abs(estimate) * (Math.abs(exponent) + 16) * RELATIVE_ERROR;
+        double fraction = estimate - Math.floor(estimate);
+        if (Math.abs(estimate) < MAX_DOUBLE_PAYMENT && Math.abs(fraction - 0.5) > tolerance) {
+            return Math.round(estimate);
+        }
+        return exactMonthlyPayment(principal, monthlyRate, loanTermMonths);
+    }
+
+    /**
+     * Generuje splátkový kalendář a předává jednotlivé splátky příjemci.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link #RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param consumer Příjemce splátek.
+     * @return Měsíční splátka v haléřích.
+     */
+    public static long generatePaymentSchedule(long principal, long monthlyRate, int loanTermMonths,
+            PaymentConsumer consumer) {
+        if (!LoanMetrics.ENABLED) {
+            return paymentSchedule(principal, monthlyRate, loanTermMonths, consumer);
+        }
+        ScheduleGenerationEvent event = new ScheduleGenerationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long monthlyPayment = paymentSchedule(principal, monthlyRate, loanTermMonths, consumer);
+        LoanMetrics.recordSchedule(loanTermMonths, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.principal = principal;
+            event.monthlyRate = monthlyRate;
+            event.loanTermMonths = loanTermMonths;
+            event.monthlyPayment = monthlyPayment;
+            event.commit();
+        }
+        return monthlyPayment;
+    }
+
+    private static long paymentSchedule(long principal, long monthlyRate, int loanTermMonths,
+            PaymentConsumer consumer) {
+        long monthlyPayment = calculateMonthlyPayment(principal, monthlyRate, loanTermMonths);
+        long remainingBalance = principal;
+
+        for (int i = 1; i <= loanTermMonths; i++) {
+            long interestPaid = multiplyByRate(remainingBalance, monthlyRate);
+            long principalPaid = monthlyPayment - interestPaid;
+            remainingBalance -= principalPaid;
+
+            // Upraví poslední splátku, aby se vyrovnaly chyby zaokrouhlování
+            if (i == loanTermMonths) {
+                principalPaid += remainingBalance;
+                remainingBalance = 0;
+            }
+
+            consumer.accept(i, principalPaid, interestPaid, monthlyPayment, remainingBalance);
+        }
+
+        return monthlyPayment;
+    }
+
+    /**
+     * Sečte úroky za celou dobu splácení bez vytváření kalendáře.
+     * Výsledek je shodný se součtem sloupce úroků v {@link #generatePaymentSchedule}.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link #RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param monthlyPayment Měsíční splátka v haléřích.
+     * @return Celkové úroky v haléřích.
+     * @throws ArithmeticException Pokud se součet úroků nevejde do long.
+     */
+    public static long calculateTotalInterest(long principal, long monthlyRate, int loanTermMonths, long monthlyPayment) {
+        checkTerm(loanTermMonths);
+        if (monthlyRate == 0) {
+            return 0;
+        }
+        long remainingBalance = principal;
+        long totalInterest = 0;
+        for (int i = 1; i <= loanTermMonths; i++) {
+            long interestPaid = multiplyByRate(remainingBalance, monthlyRate);
+            remainingBalance -= monthlyPayment - interestPaid;
+            // U extrémních jistin součet přeteče; výjimka místo tiše chybného výsledku
+            totalInterest = Math.addExact(totalInterest, interestPaid);
+        }
+        return totalInterest;
+    }
+
+    /**
+     * Vynásobí částku měsíční sazbou a výsledek zaokrouhlí na haléře (HALF_UP),
+     * tedy {@code round(amount * rate / RATE_ONE)}. Mezivýsledek se počítá bez přetečení.
+     *
+     * @param amount Částka v haléřích.
+     * @param rate Sazba v měřítku {@link #RATE_ONE}.
+     * @return Zaokrouhlený součin v haléřích.
+     * @throws ArithmeticException Pokud se výsledek nevejde do long.
+     */
+    public static long multiplyByRate(long amount, long rate) {
+        long high = Math.multiplyHigh(amount, rate);
+        long low = amount * rate;
+        // Součin se vejde do long, pokud horní polovina je jen rozšířené znaménko
+        if (high == (low >> 63)) {
+            long quotient = low / RATE_ONE;
+            long remainder = low % RATE_ONE;
+            if (remainder >= RATE_HALF) {
+                quotient++;
+            } else if (remainder <= -RATE_HALF) {
+                quotient--;
+            }
+            return quotient;
+        }
+        return multiplyByRateWide(amount, rate);
+    }
+
+    /**
+     * Vydělí částku celým číslem a zaokrouhlí na haléře (HALF_UP).
+     *
+     * @param amount Částka v haléřích.
+     * @param divisor Kladný dělitel.
+     * @return Zaokrouhlený podíl.
+     */
+    static long divideHalfUp(long amount, long divisor) {
+        long quotient = amount / divisor;
+        long remainder = Math.abs(amount % divisor);
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(amount);
+        }
+        return quotient;
+    }
+
+    /**
+     * Ověří, že doba splácení je kladná.
+     *
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     */
+    static void checkTerm(int loanTermMonths) {
+        if (loanTermMonths <= 0) {
+            throw new IllegalArgumentException("Doba splácení musí být kladné číslo v měsících: " + loanTermMonths);
+        }
+    }
+
+    /**
+     * Přesný výpočet splátky přes BigDecimal pro případy, kdy double nestačí.
+     */
+    private static long exactMonthlyPayment(long principal, long monthlyRate, int loanTermMonths) {
+        if (LoanMetrics.ENABLED) {
+            LoanMetrics.recordExactPayment();
+        }
+        BigDecimal payment = LoanCalculator.annuityPayment(toBigDecimal(principal),
+                BigDecimal.valueOf(monthlyRate, RATE_SCALE), loanTermMonths);
+        return payment.unscaledValue().longValueExact();
+    }
+
+    /**
+     * Součin, který se nevejde do long: obě čísla se rozloží na části menší než RATE_ONE
+     * a zbytek po dělení se skládá tak, aby žádný mezivýsledek nepřetekl.
+     */
+    private static long multiplyByRateWide(long amount, long rate) {
+        boolean negative = (amount < 0) != (rate < 0);
+        long a = Math.abs(amount);
+        long b = Math.abs(rate);
+        long aHigh = a / RATE_ONE;
+        long aLow = a % RATE_ONE;
+        long bHigh = b / RATE_ONE;
+        long bLow = b % RATE_ONE;
+
+        // aLow * bLow / RATE_ONE přes další rozklad bLow na dvě části po 10^5
+        long x = aLow * (bLow / SPLIT);
+        long y = aLow * (bLow % SPLIT);
+        long sum = (x % SPLIT) * SPLIT + y;
+
+        long quotient = Math.multiplyExact(Math.multiplyExact(aHigh, bHigh), RATE_ONE);
+        quotient = Math.addExact(quotient, Math.multiplyExact(aHigh, bLow));
+        quotient = Math.addExact(quotient, Math.multiplyExact(aLow, bHigh));
+        quotient = Math.addExact(quotient, x / SPLIT + sum / RATE_ONE);
+        if (sum % RATE_ONE >= RATE_HALF) {
+            quotient = Math.addExact(quotient, 1);
+        }
+        return negative ? -quotient : quotient;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.loan;
+
+/**
+ * Histogram nezáporných hodnot typu long s pevnou relativní přesností pro výpočet percentilů
+ * z velkého počtu hodnot v omezené paměti. Každá mocnina dvou je rozdělená na
+ * 2^subBucketBits dílů, relativní chyba percentilu je tedy nejvýše 2^-subBucketBits.
+ * Pole přihrádek pro jednotlivé mocniny dvou se alokují až při prvním použití, takže
+ * hodnoty soustředěné v úzkém rozsahu (např. splátky) zaberou jen několik kilobajtů.
+ * <p>
+ * Instance není vláknově bezpečná; paralelní výpočet plní vlastní histogramy
+ * a ty se nakonec sloučí přes {@link #merge(Histogram)}.
+ * Pro souběžný zápis z mnoha vláken slouží {@link LatencyHistogram}.
+ */
+public class Histogram {
+
+    private final int subBucketBits;
+    // Přihrádky po skupinách: skupina 0 jsou přesné hodnoty 0..2^bits-1, skupina g > 0 hodnoty
+    // s nejvyšším bitem bits+g-1
+    private final long[][] counts;
+    private long totalCount;
+    private long totalSum;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    /**
+     * @param subBucketBits Počet bitů pro dělení mocniny dvou (1 až 20), např. 10 pro přesnost cca 0,1 %.
+     */
+    public Histogram(int subBucketBits) {
+        if (subBucketBits < 1 || subBucketBits > 20) {
+            throw new IllegalArgumentException("Počet bitů přesnosti musí být 1 až 20: " + subBucketBits);
+        }
+        this.subBucketBits = subBucketBits;
+        this.counts = new long[64 - subBucketBits][];
+    }
+
+    /**
+     * Zaznamená jednu hodnotu.
+     *
+     * @param value Nezáporná hodnota.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram přijímá jen nezáporné hodnoty: " + value);
+        }
+        int index = bucketIndex(value, subBucketBits);
+        int group = index >>> subBucketBits;
+        long[] groupCounts = counts[group];
+        if (groupCounts == null) {
+            groupCounts = new long[1 << subBucketBits];
+            counts[group] = groupCounts;
+        }
+        groupCounts[index & ((1 << subBucketBits) - 1)]++;
+        totalCount++;
+        totalSum += value;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Přičte do histogramu všechny hodnoty jiného histogramu se stejnou přesností.
+     *
+     * @param other Jiný histogram.
+     */
+    public void merge(Histogram other) {
+        if (other.subBucketBits != subBucketBits) {
+            throw new IllegalArgumentException("Histogramy mají různou přesnost: " + subBucketBits + " a "
+                    + other.subBucketBits);
+        }
+        for (int group = 0; group < counts.length; group++) {
+            long[] source = other.counts[group];
+            if (source == null) {
+                continue;
+            }
+            if (counts[group] == null) {
+                counts[group] = source.clone();
+            } else {
+                long[] target = counts[group];
+                for (int i = 0; i < target.length; i++) {
+                    target[i] += source[i];
+                }
+            }
+        }
+        totalCount += other.totalCount;
+        totalSum += other.totalSum;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * @return Počet zaznamenaných hodnot.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return Nejmenší zaznamenaná hodnota (0, pokud nic nebylo zaznamenáno).
+     */
+    public long getMin() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    /**
+     * @return Největší zaznamenaná hodnota (0, pokud nic nebylo zaznamenáno).
+     */
+    public long getMax() {
+        return maxValue;
+    }
+
+    /**
+     * @return Průměr zaznamenaných hodnot (0, pokud nic nebylo zaznamenáno).
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalSum / totalCount;
+    }
+
+    /**
+     * Vrátí hodnotu, pod kterou (včetně) leží zadané procento zaznamenaných hodnot.
+     * Výsledkem je horní mez příslušné přihrádky, omezená nejmenší a největší zaznamenanou hodnotou.
+     *
+     * @param percentile Percentil v rozsahu 0 až 100.
+     * @return Hodnota percentilu (0, pokud nic nebylo zaznamenáno).
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentil musí být v rozsahu 0 až 100: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int group = 0; group < counts.length; group++) {
+            long[] groupCounts = counts[group];
+            if (groupCounts == null) {
+                continue;
+            }
+            for (int i = 0; i < groupCounts.length; i++) {
+                seen += groupCounts[i];
+                if (seen >= rank) {
+                    long upperBound = bucketUpperBound((group << subBucketBits) | i, subBucketBits);
+                    return Math.max(minValue, Math.min(upperBound, maxValue));
+                }
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Index přihrádky: hodnoty menší než 2^bits přímo, větší podle nejvyššího bitu
+     * a {@code subBucketBits} bitů pod ním.
+     */
+    static int bucketIndex(long value, int subBucketBits) {
+        int subBuckets = 1 << subBucketBits;
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - subBucketBits;
+        return (shift + 1) * subBuckets + (int) (value >>> shift) - subBuckets;
+    }
+
+    /**
+     * Největší hodnota, která padne do přihrádky s daným indexem.
+     */
+    static long bucketUpperBound(int index, int subBucketBits) {
+        int subBuckets = 1 << subBucketBits;
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = index / subBuckets - 1;
+        long lowerBound = (long) (index % subBuckets + subBuckets) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
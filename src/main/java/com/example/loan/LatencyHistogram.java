@@ -0,0 +1,102 @@
+package com.example.loan;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vláknově bezpečný histogram nezáporných hodnot (typicky doby trvání v mikrosekundách)
+ * pro výpočet percentilů. Hodnoty se ukládají do logaritmických přihrádek, každá mocnina
+ * dvou je rozdělená na 32 dílů, takže percentil je určen s relativní chybou nejvýše cca 3 %.
+ * Zápis je jedna atomická operace nad pevným polem a dva {@link LongAdder} pro počet a součet,
+ * maximum se zapisuje jen při překročení, nic se nealokuje. Přihrádky jsou stejné
+ * jako v {@link Histogram} s přesností 5 bitů.
+ */
+public class LatencyHistogram {
+
+    // Počet bitů a dílů pro rozdělení jedné mocniny dvou
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Přihrádky 0..31 jsou přesné, pak 32 přihrádek pro každý nejvyšší bit 5..62
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Zaznamená jednu hodnotu; záporné hodnoty se počítají jako nula.
+     *
+     * @param value Hodnota, např. doba trvání v mikrosekundách.
+     */
+    public void record(long value) {
+        long normalized = Math.max(value, 0);
+        counts.incrementAndGet(Histogram.bucketIndex(normalized, SUB_BUCKET_BITS));
+        totalCount.increment();
+        totalSum.add(normalized);
+        if (normalized > maxValue.get()) {
+            maxValue.accumulateAndGet(normalized, Math::max);
+        }
+    }
+
+    /**
+     * @return Počet zaznamenaných hodnot.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * @return Největší zaznamenaná hodnota (0, pokud nic nebylo zaznamenáno).
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * @return Průměr zaznamenaných hodnot (0, pokud nic nebylo zaznamenáno).
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Vrátí hodnotu, pod kterou (včetně) leží zadané procento zaznamenaných hodnot.
+     * Výsledkem je horní mez příslušné přihrádky, nejvýše však největší zaznamenaná hodnota.
+     *
+     * @param percentile Percentil v rozsahu 0 až 100.
+     * @return Hodnota percentilu (0, pokud nic nebylo zaznamenáno).
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentil musí být v rozsahu 0 až 100: " + percentile);
+        }
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(Histogram.bucketUpperBound(i, SUB_BUCKET_BITS), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Vynuluje histogram. Souběžně zaznamenané hodnoty se mohou, ale nemusí započítat.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalSum.reset();
+        maxValue.set(0);
+    }
+}
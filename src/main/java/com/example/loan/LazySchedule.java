@@ -0,0 +1,317 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Líný splátkový kalendář: splátky se počítají až při průchodu nebo přístupu, v paměti
+ * se drží jen zadání a řídké kontrolní body zůstatku. Hodí se tam, kde je potřeba jen
+ * část kalendáře (např. měsíce 240–252 nebo zůstatek po 84. měsíci).
+ * <p>
+ * Zůstatek se nedá skočit uzavřeným vzorcem, protože se úrok každý měsíc zaokrouhluje
+ * na haléře. Přístup na libovolný měsíc proto začne v nejbližším předchozím kontrolním
+ * bodě (každých {@value #CHECKPOINT_INTERVAL} měsíců) a dopočítá nejvýše tolik měsíců
+ * stejnou smyčkou jako {@link FixedPointLoanCalculator#generatePaymentSchedule}.
+ * Hodnoty jsou tak bit po bitu shodné s kalendářem z {@link ScheduleTable} i
+ * {@link LoanCalculator#generatePaymentSchedule}. Kontrolní body se spočítají jedním
+ * průchodem při prvním skoku za první interval.
+ * <p>
+ * Kalendář je neměnný a vláknově bezpečný; {@link #spliterator()} se dělí podle měsíců,
+ * takže paralelní stream počítá každou část od jejího kontrolního bodu.
+ */
+public class LazySchedule extends AbstractList<Payment> implements RandomAccess {
+
+    // Rozestup kontrolních bodů v měsících
+    static final int CHECKPOINT_INTERVAL = 32;
+    // Nejmenší část kalendáře, kterou má smysl oddělit pro paralelní zpracování
+    private static final int MIN_SPLIT_SIZE = 2 * CHECKPOINT_INTERVAL;
+
+    private final long principal;
+    private final long monthlyRate;
+    private final int loanTermMonths;
+    private final long monthlyPayment;
+    // Zůstatek po měsících 0, 32, 64, ...; počítá se až při prvním skoku
+    private volatile long[] checkpoints;
+
+    private LazySchedule(long principal, long monthlyRate, int loanTermMonths, long monthlyPayment) {
+        this.principal = principal;
+        this.monthlyRate = monthlyRate;
+        this.loanTermMonths = loanTermMonths;
+        this.monthlyPayment = monthlyPayment;
+    }
+
+    /**
+     * Vytvoří líný kalendář; spočítá se jen měsíční splátka.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Splátkový kalendář.
+     */
+    public static LazySchedule of(long principal, long monthlyRate, int loanTermMonths) {
+        long monthlyPayment = FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, loanTermMonths);
+        return new LazySchedule(principal, monthlyRate, loanTermMonths, monthlyPayment);
+    }
+
+    /**
+     * Vytvoří líný kalendář pro zadání úvěru.
+     *
+     * @param loan Zadání úvěru.
+     * @return Splátkový kalendář.
+     */
+    public static LazySchedule of(LoanSpec loan) {
+        return of(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(), loan.getLoanTermMonths());
+    }
+
+    /**
+     * Vrátí splátku jako objekt Payment. Výpočet začíná v nejbližším kontrolním bodě.
+     *
+     * @param index Index splátky (od 0).
+     * @return Splátka.
+     */
+    @Override
+    public Payment get(int index) {
+        Cursor cursor = cursorAt(index);
+        cursor.advance();
+        return cursor.toPayment();
+    }
+
+    @Override
+    public int size() {
+        return loanTermMonths;
+    }
+
+    // Přístup ke sloupcům bez vytváření objektů (částky v haléřích, index od 0)
+    public long getPrincipalPaid(int index) {
+        Cursor cursor = cursorAt(index);
+        cursor.advance();
+        return cursor.principalPaid;
+    }
+
+    public long getInterestPaid(int index) {
+        return FixedPointLoanCalculator.multiplyByRate(balanceBefore(checkIndex(index)), monthlyRate);
+    }
+
+    public long getTotalPayment(int index) {
+        checkIndex(index);
+        return monthlyPayment;
+    }
+
+    public long getRemainingBalance(int index) {
+        if (checkIndex(index) == loanTermMonths - 1) {
+            return 0;
+        }
+        return balanceBefore(index + 1);
+    }
+
+    /**
+     * @return Pravidelná měsíční splátka v haléřích.
+     */
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    /**
+     * Předá příjemci splátky v rozsahu indexů [fromIndex, toIndex) bez vytváření objektů.
+     *
+     * @param fromIndex Index první splátky (od 0).
+     * @param toIndex Index za poslední splátkou.
+     * @param consumer Příjemce splátek (částky v haléřích).
+     * @throws IndexOutOfBoundsException Pokud rozsah neleží v kalendáři.
+     */
+    public void forEach(int fromIndex, int toIndex, PaymentConsumer consumer) {
+        if (fromIndex < 0 || toIndex > loanTermMonths || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Rozsah " + fromIndex + ".." + toIndex
+                    + " mimo kalendář o " + loanTermMonths + " měsících");
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        Cursor cursor = cursorAt(fromIndex);
+        while (cursor.month < toIndex) {
+            cursor.advance();
+            consumer.accept(cursor.month, cursor.principalPaid, cursor.interestPaid, monthlyPayment,
+                    cursor.balance);
+        }
+    }
+
+    /**
+     * Sekvenční průchod; každá další splátka stojí jeden krok výpočtu.
+     */
+    @Override
+    public Iterator<Payment> iterator() {
+        Cursor cursor = new Cursor(0, principal);
+        return new Iterator<Payment>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.month < loanTermMonths;
+            }
+
+            @Override
+            public Payment next() {
+                if (cursor.month == loanTermMonths) {
+                    throw new NoSuchElementException();
+                }
+                cursor.advance();
+                return cursor.toPayment();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Payment> spliterator() {
+        return new PaymentSpliterator(0, loanTermMonths);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= loanTermMonths) {
+            throw new IndexOutOfBoundsException("Index " + index + " mimo kalendář o " + loanTermMonths + " měsících");
+        }
+        return index;
+    }
+
+    private Cursor cursorAt(int index) {
+        return new Cursor(index, balanceBefore(checkIndex(index)));
+    }
+
+    /**
+     * Zůstatek před splátkou s daným indexem, tj. po {@code index} měsících.
+     */
+    private long balanceBefore(int index) {
+        int checkpoint = index / CHECKPOINT_INTERVAL;
+        long balance = checkpoint == 0 ? principal : checkpoints()[checkpoint];
+        for (int month = checkpoint * CHECKPOINT_INTERVAL; month < index; month++) {
+            balance -= monthlyPayment - FixedPointLoanCalculator.multiplyByRate(balance, monthlyRate);
+        }
+        return balance;
+    }
+
+    private long[] checkpoints() {
+        long[] result = checkpoints;
+        if (result == null) {
+            // Souběžný výpočet ve více vláknech dá stejný výsledek, zámek proto není potřeba
+            result = new long[(loanTermMonths - 1) / CHECKPOINT_INTERVAL + 1];
+            long balance = principal;
+            result[0] = balance;
+            for (int checkpoint = 1; checkpoint < result.length; checkpoint++) {
+                for (int month = 0; month < CHECKPOINT_INTERVAL; month++) {
+                    balance -= monthlyPayment - FixedPointLoanCalculator.multiplyByRate(balance, monthlyRate);
+                }
+                result[checkpoint] = balance;
+            }
+            checkpoints = result;
+        }
+        return result;
+    }
+
+    /**
+     * Pozice ve výpočtu: číslo poslední spočítané splátky a její hodnoty.
+     * Krok je stejný jako ve smyčce {@link FixedPointLoanCalculator#generatePaymentSchedule}.
+     */
+    private final class Cursor {
+        int month;
+        long principalPaid;
+        long interestPaid;
+        long balance;
+
+        Cursor(int month, long balance) {
+            this.month = month;
+            this.balance = balance;
+        }
+
+        void advance() {
+            interestPaid = FixedPointLoanCalculator.multiplyByRate(balance, monthlyRate);
+            principalPaid = monthlyPayment - interestPaid;
+            balance -= principalPaid;
+
+            // Upraví poslední splátku, aby se vyrovnaly chyby zaokrouhlování
+            if (++month == loanTermMonths) {
+                principalPaid += balance;
+                balance = 0;
+            }
+        }
+
+        /**
+         * Splátka shodná s {@link LoanCalculator#generatePaymentSchedule} včetně měřítka:
+         * zůstatek po poslední splátce je {@link BigDecimal#ZERO}.
+         */
+        Payment toPayment() {
+            return new Payment(month,
+                    FixedPointLoanCalculator.toBigDecimal(principalPaid),
+                    FixedPointLoanCalculator.toBigDecimal(interestPaid),
+                    FixedPointLoanCalculator.toBigDecimal(monthlyPayment),
+                    month == loanTermMonths ? BigDecimal.ZERO : FixedPointLoanCalculator.toBigDecimal(balance));
+        }
+    }
+
+    /**
+     * Dělí kalendář podle indexů; každá část se při prvním použití napozicuje přes kontrolní body.
+     */
+    private final class PaymentSpliterator implements Spliterator<Payment> {
+        private int index;
+        private final int end;
+        private Cursor cursor;
+
+        PaymentSpliterator(int index, int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Payment> action) {
+            if (index >= end) {
+                return false;
+            }
+            if (cursor == null) {
+                cursor = cursorAt(index);
+            }
+            cursor.advance();
+            index++;
+            action.accept(cursor.toPayment());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Payment> action) {
+            if (index >= end) {
+                return;
+            }
+            if (cursor == null) {
+                cursor = cursorAt(index);
+            }
+            while (index < end) {
+                cursor.advance();
+                index++;
+                action.accept(cursor.toPayment());
+            }
+        }
+
+        @Override
+        public Spliterator<Payment> trySplit() {
+            if (end - index < 2 * MIN_SPLIT_SIZE) {
+                return null;
+            }
+            int middle = (index + end) >>> 1;
+            PaymentSpliterator prefix = new PaymentSpliterator(index, middle);
+            prefix.cursor = cursor;
+            index = middle;
+            cursor = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
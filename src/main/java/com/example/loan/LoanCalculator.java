@@ -31,12 +31,35 @@ public class LoanCalculator {
         }
 
         // Měsíční úroková sazba (roční sazba / 1200 pro procenta)
-        BigDecimal monthlyInterestRate = annualInterestRate.divide(new BigDecimal(1200), 10, ROUNDING_MODE);
+        BigDecimal monthlyInterestRate = monthlyInterestRate(annualInterestRate);
+        return annuityPayment(principal, monthlyInterestRate, loanTermMonths);
+    }
+
+    /**
+     * Vypočítá měsíční úrokovou sazbu z roční sazby v procentech.
+     *
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @return Měsíční sazba zaokrouhlená na 10 desetinných míst.
+     */
+    static BigDecimal monthlyInterestRate(BigDecimal annualInterestRate) {
+        return annualInterestRate.divide(new BigDecimal(1200), 10, ROUNDING_MODE);
+    }
+
+    /**
+     * Vypočítá anuitní splátku pro nenulovou měsíční sazbu.
+     *
+     * @param principal Výše úvěru (jistina).
+     * @param monthlyInterestRate Měsíční úroková sazba.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka zaokrouhlená na haléře.
+     */
+    static BigDecimal annuityPayment(BigDecimal principal, BigDecimal monthlyInterestRate, int loanTermMonths) {
+        // (1 + r)^n se počítá jen jednou, v čitateli i jmenovateli je stejná hodnota
+        BigDecimal compoundFactor = monthlyInterestRate.add(BigDecimal.ONE).pow(loanTermMonths);
         // Čitatel vzorce pro anuitní splátku
-        BigDecimal numerator = principal.multiply(monthlyInterestRate)
-                                        .multiply(monthlyInterestRate.add(BigDecimal.ONE).pow(loanTermMonths));
+        BigDecimal numerator = principal.multiply(monthlyInterestRate).multiply(compoundFactor);
         // Jmenovatel vzorce pro anuitní splátku
-        BigDecimal denominator = monthlyInterestRate.add(BigDecimal.ONE).pow(loanTermMonths).subtract(BigDecimal.ONE);
+        BigDecimal denominator = compoundFactor.subtract(BigDecimal.ONE);
 
         // Výpočet a zaokrouhlení měsíční splátky
         return numerator.divide(denominator, DECIMAL_PLACES, ROUNDING_MODE);
@@ -57,7 +80,7 @@ public class LoanCalculator {
         // Počáteční zbývající zůstatek je roven jistině
         BigDecimal remainingBalance = principal;
         // Měsíční úroková sazba
-        BigDecimal monthlyInterestRate = annualInterestRate.divide(new BigDecimal(1200), 10, ROUNDING_MODE);
+        BigDecimal monthlyInterestRate = monthlyInterestRate(annualInterestRate);
 
         // Iteruje přes každý měsíc splácení
         for (int i = 1; i <= loanTermMonths; i++) {
@@ -80,4 +103,32 @@ public class LoanCalculator {
 
         return schedule;
     }
+
+    /**
+     * Generuje splátkový kalendář ve sloupcové podobě (částky v haléřích).
+     * Hodnoty jsou shodné s {@link #generatePaymentSchedule}, ale kalendář nevytváří objekt na každý měsíc.
+     *
+     * @param principal Výše úvěru (jistina) s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Sloupcový splátkový kalendář.
+     */
+    public static ScheduleTable generateScheduleTable(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        return ScheduleTable.generate(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), loanTermMonths);
+    }
+
+    /**
+     * Vypočítá souhrnné údaje o úvěru (splátka, celkem zaplaceno, celkové úroky) bez sestavení
+     * splátkového kalendáře. Hodnoty odpovídají součtům nad {@link #generatePaymentSchedule}.
+     *
+     * @param principal Výše úvěru (jistina) s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Souhrn úvěru.
+     */
+    public static LoanSummary calculateSummary(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        return LoanSummary.calculate(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), loanTermMonths);
+    }
 }
\ No newline at end of file
@@ -1,24 +1,23 @@
 package com.example.loan;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.List;
-
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartPanel;
-import org.jfree.chart.JFreeChart;
-import org.jfree.data.general.DefaultPieDataset;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Třída reprezentující grafické uživatelské rozhraní (GUI) pro kalkulačku splátkového kalendáře.
  * Dědí od JFrame a poskytuje interaktivní prvky pro zadávání dat, zobrazení kalendáře,
  * souhrnných informací a koláčového grafu.
+ * <p>
+ * Třída nepoužívá JFreeChart přímo; graf ({@link PaymentPieChart}) se načte až při prvním
+ * výpočtu, takže se okno otevře bez načítání knihovny grafů.
  */
 public class LoanCalculatorUI extends JFrame {
 
@@ -26,10 +25,12 @@ public class LoanCalculatorUI extends JFrame {
     private JTextField principalField;
     private JTextField interestRateField;
     private JTextField loanTermField;
+    // Výběr měny pro tabulku, souhrn i export; kalendář se při změně nepočítá znovu
+    private JComboBox<CurrencyFormat> currencyComboBox;
     // Tabulka pro zobrazení splátkového kalendáře
     private JTable paymentTable;
-    // Model tabulky pro správu dat v paymentTable
-    private DefaultTableModel tableModel;
+    // Model tabulky čtoucí přímo ze spočítaného kalendáře
+    private ScheduleTableModel tableModel;
 
     // Popisky pro zobrazení souhrnných výsledků
     private JLabel regularPaymentLabel;
@@ -38,6 +39,17 @@ public class LoanCalculatorUI extends JFrame {
 
     // Kontejner pro zobrazení koláčového grafu
     private JPanel chartPanelContainer;
+    // Graf se vytvoří při prvním výpočtu a pak se jen aktualizují hodnoty
+    private PaymentPieChart pieChart;
+
+    // Cache spočítaných kalendářů; export i opakovaný výpočet stejných vstupů ji znovu použijí
+    private final ScheduleCache scheduleCache = new ScheduleCache(32, 8L * 1024 * 1024, 256);
+    // Právě běžící výpočet na pozadí, nebo null
+    private CalculationWorker calculationWorker;
+    // Prodleva po poslední změně vstupu, po které se kalendář automaticky přepočítá (ms)
+    private static final int RECALCULATION_DELAY_MS = 250;
+    // Časovač pro odložený přepočet; každá další změna vstupu ho spustí znovu
+    private Timer recalculationTimer;
 
     /**
      * Konstruktor třídy LoanCalculatorUI.
@@ -50,6 +62,7 @@ public class LoanCalculatorUI extends JFrame {
         setLocationRelativeTo(null); // Centrování okna na obrazovce
 
         initComponents();
+        LoanMetrics.registerCache("ui", scheduleCache);
     }
 
     /**
@@ -57,7 +70,7 @@ public class LoanCalculatorUI extends JFrame {
      */
     private void initComponents() {
         // Panel pro zadávání vstupních dat (výše úvěru, úroková sazba, doba splácení)
-        JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
+        JPanel inputPanel = new JPanel(new GridLayout(4, 2, 10, 10));
         inputPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
         inputPanel.add(new JLabel("Výše úvěru:"));
@@ -72,6 +85,56 @@ public class LoanCalculatorUI extends JFrame {
         loanTermField = new JTextField("120"); // Předvyplněná hodnota
         inputPanel.add(loanTermField);
 
+        inputPanel.add(new JLabel("Měna:"));
+        currencyComboBox = new JComboBox<>(new CurrencyFormat[] { CurrencyFormat.CZK, CurrencyFormat.EUR,
+                CurrencyFormat.PLN });
+        currencyComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, ((CurrencyFormat) value).getCurrencyCode(), index,
+                        isSelected, cellHasFocus);
+            }
+        });
+        currencyComboBox.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                currencyChanged();
+            }
+        });
+        inputPanel.add(currencyComboBox);
+
+        // Po změně vstupu se kalendář sám přepočítá, až se psaní na chvíli zastaví.
+        // Rychlé změny za sebou se tak sloučí do jednoho výpočtu.
+        recalculationTimer = new Timer(RECALCULATION_DELAY_MS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                calculateSchedule(false);
+            }
+        });
+        recalculationTimer.setRepeats(false);
+
+        // Změna kteréhokoli vstupu zruší rozpracovaný výpočet, jehož výsledek by už neodpovídal zadání
+        DocumentListener inputChangeListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                inputChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                inputChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                inputChanged();
+            }
+        };
+        principalField.getDocument().addDocumentListener(inputChangeListener);
+        interestRateField.getDocument().addDocumentListener(inputChangeListener);
+        loanTermField.getDocument().addDocumentListener(inputChangeListener);
+
         // Panel pro zobrazení souhrnných výsledků (pravidelná splátka, celkem zaplaceno, úroky)
         JPanel summaryPanel = new JPanel(new GridLayout(3, 1, 5, 5));
         summaryPanel.setBorder(BorderFactory.createTitledBorder("Výsledek"));
@@ -101,7 +164,8 @@ public class LoanCalculatorUI extends JFrame {
         calculateButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                calculateSchedule();
+                recalculationTimer.stop();
+                calculateSchedule(true);
             }
         });
         buttonPanel.add(calculateButton);
@@ -116,9 +180,8 @@ public class LoanCalculatorUI extends JFrame {
         });
         buttonPanel.add(exportButton);
 
-        // Tabulka splátkového kalendáře
-        String[] columnNames = { "Měsíc", "Jistina", "Úrok", "Celkem", "Zbývá" };
-        tableModel = new DefaultTableModel(columnNames, 0);
+        // Tabulka splátkového kalendáře; buňky se formátují až při vykreslení
+        tableModel = new ScheduleTableModel();
         paymentTable = new JTable(tableModel);
         JScrollPane scrollPane = new JScrollPane(paymentTable); // Scrollbar pro tabulku
 
@@ -130,120 +193,125 @@ public class LoanCalculatorUI extends JFrame {
     }
 
     /**
-     * Vypočítá splátkový kalendář na základě uživatelského vstupu
-     * a aktualizuje tabulku a souhrnné informace.
+     * Zkontroluje uživatelský vstup a spustí výpočet splátkového kalendáře na pozadí.
+     * Tabulka a souhrnné informace se aktualizují, až výpočet doběhne.
+     *
+     * @param interactive true při stisku tlačítka (chyby se zobrazí v dialogu),
+     *                    false při automatickém přepočtu (neplatný vstup se tiše přeskočí).
      */
-    private void calculateSchedule() {
+    private void calculateSchedule(boolean interactive) {
         try {
             // Získání a parsování vstupních dat z textových polí
             BigDecimal principal = new BigDecimal(principalField.getText());
             BigDecimal annualInterestRate = new BigDecimal(interestRateField.getText());
             int loanTermMonths = Integer.parseInt(loanTermField.getText());
 
-            // --- Validace vstupních dat ---
-            if (principal.compareTo(BigDecimal.ZERO) <= 0) {
-                JOptionPane.showMessageDialog(this, "Výše úvěru musí být kladné číslo.", "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
+            // Validace vstupních dat; stejná pravidla platí pro všechny vstupy aplikace
+            try {
+                LoanSpec.validate(principal, annualInterestRate, loanTermMonths);
+            } catch (IllegalArgumentException e) {
+                showInputError(e.getMessage(), interactive);
                 return;
             }
 
-            if (loanTermMonths <= 0) {
-                JOptionPane.showMessageDialog(this, "Doba splácení musí být kladné číslo v měsících.", "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            if (loanTermMonths > 1200) { // Maximální doba splácení 100 let (1200 měsíců)
-                JOptionPane.showMessageDialog(this, "Doba splácení nesmí přesáhnout 1200 měsíců (100 let).", "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+            // Výpočet běží mimo EDT; předchozí, ještě neskončený výpočet se zruší
+            cancelCalculation();
+            calculationWorker = new CalculationWorker(principal, annualInterestRate, loanTermMonths, interactive);
+            calculationWorker.execute();
 
-            // Ponecháváme stávající ošetření záporných sazeb a přidáme horní limit
-            if (annualInterestRate.compareTo(new BigDecimal("-100")) < 0) {
-                JOptionPane.showMessageDialog(this, "Roční úroková sazba nesmí být menší než -100%.", "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            if (annualInterestRate.compareTo(new BigDecimal("1000")) > 0) { // Příklad horního limitu 1000%
-                JOptionPane.showMessageDialog(this, "Roční úroková sazba nesmí přesáhnout 1000%.", "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-            // --- Konec validace ---
-
-            // Generování splátkového kalendáře pomocí LoanCalculator
-            List<Payment> schedule = LoanCalculator.generatePaymentSchedule(principal, annualInterestRate,
-                    loanTermMonths);
+        } catch (NumberFormatException e) {
+            // Zobrazení chybové zprávy, pokud je vstup neplatný
+            showInputError("Chybný vstup: Zadejte platná čísla pro výši úvěru, úrokovou sazbu a dobu splácení.\n(Použijte tečku jako desetinný oddělovač, např. 5.0)",
+                    interactive);
+        }
+    }
 
-            // Vymazání stávajících dat z tabulky
-            tableModel.setRowCount(0);
+    /**
+     * Zobrazí chybu vstupu; při automatickém přepočtu během psaní se chyba nezobrazuje.
+     */
+    private void showInputError(String message, boolean interactive) {
+        if (interactive) {
+            JOptionPane.showMessageDialog(this, message, "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-            BigDecimal totalInterest = BigDecimal.ZERO;
-            BigDecimal totalPrincipalPaid = BigDecimal.ZERO;
-            BigDecimal monthlyPayment = BigDecimal.ZERO;
+    /**
+     * Reakce na změnu vstupu: zruší rozpracovaný výpočet a odloží nový.
+     */
+    private void inputChanged() {
+        cancelCalculation();
+        recalculationTimer.restart();
+    }
 
-            // Získání měsíční splátky z prvního záznamu (pokud existuje)
-            if (!schedule.isEmpty()) {
-                monthlyPayment = schedule.get(0).getTotalPayment();
-            }
+    /**
+     * Zruší rozpracovaný výpočet; jeho výsledek se už nezobrazí.
+     */
+    private void cancelCalculation() {
+        if (calculationWorker != null) {
+            calculationWorker.cancel(true);
+            calculationWorker = null;
+        }
+    }
 
-            // Přidání nových dat do tabulky a výpočet celkových úroků a zaplacené jistiny
-            for (Payment payment : schedule) {
-                tableModel.addRow(new Object[]{
-                    payment.getMonthNumber(),
-                    NumberFormatter.format(payment.getPrincipalPaid()),
-                    NumberFormatter.format(payment.getInterestPaid()),
-                    NumberFormatter.format(payment.getTotalPayment()),
-                    NumberFormatter.format(payment.getRemainingBalance())
-                });
-                totalInterest = totalInterest.add(payment.getInterestPaid());
-                totalPrincipalPaid = totalPrincipalPaid.add(payment.getPrincipalPaid());
-            }
+    /**
+     * Zobrazí spočítaný kalendář: tabulku, souhrnné popisky i graf nastaví najednou
+     * v jednom průchodu EDT, takže se překreslí společně.
+     *
+     * @param schedule Spočítaný splátkový kalendář.
+     */
+    void showSchedule(ScheduleTable schedule) {
+        // Tabulka dostane událost jen pro změněné řádky, ty se formátují až při vykreslení
+        tableModel.setSchedule(schedule);
 
-            // Výpočet celkové zaplacené částky
-            BigDecimal totalPaid = monthlyPayment.multiply(new BigDecimal(loanTermMonths));
+        // Souhrnné údaje jsou spočítané už v kalendáři
+        LoanSummary summary = schedule.getSummary();
+        showSummary(summary);
 
-            // Aktualizace popisků se souhrnnými výsledky
-            regularPaymentLabel.setText("Pravidelná splátka: " + NumberFormatter.formatCurrency(monthlyPayment));
-            totalPaidLabel.setText("Celkem zaplaceno: " + NumberFormatter.formatCurrency(totalPaid));
-            totalInterestLabel.setText("Zaplacené úroky: " + NumberFormatter.formatCurrency(totalInterest));
+        // Aktualizace koláčového grafu
+        updatePieChart(summary.getPrincipalAmount(), summary.getTotalInterestAmount());
+    }
 
-            // Aktualizace koláčového grafu
-            updatePieChart(totalPrincipalPaid, totalInterest);
+    /**
+     * Nastaví popisky se souhrnnými výsledky ve vybrané měně.
+     */
+    private void showSummary(LoanSummary summary) {
+        CurrencyFormat currencyFormat = tableModel.getCurrencyFormat();
+        regularPaymentLabel.setText("Pravidelná splátka: "
+                + currencyFormat.formatCurrencyMinorUnits(summary.getMonthlyPayment()));
+        totalPaidLabel.setText("Celkem zaplaceno: " + currencyFormat.formatCurrencyMinorUnits(summary.getTotalPaid()));
+        totalInterestLabel.setText("Zaplacené úroky: "
+                + currencyFormat.formatCurrencyMinorUnits(summary.getTotalInterest()));
+    }
 
-        } catch (NumberFormatException e) {
-            // Zobrazení chybové zprávy, pokud je vstup neplatný
-            JOptionPane.showMessageDialog(this,
-                    "Chybný vstup: Zadejte platná čísla pro výši úvěru, úrokovou sazbu a dobu splácení.\n(Použijte tečku jako desetinný oddělovač, např. 5.0)",
-                    "Chyba vstupu", JOptionPane.ERROR_MESSAGE);
+    /**
+     * Reakce na změnu měny: tabulka i souhrn se jen znovu naformátují.
+     */
+    private void currencyChanged() {
+        tableModel.setCurrencyFormat((CurrencyFormat) currencyComboBox.getSelectedItem());
+        ScheduleTable schedule = tableModel.getSchedule();
+        if (schedule != null) {
+            showSummary(schedule.getSummary());
         }
     }
 
     /**
      * Aktualizuje koláčový graf zobrazující rozdělení jistiny a úroků.
+     * Graf se vytvoří při prvním volání, poté se jen mění hodnoty v jeho datové sadě.
      *
      * @param principalAmount Celková zaplacená jistina.
      * @param interestAmount  Celkové zaplacené úroky.
      */
     private void updatePieChart(BigDecimal principalAmount, BigDecimal interestAmount) {
-        // Vytvoření datové sady pro koláčový graf
-        DefaultPieDataset dataset = new DefaultPieDataset();
-        dataset.setValue("Jistina", principalAmount);
-        dataset.setValue("Úroky", interestAmount);
-
-        // Vytvoření koláčového grafu pomocí ChartFactory
-        JFreeChart chart = ChartFactory.createPieChart(
-                "Rozdělení celkových splátek", // Název grafu
-                dataset, // Data
-                true, // Zobrazit legendu
-                true, // Zobrazit tooltips
-                false // Nezobrazovat URL
-        );
-
-        // Vytvoření panelu pro zobrazení grafu
-        ChartPanel chartPanel = new ChartPanel(chart);
-
-        // Odebrání starého grafu a přidání nového do kontejneru
-        chartPanelContainer.removeAll();
-        chartPanelContainer.add(chartPanel, BorderLayout.CENTER);
-        // Překreslení kontejneru, aby se zobrazil nový graf
-        chartPanelContainer.revalidate();
-        chartPanelContainer.repaint();
+        if (pieChart == null) {
+            // Vytvoření grafu a jeho vložení do kontejneru
+            pieChart = new PaymentPieChart(principalAmount, interestAmount);
+            chartPanelContainer.add(pieChart.getPanel(), BorderLayout.CENTER);
+            chartPanelContainer.revalidate();
+            chartPanelContainer.repaint();
+            return;
+        }
+
+        pieChart.update(principalAmount, interestAmount);
     }
 
     /**
@@ -295,13 +363,12 @@ public class LoanCalculatorUI extends JFrame {
                 BigDecimal annualInterestRate = new BigDecimal(interestRateField.getText());
                 int loanTermMonths = Integer.parseInt(loanTermField.getText());
 
-                // Znovu vygenerování splátkového kalendáře pro export (pro zajištění aktuálnosti dat)
-                List<Payment> schedule = LoanCalculator.generatePaymentSchedule(principal, annualInterestRate,
-                        loanTermMonths);
+                // Kalendář zobrazený v tabulce je obvykle v cache, takže se nepočítá znovu
+                ScheduleTable schedule = scheduleCache.getSchedule(principal, annualInterestRate, loanTermMonths);
 
                 // Export kalendáře do CSV souboru s metadata
                 CsvExporter.exportScheduleToCsv(schedule, filePath, principal, annualInterestRate, loanTermMonths,
-                        selectedDelimiter);
+                        selectedDelimiter, tableModel.getCurrencyFormat().getCurrency());
 
                 JOptionPane.showMessageDialog(this, "Splátkový kalendář byl úspěšně exportován do souboru " + filePath,
                         "Export úspěšný", JOptionPane.INFORMATION_MESSAGE);
@@ -309,11 +376,63 @@ public class LoanCalculatorUI extends JFrame {
                 // Zobrazení chybové zprávy při problémech s exportem
                 JOptionPane.showMessageDialog(this, "Chyba při exportu do CSV: " + e.getMessage(), "Chyba exportu",
                         JOptionPane.ERROR_MESSAGE);
-            } catch (NumberFormatException e) {
+            } catch (NumberFormatException | ArithmeticException e) {
                 // Zobrazení chybové zprávy při neplatném formátu čísel
                 JOptionPane.showMessageDialog(this, "Chyba při čtení dat pro export. Zkontrolujte vstupní pole.",
                         "Chyba", JOptionPane.ERROR_MESSAGE);
             }
         }
     }
+
+    /**
+     * Výpočet kalendáře ve vlákně na pozadí. Výsledek se zobrazí v EDT, jen pokud mezitím
+     * nebyl výpočet zrušen ani nahrazen novějším.
+     */
+    private class CalculationWorker extends SwingWorker<ScheduleTable, Void> {
+        private final BigDecimal principal;
+        private final BigDecimal annualInterestRate;
+        private final int loanTermMonths;
+        // Zda se má chyba výpočtu zobrazit v dialogu
+        private final boolean interactive;
+        // Zda se má spolu s výpočtem načíst knihovna grafů (graf ještě neexistuje)
+        private final boolean preloadChart;
+
+        CalculationWorker(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths,
+                boolean interactive) {
+            this.principal = principal;
+            this.annualInterestRate = annualInterestRate;
+            this.loanTermMonths = loanTermMonths;
+            this.interactive = interactive;
+            this.preloadChart = pieChart == null;
+        }
+
+        @Override
+        protected ScheduleTable doInBackground() {
+            if (preloadChart) {
+                // Při prvním výpočtu se JFreeChart načte mimo EDT; graf se pak v EDT vytvoří hned
+                PaymentPieChart.preload();
+            }
+            // Splátkový kalendář z cache (při prvním dotazu se vygeneruje)
+            return scheduleCache.getSchedule(principal, annualInterestRate, loanTermMonths);
+        }
+
+        @Override
+        protected void done() {
+            if (calculationWorker != this || isCancelled()) {
+                return; // Zastaralý výsledek
+            }
+            calculationWorker = null;
+            try {
+                showSchedule(get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (!interactive) {
+                    return; // Při automatickém přepočtu se chyba nezobrazuje
+                }
+                JOptionPane.showMessageDialog(LoanCalculatorUI.this, "Výpočet se nezdařil: " + e.getCause().getMessage(),
+                        "Chyba výpočtu", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
 }
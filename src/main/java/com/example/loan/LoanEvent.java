@@ -0,0 +1,144 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Neměnná událost v průběhu úvěru: změna sazby (např. při refixaci) nebo mimořádná splátka.
+ * Událost se uplatní na začátku zadaného měsíce, tedy už úrok tohoto měsíce se počítá
+ * z nové sazby nebo ze zůstatku sníženého o mimořádnou splátku.
+ * Po události se přepočítá buď pravidelná splátka (doba splácení zůstane), nebo doba
+ * splácení (splátka zůstane).
+ */
+public class LoanEvent {
+
+    /**
+     * Druh události.
+     */
+    public enum Type {
+        // Nová roční sazba od zadaného měsíce
+        RATE_CHANGE,
+        // Mimořádná splátka jistiny
+        PREPAYMENT
+    }
+
+    /**
+     * Co se po události přepočítá.
+     */
+    public enum Recalculation {
+        // Nová výše splátky, konec splácení zůstane stejný
+        PAYMENT,
+        // Nový konec splácení, výše splátky zůstane stejná
+        TERM
+    }
+
+    private final Type type;
+    // Měsíc, od jehož začátku událost platí (od 1)
+    private final int month;
+    // Roční sazba v procentech u změny sazby, částka u mimořádné splátky
+    private final BigDecimal value;
+    // Měsíční sazba v měřítku RATE_ONE, nebo částka v haléřích
+    private final long fixedPointValue;
+    private final Recalculation recalculation;
+
+    private LoanEvent(Type type, int month, BigDecimal value, long fixedPointValue, Recalculation recalculation) {
+        if (month <= 0) {
+            throw new IllegalArgumentException("Měsíc události musí být kladný: " + month);
+        }
+        this.type = type;
+        this.month = month;
+        this.value = value;
+        this.fixedPointValue = fixedPointValue;
+        this.recalculation = Objects.requireNonNull(recalculation, "recalculation");
+    }
+
+    /**
+     * Změna roční úrokové sazby od zadaného měsíce.
+     *
+     * @param month Měsíc, od kterého nová sazba platí (od 1).
+     * @param annualInterestRate Nová roční úroková sazba v procentech.
+     * @param recalculation Zda se přepočítá splátka, nebo doba splácení.
+     * @return Událost.
+     */
+    public static LoanEvent rateChange(int month, BigDecimal annualInterestRate, Recalculation recalculation) {
+        return new LoanEvent(Type.RATE_CHANGE, month, annualInterestRate,
+                FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), recalculation);
+    }
+
+    /**
+     * Mimořádná splátka jistiny na začátku zadaného měsíce. Částka vyšší než zůstatek úvěr doplatí.
+     *
+     * @param month Měsíc mimořádné splátky (od 1).
+     * @param amount Kladná částka s nejvýše dvěma desetinnými místy.
+     * @param recalculation Zda se přepočítá splátka, nebo doba splácení.
+     * @return Událost.
+     */
+    public static LoanEvent prepayment(int month, BigDecimal amount, Recalculation recalculation) {
+        long minorUnits = FixedPointLoanCalculator.toMinorUnits(amount);
+        if (minorUnits <= 0) {
+            throw new IllegalArgumentException("Mimořádná splátka musí být kladná: " + amount);
+        }
+        return new LoanEvent(Type.PREPAYMENT, month, amount, minorUnits, recalculation);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public Recalculation getRecalculation() {
+        return recalculation;
+    }
+
+    /**
+     * @return Roční sazba v procentech (změna sazby), nebo částka (mimořádná splátka).
+     */
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    /**
+     * @return Nová měsíční sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE} (jen u změny sazby).
+     */
+    long getMonthlyRate() {
+        return fixedPointValue;
+    }
+
+    /**
+     * @return Částka mimořádné splátky v haléřích (jen u mimořádné splátky).
+     */
+    long getAmount() {
+        return fixedPointValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LoanEvent)) {
+            return false;
+        }
+        LoanEvent other = (LoanEvent) o;
+        return type == other.type && month == other.month && fixedPointValue == other.fixedPointValue
+                && recalculation == other.recalculation;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, month, fixedPointValue, recalculation);
+    }
+
+    @Override
+    public String toString() {
+        return "LoanEvent{" +
+               "type=" + type +
+               ", month=" + month +
+               ", value=" + value +
+               ", recalculation=" + recalculation +
+               '}';
+    }
+}
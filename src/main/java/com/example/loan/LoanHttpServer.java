@@ -0,0 +1,410 @@
+package com.example.loan;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Výpočetní služba bez grafického rozhraní nad HTTP serverem z JDK.
+ * Nabízí endpointy (jen GET, parametry principal, rate a term v query stringu):
+ * <ul>
+ *     <li>{@code /payment} – pravidelná měsíční splátka (JSON),</li>
+ *     <li>{@code /summary} – splátka, celkem zaplaceno a úroky bez kalendáře (JSON),</li>
+ *     <li>{@code /schedule} – splátkový kalendář (JSON, posílá se průběžně po částech), volitelnými
+ *         parametry from a to lze omezit rozsah měsíců,</li>
+ *     <li>{@code /csv} – kalendář ve formátu exportu do CSV, volitelné parametry delimiter a currency
+ *         (kód měny s formátem v {@link CurrencyFormat}, výchozí CZK),</li>
+ *     <li>{@code /metrics} – počty požadavků a percentily doby odezvy pro každý endpoint (text),
+ *         se zapnutými {@link LoanMetrics} i přehled metrik výpočtů a exportů.</li>
+ * </ul>
+ * Každý požadavek běží ve vlastním virtuálním vlákně, pokud je JVM podporuje (Java 21+);
+ * na starších JVM se použije pool běžných vláken. Třída nepoužívá Swing ani JFreeChart,
+ * takže se v režimu serveru nenačtou.
+ */
+public class LoanHttpServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+    // Nejdelší povolená doba splácení, aby jeden požadavek nemohl vygenerovat libovolně velký kalendář
+    public static final int MAX_LOAN_TERM_MONTHS = LoanSpec.MAX_LOAN_TERM_MONTHS;
+
+    // Velikost bufferu pro průběžné odesílání kalendáře
+    private static final int STREAM_BUFFER_SIZE = 16 * 1024;
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXT = "text/plain; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    // Doby odezvy v mikrosekundách podle endpointu (mapa se po vytvoření nemění)
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+    /**
+     * Vytvoří server naslouchající na zadaném portu; požadavky začne přijímat až po {@link #start()}.
+     *
+     * @param port Port (0 znamená libovolný volný port).
+     * @throws IOException Pokud se nepodaří otevřít port.
+     */
+    public LoanHttpServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+
+        register("/payment", this::handlePayment);
+        register("/summary", this::handleSummary);
+        register("/schedule", this::handleSchedule);
+        register("/csv", this::handleCsv);
+        server.createContext("/metrics", exchange -> {
+            try {
+                if (checkGet(exchange)) {
+                    sendText(exchange, 200, TEXT, formatMetrics());
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    /**
+     * Spustí přijímání požadavků.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return Port, na kterém server naslouchá.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @param path Cesta endpointu, např. "/payment".
+     * @return Histogram doby odezvy endpointu v mikrosekundách, nebo null pro neznámou cestu.
+     */
+    public LatencyHistogram getLatency(String path) {
+        return latencies.get(path);
+    }
+
+    /**
+     * Zastaví server a ukončí vlákna pro obsluhu požadavků.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Zaregistruje endpoint; doba obsluhy každého požadavku se zaznamená do jeho histogramu.
+     */
+    private void register(String path, Handler handler) {
+        LatencyHistogram latency = new LatencyHistogram();
+        latencies.put(path, latency);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            try {
+                if (checkGet(exchange)) {
+                    handler.handle(exchange, parseLoan(exchange));
+                }
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                // Chybné zadání (včetně NumberFormatException) – odpověď ještě nezačala
+                sendText(exchange, 400, TEXT, "Chybné zadání: " + e.getMessage() + "\n");
+            } finally {
+                exchange.close();
+                latency.record((System.nanoTime() - start) / 1000);
+            }
+        });
+    }
+
+    private void handlePayment(HttpExchange exchange, LoanSpec loan) throws IOException {
+        long payment = AnnuityFactorTable.standard().calculateMonthlyPayment(loan.getPrincipalMinorUnits(),
+                loan.getMonthlyRate(), loan.getLoanTermMonths());
+        sendText(exchange, 200, JSON,
+                "{\"monthlyPayment\":" + FixedPointLoanCalculator.toBigDecimal(payment).toPlainString() + "}");
+    }
+
+    private void handleSummary(HttpExchange exchange, LoanSpec loan) throws IOException {
+        LoanSummary summary = LoanSummary.calculate(loan);
+        sendText(exchange, 200, JSON, "{\"principal\":" + summary.getPrincipalAmount().toPlainString()
+                + ",\"annualInterestRate\":" + loan.getAnnualInterestRate().toPlainString()
+                + ",\"loanTermMonths\":" + loan.getLoanTermMonths()
+                + ",\"monthlyPayment\":" + summary.getMonthlyPaymentAmount().toPlainString()
+                + ",\"totalPaid\":" + summary.getTotalPaidAmount().toPlainString()
+                + ",\"totalInterest\":" + summary.getTotalInterestAmount().toPlainString() + "}");
+    }
+
+    /**
+     * Kalendář se posílá chunked kódováním: řádky se formátují přímo z výpočtu do bufferu
+     * a ten se odešle pokaždé, když se zaplní, takže se celý kalendář nikdy nedrží v paměti.
+     * Rozsah měsíců from–to se počítá přes {@link LazySchedule}, takže se měsíce před ním
+     * negenerují; celkové úroky jsou i pak za celý úvěr.
+     */
+    private void handleSchedule(HttpExchange exchange, LoanSpec loan) throws IOException {
+        Map<String, String> query = parseQuery(exchange);
+        int term = loan.getLoanTermMonths();
+        int from = parseMonth(query, "from", 1, term);
+        int to = parseMonth(query, "to", term, term);
+        if (from > to) {
+            throw new IllegalArgumentException("Neplatný rozsah měsíců: " + from + "–" + to + ".");
+        }
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        JsonScheduleWriter writer = new JsonScheduleWriter(exchange.getResponseBody());
+        try {
+            writer.begin();
+            if (from == 1 && to == term) {
+                long payment = FixedPointLoanCalculator.generatePaymentSchedule(loan.getPrincipalMinorUnits(),
+                        loan.getMonthlyRate(), term, writer);
+                writer.finish(payment);
+            } else {
+                LazySchedule schedule = LazySchedule.of(loan);
+                schedule.forEach(from - 1, to, writer);
+                writer.finish(schedule.getMonthlyPayment(), FixedPointLoanCalculator.calculateTotalInterest(
+                        loan.getPrincipalMinorUnits(), loan.getMonthlyRate(), term, schedule.getMonthlyPayment()));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void handleCsv(HttpExchange exchange, LoanSpec loan) throws IOException {
+        String delimiter = parseQuery(exchange).getOrDefault("delimiter", ";");
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Oddělovač nesmí být prázdný.");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/csv; charset=utf-8");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"splatkovy_kalendar.csv\"");
+        exchange.sendResponseHeaders(200, 0);
+        new CsvStreamWriter(delimiter).write(loan, Channels.newChannel(exchange.getResponseBody()));
+    }
+
+    /**
+     * Sestaví textový přehled: pro každý endpoint počet požadavků, průměr, percentily a maximum v µs.
+     */
+    private String formatMetrics() {
+        StringBuilder text = new StringBuilder(512);
+        text.append("# endpoint count mean_us p50_us p90_us p99_us p999_us max_us\n");
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram latency = entry.getValue();
+            text.append(entry.getKey())
+                    .append(' ').append(latency.getCount())
+                    .append(' ').append(Math.round(latency.getMean()))
+                    .append(' ').append(latency.getValueAtPercentile(50))
+                    .append(' ').append(latency.getValueAtPercentile(90))
+                    .append(' ').append(latency.getValueAtPercentile(99))
+                    .append(' ').append(latency.getValueAtPercentile(99.9))
+                    .append(' ').append(latency.getMax())
+                    .append('\n');
+        }
+        if (LoanMetrics.isEnabled()) {
+            text.append(LoanMetrics.dump());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Načte zadání úvěru z parametrů principal, rate, term a nepovinného currency.
+     * Zadání se kontroluje stejně jako v okně aplikace ({@link LoanSpec#validate}); chybné
+     * zadání skončí odpovědí 400.
+     */
+    private static LoanSpec parseLoan(HttpExchange exchange) {
+        Map<String, String> query = parseQuery(exchange);
+        BigDecimal principal = new BigDecimal(requireParameter(query, "principal"));
+        BigDecimal annualInterestRate = new BigDecimal(requireParameter(query, "rate"));
+        int loanTermMonths = Integer.parseInt(requireParameter(query, "term"));
+        LoanSpec.validate(principal, annualInterestRate, loanTermMonths);
+        String currencyCode = query.get("currency");
+        Currency currency = currencyCode == null || currencyCode.isEmpty() ? CurrencyFormat.CZK.getCurrency()
+                : CurrencyFormat.forCode(currencyCode).getCurrency();
+        return new LoanSpec(null, principal, annualInterestRate, loanTermMonths, currency);
+    }
+
+    /**
+     * Načte nepovinné číslo měsíce (od 1 do doby splácení).
+     */
+    private static int parseMonth(Map<String, String> query, String name, int defaultValue, int loanTermMonths) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        int month = Integer.parseInt(value);
+        if (month < 1 || month > loanTermMonths) {
+            throw new IllegalArgumentException("Parametr " + name + " musí být mezi 1 a " + loanTermMonths + ".");
+        }
+        return month;
+    }
+
+    private static String requireParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Chybí parametr " + name + ".");
+        }
+        return value;
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Povolí jen metodu GET; na ostatní odpoví 405.
+     */
+    private static boolean checkGet(HttpExchange exchange) throws IOException {
+        if ("GET".equals(exchange.getRequestMethod())) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET");
+        sendText(exchange, 405, TEXT, "Podporována je jen metoda GET.\n");
+        return false;
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Vlákno na požadavek: virtuální vlákna, pokud je JVM nabízí (hledá se reflexí, aby kód
+     * šel přeložit pro Javu 11), jinak pool běžných démonických vláken vytvářených podle potřeby.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "loan-http-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Obsluha endpointu s již načteným zadáním úvěru.
+     */
+    private interface Handler {
+        void handle(HttpExchange exchange, LoanSpec loan) throws IOException;
+    }
+
+    /**
+     * Zápis kalendáře jako JSON přímo z výpočtu do výstupního proudu přes pevný buffer.
+     * Chyba zápisu se z {@link #accept} hlásí jako UncheckedIOException.
+     */
+    private static class JsonScheduleWriter implements PaymentConsumer {
+        private static final byte[] ROW_START = bytes("{\"month\":");
+        private static final byte[] PRINCIPAL = bytes(",\"principal\":");
+        private static final byte[] INTEREST = bytes(",\"interest\":");
+        private static final byte[] TOTAL = bytes(",\"total\":");
+        private static final byte[] REMAINING = bytes(",\"remaining\":");
+        // Nejdelší řádek: klíče, pět čísel a oddělovače
+        private static final int MAX_ROW_LENGTH = 64 + 5 * CsvRowFormat.MAX_NUMBER_LENGTH;
+
+        private final OutputStream out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+        private long totalInterest;
+        private boolean empty = true;
+
+        JsonScheduleWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void begin() {
+            buffer.put(bytes("{\"payments\":["));
+        }
+
+        @Override
+        public void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment,
+                long remainingBalance) {
+            if (buffer.remaining() < MAX_ROW_LENGTH) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (!empty) {
+                buffer.put((byte) ',');
+            }
+            empty = false;
+            // U extrémních jistin součet přeteče; odpověď se pak přeruší místo odeslání chybného součtu
+            totalInterest = Math.addExact(totalInterest, interestPaid);
+            buffer.put(ROW_START);
+            CsvRowFormat.putLong(buffer, monthNumber);
+            buffer.put(PRINCIPAL);
+            CsvRowFormat.putAmount(buffer, principalPaid);
+            buffer.put(INTEREST);
+            CsvRowFormat.putAmount(buffer, interestPaid);
+            buffer.put(TOTAL);
+            CsvRowFormat.putAmount(buffer, totalPayment);
+            buffer.put(REMAINING);
+            CsvRowFormat.putAmount(buffer, remainingBalance);
+            buffer.put((byte) '}');
+        }
+
+        /**
+         * Uzavře pole splátek, připojí souhrn s úroky sečtenými z odeslaných řádků
+         * a odešle zbytek bufferu.
+         */
+        void finish(long monthlyPayment) throws IOException {
+            finish(monthlyPayment, totalInterest);
+        }
+
+        /**
+         * Uzavře pole splátek, připojí souhrn a odešle zbytek bufferu.
+         */
+        void finish(long monthlyPayment, long totalInterest) throws IOException {
+            if (buffer.remaining() < MAX_ROW_LENGTH) {
+                flush();
+            }
+            buffer.put(bytes("],\"monthlyPayment\":"));
+            CsvRowFormat.putAmount(buffer, monthlyPayment);
+            buffer.put(bytes(",\"totalInterest\":"));
+            CsvRowFormat.putAmount(buffer, totalInterest);
+            buffer.put((byte) '}');
+            flush();
+        }
+
+        private void flush() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+
+        private static byte[] bytes(String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
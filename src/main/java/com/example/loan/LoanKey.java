@@ -0,0 +1,62 @@
+package com.example.loan;
+
+/**
+ * Normalizovaný klíč úvěru pro cache. Úvěr je určen výší v haléřích, měsíční sazbou
+ * a dobou splácení, takže zadání 5.0 a 5.00 (nebo 100000 a 100000.00) dávají stejný klíč.
+ */
+final class LoanKey {
+    private final long principal;
+    private final long monthlyRate;
+    private final int loanTermMonths;
+
+    LoanKey(long principal, long monthlyRate, int loanTermMonths) {
+        this.principal = principal;
+        this.monthlyRate = monthlyRate;
+        this.loanTermMonths = loanTermMonths;
+    }
+
+    static LoanKey of(LoanSpec loan) {
+        return new LoanKey(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(), loan.getLoanTermMonths());
+    }
+
+    long getPrincipal() {
+        return principal;
+    }
+
+    long getMonthlyRate() {
+        return monthlyRate;
+    }
+
+    int getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LoanKey)) {
+            return false;
+        }
+        LoanKey other = (LoanKey) o;
+        return principal == other.principal && monthlyRate == other.monthlyRate
+                && loanTermMonths == other.loanTermMonths;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(principal);
+        result = 31 * result + Long.hashCode(monthlyRate);
+        return 31 * result + loanTermMonths;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanKey{" +
+               "principal=" + principal +
+               ", monthlyRate=" + monthlyRate +
+               ", loanTermMonths=" + loanTermMonths +
+               '}';
+    }
+}
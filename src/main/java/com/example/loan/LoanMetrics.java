@@ -0,0 +1,433 @@
+package com.example.loan;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metriky výpočtů a exportů: čítače a histogramy doby trvání pro výpočet splátky,
+ * generování kalendáře (zvlášť podle doby splácení), export do CSV, dávkové výpočty
+ * a statistiky zaregistrovaných cache a front výpočtů.
+ * <p>
+ * Metriky se zapínají systémovou vlastností {@code -Dloan.metrics=true} při spuštění JVM.
+ * Přepínač je konstanta, takže při vypnutých metrikách JIT měřicí kód z hot path úplně
+ * odstraní. Se zapnutými metrikami se navíc zaregistruje MBean {@value #OBJECT_NAME}
+ * a zapisují se JFR události {@link ScheduleGenerationEvent} a {@link CsvExportEvent}
+ * (zaznamenají se, jen pokud je zapnutý JFR záznam).
+ * <p>
+ * Doby trvání jsou v nanosekundách. Přehled v textové podobě vrací {@link #dump()}.
+ */
+public final class LoanMetrics {
+
+    // Systémová vlastnost, která metriky zapíná
+    public static final String ENABLED_PROPERTY = "loan.metrics";
+    // Jméno MBeanu s metrikami
+    public static final String OBJECT_NAME = "com.example.loan:type=LoanMetrics";
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    // Horní meze skupin podle doby splácení v měsících; poslední skupina je nad 480 měsíců
+    private static final int[] TERM_BUCKET_LIMITS = { 60, 120, 240, 360, 480 };
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+        }
+    }
+
+    private LoanMetrics() {
+    }
+
+    /**
+     * @return true, pokud byly metriky zapnuty při spuštění JVM.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Zaznamená jeden výpočet splátky.
+     *
+     * @param nanos Doba výpočtu v nanosekundách.
+     */
+    static void recordPayment(long nanos) {
+        Registry.paymentCalculations.record(nanos);
+    }
+
+    /**
+     * Zaznamená splátku, kterou bylo nutné dopočítat přesně přes BigDecimal.
+     */
+    static void recordExactPayment() {
+        Registry.exactPayments.increment();
+    }
+
+    /**
+     * Zaznamená vygenerovaný kalendář do skupiny podle doby splácení.
+     *
+     * @param loanTermMonths Doba splácení v měsících (počet řádků).
+     * @param nanos Doba generování včetně zpracování řádků příjemcem v nanosekundách.
+     */
+    static void recordSchedule(int loanTermMonths, long nanos) {
+        Registry.scheduleGenerations[termBucket(loanTermMonths)].record(nanos);
+        Registry.scheduleRows.add(loanTermMonths);
+    }
+
+    /**
+     * Zahájí měření exportu do CSV.
+     *
+     * @return JFR událost exportu se zaznamenaným začátkem.
+     */
+    static CsvExportEvent beginExport() {
+        CsvExportEvent event = new CsvExportEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Zaznamená dokončený export do CSV a zapíše jeho JFR událost.
+     *
+     * @param event Událost z {@link #beginExport()}.
+     * @param kind Druh exportu, např. "schedule".
+     * @param rows Počet zapsaných řádků s daty.
+     * @param bytes Počet zapsaných bajtů.
+     * @param startNanos Hodnota {@link System#nanoTime()} na začátku exportu.
+     */
+    static void recordExport(CsvExportEvent event, String kind, long rows, long bytes, long startNanos) {
+        Registry.exports.record(System.nanoTime() - startNanos);
+        Registry.exportedRows.add(rows);
+        Registry.exportedBytes.add(bytes);
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.rows = rows;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Zaznamená jeden dávkový výpočet.
+     *
+     * @param loans Počet úvěrů v dávce.
+     * @param nanos Doba výpočtu dávky v nanosekundách.
+     */
+    static void recordBatch(int loans, long nanos) {
+        Registry.batches.record(nanos);
+        Registry.batchLoans.add(loans);
+    }
+
+    /**
+     * Zaregistruje cache, jejíž statistiky se mají objevit v přehledu. Při vypnutých metrikách
+     * nedělá nic. Zaregistrovaná cache zůstane dosažitelná po celou dobu běhu JVM.
+     *
+     * @param name Název cache v přehledu (stejný název nahradí dříve zaregistrovanou cache).
+     * @param cache Cache kalendářů a souhrnů.
+     */
+    public static void registerCache(String name, ScheduleCache cache) {
+        if (ENABLED) {
+            synchronized (Registry.caches) {
+                Registry.caches.put(name, cache);
+            }
+        }
+    }
+
+    /**
+     * Zaregistruje frontu výpočtů, jejíž hloubka, čítače a doba čekání se mají objevit v přehledu.
+     * Při vypnutých metrikách nedělá nic. Zaregistrovaná fronta zůstane dosažitelná po celou
+     * dobu běhu JVM.
+     *
+     * @param name Název fronty v přehledu (stejný název nahradí dříve zaregistrovanou frontu).
+     * @param queue Fronta výpočtů.
+     */
+    public static void registerQueue(String name, CalculationQueue queue) {
+        if (ENABLED) {
+            synchronized (Registry.queues) {
+                Registry.queues.put(name, queue);
+            }
+        }
+    }
+
+    /**
+     * @return Počet výpočtů splátky.
+     */
+    public static long getPaymentCalculations() {
+        return Registry.paymentCalculations.getCount();
+    }
+
+    /**
+     * @return Počet splátek dopočítaných přesně přes BigDecimal.
+     */
+    public static long getExactPayments() {
+        return Registry.exactPayments.sum();
+    }
+
+    /**
+     * @return Počet vygenerovaných kalendářů.
+     */
+    public static long getScheduleGenerations() {
+        long count = 0;
+        for (LatencyHistogram histogram : Registry.scheduleGenerations) {
+            count += histogram.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * @return Počet řádků všech vygenerovaných kalendářů.
+     */
+    public static long getScheduleRows() {
+        return Registry.scheduleRows.sum();
+    }
+
+    /**
+     * @return Počet exportů do CSV.
+     */
+    public static long getExports() {
+        return Registry.exports.getCount();
+    }
+
+    /**
+     * @return Počet exportovaných řádků s daty.
+     */
+    public static long getExportedRows() {
+        return Registry.exportedRows.sum();
+    }
+
+    /**
+     * @return Počet exportovaných bajtů.
+     */
+    public static long getExportedBytes() {
+        return Registry.exportedBytes.sum();
+    }
+
+    /**
+     * @return Počet dávkových výpočtů.
+     */
+    public static long getBatches() {
+        return Registry.batches.getCount();
+    }
+
+    /**
+     * @return Počet úvěrů ve všech dávkách.
+     */
+    public static long getBatchLoans() {
+        return Registry.batchLoans.sum();
+    }
+
+    /**
+     * Vynuluje všechny čítače a histogramy. Zaregistrované cache zůstanou.
+     */
+    public static void reset() {
+        Registry.paymentCalculations.reset();
+        Registry.exactPayments.reset();
+        for (LatencyHistogram histogram : Registry.scheduleGenerations) {
+            histogram.reset();
+        }
+        Registry.scheduleRows.reset();
+        Registry.exports.reset();
+        Registry.exportedRows.reset();
+        Registry.exportedBytes.reset();
+        Registry.batches.reset();
+        Registry.batchLoans.reset();
+    }
+
+    /**
+     * Sestaví textový přehled: histogramy (počet, průměr, percentily a maximum v ns),
+     * čítače a statistiky zaregistrovaných cache, jeden údaj na řádek.
+     *
+     * @return Přehled metrik.
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder(1024);
+        text.append("# metrics ").append(ENABLED ? "enabled" : "disabled").append('\n');
+        text.append("# histogram count mean_ns p50_ns p90_ns p99_ns p999_ns max_ns\n");
+        appendHistogram(text, "payment", Registry.paymentCalculations);
+        for (int i = 0; i < Registry.scheduleGenerations.length; i++) {
+            appendHistogram(text, "schedule{term=" + termBucketLabel(i) + "}", Registry.scheduleGenerations[i]);
+        }
+        appendHistogram(text, "export", Registry.exports);
+        appendHistogram(text, "batch", Registry.batches);
+        text.append("# counter value\n");
+        text.append("payment.exact ").append(getExactPayments()).append('\n');
+        text.append("schedule.rows ").append(getScheduleRows()).append('\n');
+        text.append("export.rows ").append(getExportedRows()).append('\n');
+        text.append("export.bytes ").append(getExportedBytes()).append('\n');
+        text.append("batch.loans ").append(getBatchLoans()).append('\n');
+        synchronized (Registry.caches) {
+            if (!Registry.caches.isEmpty()) {
+                text.append("# cache hits misses evictions size weight hit_rate\n");
+            }
+            for (Map.Entry<String, ScheduleCache> entry : Registry.caches.entrySet()) {
+                appendCache(text, entry.getKey() + ".schedules", entry.getValue().getScheduleStats());
+                appendCache(text, entry.getKey() + ".summaries", entry.getValue().getSummaryStats());
+            }
+        }
+        synchronized (Registry.queues) {
+            if (!Registry.queues.isEmpty()) {
+                text.append("# queue depth in_flight submitted deduplicated failed batches batched_payments"
+                        + " wait_p50_us wait_p99_us wait_max_us\n");
+            }
+            for (Map.Entry<String, CalculationQueue> entry : Registry.queues.entrySet()) {
+                appendQueue(text, entry.getKey(), entry.getValue());
+            }
+        }
+        return text.toString();
+    }
+
+    private static void appendHistogram(StringBuilder text, String name, LatencyHistogram histogram) {
+        text.append(name)
+                .append(' ').append(histogram.getCount())
+                .append(' ').append(Math.round(histogram.getMean()))
+                .append(' ').append(histogram.getValueAtPercentile(50))
+                .append(' ').append(histogram.getValueAtPercentile(90))
+                .append(' ').append(histogram.getValueAtPercentile(99))
+                .append(' ').append(histogram.getValueAtPercentile(99.9))
+                .append(' ').append(histogram.getMax())
+                .append('\n');
+    }
+
+    private static void appendCache(StringBuilder text, String name, CacheStats stats) {
+        text.append(name)
+                .append(' ').append(stats.getHitCount())
+                .append(' ').append(stats.getMissCount())
+                .append(' ').append(stats.getEvictionCount())
+                .append(' ').append(stats.getSize())
+                .append(' ').append(stats.getWeight())
+                .append(' ').append(String.format(Locale.US, "%.4f", stats.getHitRate()))
+                .append('\n');
+    }
+
+    private static void appendQueue(StringBuilder text, String name, CalculationQueue queue) {
+        LatencyHistogram waitTime = queue.getWaitTime();
+        text.append(name)
+                .append(' ').append(queue.getQueueDepth())
+                .append(' ').append(queue.getInFlight())
+                .append(' ').append(queue.getSubmitted())
+                .append(' ').append(queue.getDeduplicated())
+                .append(' ').append(queue.getFailed())
+                .append(' ').append(queue.getPaymentBatches())
+                .append(' ').append(queue.getBatchedPayments())
+                .append(' ').append(waitTime.getValueAtPercentile(50))
+                .append(' ').append(waitTime.getValueAtPercentile(99))
+                .append(' ').append(waitTime.getMax())
+                .append('\n');
+    }
+
+    private static int termBucket(int loanTermMonths) {
+        int bucket = 0;
+        while (bucket < TERM_BUCKET_LIMITS.length && loanTermMonths > TERM_BUCKET_LIMITS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static String termBucketLabel(int bucket) {
+        if (bucket == TERM_BUCKET_LIMITS.length) {
+            return ">" + TERM_BUCKET_LIMITS[bucket - 1];
+        }
+        return (bucket == 0 ? 1 : TERM_BUCKET_LIMITS[bucket - 1] + 1) + "-" + TERM_BUCKET_LIMITS[bucket];
+    }
+
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Metriky zůstanou dostupné aspoň přes dump()
+            System.err.println("Nepodařilo se zaregistrovat MBean metrik: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Úložiště metrik; inicializuje se až při prvním zápisu nebo čtení, takže při vypnutých
+     * metrikách nic nezabírá.
+     */
+    private static final class Registry {
+        static final LatencyHistogram paymentCalculations = new LatencyHistogram();
+        static final LongAdder exactPayments = new LongAdder();
+        static final LatencyHistogram[] scheduleGenerations = new LatencyHistogram[TERM_BUCKET_LIMITS.length + 1];
+        static final LongAdder scheduleRows = new LongAdder();
+        static final LatencyHistogram exports = new LatencyHistogram();
+        static final LongAdder exportedRows = new LongAdder();
+        static final LongAdder exportedBytes = new LongAdder();
+        static final LatencyHistogram batches = new LatencyHistogram();
+        static final LongAdder batchLoans = new LongAdder();
+        static final Map<String, ScheduleCache> caches = new LinkedHashMap<>();
+        static final Map<String, CalculationQueue> queues = new LinkedHashMap<>();
+
+        static {
+            for (int i = 0; i < scheduleGenerations.length; i++) {
+                scheduleGenerations[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Implementace MBeanu nad statickými metrikami.
+     */
+    private static final class Bean implements LoanMetricsMXBean {
+
+        @Override
+        public long getPaymentCalculations() {
+            return LoanMetrics.getPaymentCalculations();
+        }
+
+        @Override
+        public long getPaymentP99Nanos() {
+            return Registry.paymentCalculations.getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getExactPayments() {
+            return LoanMetrics.getExactPayments();
+        }
+
+        @Override
+        public long getScheduleGenerations() {
+            return LoanMetrics.getScheduleGenerations();
+        }
+
+        @Override
+        public long getScheduleRows() {
+            return LoanMetrics.getScheduleRows();
+        }
+
+        @Override
+        public long getExports() {
+            return LoanMetrics.getExports();
+        }
+
+        @Override
+        public long getExportedRows() {
+            return LoanMetrics.getExportedRows();
+        }
+
+        @Override
+        public long getExportedBytes() {
+            return LoanMetrics.getExportedBytes();
+        }
+
+        @Override
+        public long getBatches() {
+            return LoanMetrics.getBatches();
+        }
+
+        @Override
+        public long getBatchLoans() {
+            return LoanMetrics.getBatchLoans();
+        }
+
+        @Override
+        public String dump() {
+            return LoanMetrics.dump();
+        }
+
+        @Override
+        public void reset() {
+            LoanMetrics.reset();
+        }
+    }
+}
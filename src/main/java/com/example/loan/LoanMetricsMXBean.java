@@ -0,0 +1,38 @@
+package com.example.loan;
+
+/**
+ * Rozhraní MBeanu s metrikami výpočtů a exportů (viz {@link LoanMetrics}).
+ * Doby trvání jsou v nanosekundách.
+ */
+public interface LoanMetricsMXBean {
+
+    long getPaymentCalculations();
+
+    long getPaymentP99Nanos();
+
+    long getExactPayments();
+
+    long getScheduleGenerations();
+
+    long getScheduleRows();
+
+    long getExports();
+
+    long getExportedRows();
+
+    long getExportedBytes();
+
+    long getBatches();
+
+    long getBatchLoans();
+
+    /**
+     * @return Textový přehled všech metrik včetně histogramů a cache.
+     */
+    String dump();
+
+    /**
+     * Vynuluje čítače a histogramy.
+     */
+    void reset();
+}
@@ -0,0 +1,75 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+
+/**
+ * Výsledek dávkového výpočtu jednoho úvěru.
+ * Částky jsou v haléřích, splátkový kalendář je k dispozici jen na vyžádání.
+ */
+public class LoanResult {
+    // Souhrnné údaje o úvěru
+    private final LoanSummary summary;
+    // Splátkový kalendář, nebo null, pokud nebyl požadován
+    private final ScheduleTable schedule;
+
+    /**
+     * Konstruktor pro vytvoření výsledku.
+     *
+     * @param summary Souhrnné údaje o úvěru.
+     * @param schedule Splátkový kalendář, nebo null.
+     */
+    public LoanResult(LoanSummary summary, ScheduleTable schedule) {
+        this.summary = summary;
+        this.schedule = schedule;
+    }
+
+    /**
+     * @return Souhrnné údaje o úvěru.
+     */
+    public LoanSummary getSummary() {
+        return summary;
+    }
+
+    // Gettery pro přístup k výsledkům (v haléřích)
+    public long getMonthlyPayment() {
+        return summary.getMonthlyPayment();
+    }
+
+    public long getTotalPaid() {
+        return summary.getTotalPaid();
+    }
+
+    public long getTotalInterest() {
+        return summary.getTotalInterest();
+    }
+
+    /**
+     * @return Splátkový kalendář, nebo null, pokud nebyl při výpočtu požadován.
+     */
+    public ScheduleTable getSchedule() {
+        return schedule;
+    }
+
+    // Gettery pro zobrazení v korunách
+    public BigDecimal getMonthlyPaymentAmount() {
+        return summary.getMonthlyPaymentAmount();
+    }
+
+    public BigDecimal getTotalPaidAmount() {
+        return summary.getTotalPaidAmount();
+    }
+
+    public BigDecimal getTotalInterestAmount() {
+        return summary.getTotalInterestAmount();
+    }
+
+    @Override
+    public String toString() {
+        return "LoanResult{" +
+               "monthlyPayment=" + getMonthlyPaymentAmount() +
+               ", totalPaid=" + getTotalPaidAmount() +
+               ", totalInterest=" + getTotalInterestAmount() +
+               ", schedule=" + (schedule == null ? "none" : schedule.size() + " months") +
+               '}';
+    }
+}
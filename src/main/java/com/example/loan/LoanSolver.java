@@ -0,0 +1,458 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Inverzní výpočty k {@link LoanCalculator#calculateMonthlyPayment}: nejvyšší výše úvěru,
+ * nejkratší doba splácení nebo nejvyšší sazba, při které splátka nepřekročí zadanou částku,
+ * a RPSN (roční procentní sazba nákladů) včetně poplatků.
+ * <p>
+ * Neznámá se nejdřív odhadne ze spojitého vzorce (u sazby Newtonovou metodou), pak se
+ * v celých číslech (haléře, měsíce, kroky sazby) ohraničí a dopřesní půlením intervalu,
+ * ve kterém se každá hodnota ověří přesným dopředným výpočtem splátky. Splátka je v každé
+ * z neznámých monotónní, takže půlení vždy skončí a výsledek přesně odpovídá dopřednému
+ * výpočtu v BigDecimal: např. pro nalezenou výši úvěru P platí
+ * {@code calculateMonthlyPayment(P) <= splátka < calculateMonthlyPayment(P + 0,01)}.
+ * <p>
+ * Dávkové metody řeší pole zadání paralelně; místo výjimky vrací pro neřešitelné zadání
+ * 0 nebo null. Všechny metody jsou bezstavové a vláknově bezpečné.
+ */
+public class LoanSolver {
+
+    // Nejdelší doba splácení, kterou řešič doby zkouší
+    public static final int MAX_LOAN_TERM_MONTHS = AnnuityFactorTable.DEFAULT_MAX_TERM;
+    // Nejvíce desetinných míst roční sazby; při jemnějším kroku by se měsíční sazba zaokrouhlila na 0
+    public static final int MAX_RATE_SCALE = 6;
+    // Výchozí krok sazby: setina procenta
+    public static final int DEFAULT_RATE_SCALE = 2;
+
+    // Nejvíce iterací Newtonovy metody
+    private static final int MAX_ITERATIONS = 100;
+    private static final double RELATIVE_TOLERANCE = 1e-15;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L
+    };
+
+    private LoanSolver() {
+    }
+
+    /**
+     * Najde nejvyšší výši úvěru, pro kterou splátka nepřekročí zadanou částku.
+     *
+     * @param monthlyPayment Nejvyšší přijatelná splátka v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param loanTermMonths Doba splácení v měsících.
+     * @return Výše úvěru v haléřích.
+     * @throws IllegalArgumentException Pokud je splátka nebo sazba záporná nebo doba není kladná.
+     */
+    public static long solvePrincipal(long monthlyPayment, long monthlyRate, int loanTermMonths) {
+        FixedPointLoanCalculator.checkTerm(loanTermMonths);
+        if (monthlyPayment < 0 || monthlyRate < 0) {
+            throw new IllegalArgumentException("Splátka ani sazba nesmí být záporné: " + monthlyPayment + ", "
+                    + monthlyRate);
+        }
+        return principal(monthlyPayment, monthlyRate, loanTermMonths);
+    }
+
+    /**
+     * Najde nejvyšší výši úvěru, pro kterou {@link LoanCalculator#calculateMonthlyPayment}
+     * nepřekročí zadanou splátku.
+     *
+     * @param monthlyPayment Nejvyšší přijatelná splátka s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení v měsících.
+     * @return Výše úvěru se dvěma desetinnými místy.
+     */
+    public static BigDecimal solvePrincipal(BigDecimal monthlyPayment, BigDecimal annualInterestRate,
+            int loanTermMonths) {
+        return FixedPointLoanCalculator.toBigDecimal(solvePrincipal(FixedPointLoanCalculator.toMinorUnits(
+                monthlyPayment), FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate), loanTermMonths));
+    }
+
+    /**
+     * Najde nejkratší dobu splácení, při které splátka nepřekročí zadanou částku.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param monthlyPayment Nejvyšší přijatelná splátka v haléřích.
+     * @return Doba splácení v měsících.
+     * @throws IllegalArgumentException Pokud splátka nestačí ani při {@value #MAX_LOAN_TERM_MONTHS}
+     *         měsících nebo je některý údaj záporný.
+     */
+    public static int solveTerm(long principal, long monthlyRate, long monthlyPayment) {
+        checkNonNegative(principal, monthlyRate, monthlyPayment);
+        int term = term(principal, monthlyRate, monthlyPayment);
+        if (term == 0) {
+            throw new IllegalArgumentException("Splátka " + FixedPointLoanCalculator.toBigDecimal(monthlyPayment)
+                    + " nestačí ani při době splácení " + MAX_LOAN_TERM_MONTHS + " měsíců.");
+        }
+        return term;
+    }
+
+    /**
+     * Najde nejkratší dobu splácení, při které {@link LoanCalculator#calculateMonthlyPayment}
+     * nepřekročí zadanou splátku.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param monthlyPayment Nejvyšší přijatelná splátka s nejvýše dvěma desetinnými místy.
+     * @return Doba splácení v měsících.
+     */
+    public static int solveTerm(BigDecimal principal, BigDecimal annualInterestRate, BigDecimal monthlyPayment) {
+        return solveTerm(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate),
+                FixedPointLoanCalculator.toMinorUnits(monthlyPayment));
+    }
+
+    /**
+     * Najde nejvyšší roční sazbu s daným počtem desetinných míst, při které splátka
+     * nepřekročí zadanou částku.
+     *
+     * @param principal Výše úvěru v haléřích (kladná).
+     * @param monthlyPayment Nejvyšší přijatelná splátka v haléřích.
+     * @param loanTermMonths Doba splácení v měsících.
+     * @param scale Počet desetinných míst sazby v procentech (0 až {@value #MAX_RATE_SCALE}).
+     * @return Roční úroková sazba v procentech.
+     * @throws IllegalArgumentException Pokud splátka nestačí ani při nulové sazbě nebo je zadání neplatné.
+     */
+    public static BigDecimal solveRate(long principal, long monthlyPayment, int loanTermMonths, int scale) {
+        checkRateQuery(principal, monthlyPayment, loanTermMonths, scale);
+        BigDecimal rate = rate(principal, monthlyPayment, loanTermMonths, scale);
+        if (rate == null) {
+            throw new IllegalArgumentException("Splátka " + FixedPointLoanCalculator.toBigDecimal(monthlyPayment)
+                    + " nestačí ani při nulové sazbě.");
+        }
+        return rate;
+    }
+
+    /**
+     * Najde nejvyšší roční sazbu v setinách procenta, při které {@link LoanCalculator#calculateMonthlyPayment}
+     * nepřekročí zadanou splátku.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param monthlyPayment Nejvyšší přijatelná splátka s nejvýše dvěma desetinnými místy.
+     * @param loanTermMonths Doba splácení v měsících.
+     * @return Roční úroková sazba v procentech se dvěma desetinnými místy.
+     */
+    public static BigDecimal solveRate(BigDecimal principal, BigDecimal monthlyPayment, int loanTermMonths) {
+        return solveRate(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.toMinorUnits(monthlyPayment), loanTermMonths, DEFAULT_RATE_SCALE);
+    }
+
+    /**
+     * Vypočítá RPSN: roční efektivní sazbu i, pro kterou je současná hodnota všech splátek
+     * rovna vyplacené částce, tj. {@code jistina - poplatky = Σ splátka / (1 + i)^(j / 12)}.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param fees Poplatky placené při poskytnutí úvěru v haléřích.
+     * @param monthlyPayment Měsíční splátka v haléřích.
+     * @param loanTermMonths Počet splátek.
+     * @return RPSN v procentech se dvěma desetinnými místy.
+     * @throws IllegalArgumentException Pokud poplatky nejsou menší než výše úvěru nebo je zadání neplatné.
+     */
+    public static BigDecimal solveRpsn(long principal, long fees, long monthlyPayment, int loanTermMonths) {
+        FixedPointLoanCalculator.checkTerm(loanTermMonths);
+        if (fees < 0 || principal - fees <= 0 || monthlyPayment <= 0) {
+            throw new IllegalArgumentException("Vyplacená částka i splátka musí být kladné: " + principal + " - "
+                    + fees + ", " + monthlyPayment);
+        }
+        double monthly = effectiveMonthlyRate(principal - fees, monthlyPayment, loanTermMonths);
+        double annual = Math.expm1(12 * Math.log1p(monthly)) * 100;
+        return BigDecimal.valueOf(annual).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Vypočítá RPSN úvěru se splátkou podle {@link LoanCalculator#calculateMonthlyPayment}.
+     *
+     * @param loan Zadání úvěru.
+     * @param fees Poplatky placené při poskytnutí úvěru.
+     * @return RPSN v procentech se dvěma desetinnými místy.
+     */
+    public static BigDecimal calculateRpsn(LoanSpec loan, BigDecimal fees) {
+        long payment = FixedPointLoanCalculator.calculateMonthlyPayment(loan.getPrincipalMinorUnits(),
+                loan.getMonthlyRate(), loan.getLoanTermMonths());
+        return solveRpsn(loan.getPrincipalMinorUnits(), FixedPointLoanCalculator.toMinorUnits(fees), payment,
+                loan.getLoanTermMonths());
+    }
+
+    /**
+     * Dávkově najde nejvyšší výše úvěru; pole musí mít stejnou délku.
+     *
+     * @return Výše úvěrů v haléřích ve stejném pořadí jako zadání.
+     */
+    public static long[] solvePrincipals(long[] monthlyPayments, long[] monthlyRates, int[] loanTermMonths) {
+        checkLengths(monthlyPayments.length, monthlyRates.length, loanTermMonths.length);
+        long[] results = new long[monthlyPayments.length];
+        Arrays.parallelSetAll(results, i -> solvePrincipal(monthlyPayments[i], monthlyRates[i], loanTermMonths[i]));
+        return results;
+    }
+
+    /**
+     * Dávkově najde nejkratší doby splácení; pole musí mít stejnou délku.
+     *
+     * @return Doby splácení ve stejném pořadí jako zadání; 0 tam, kde splátka nestačí.
+     */
+    public static int[] solveTerms(long[] principals, long[] monthlyRates, long[] monthlyPayments) {
+        checkLengths(principals.length, monthlyRates.length, monthlyPayments.length);
+        for (int i = 0; i < principals.length; i++) {
+            checkNonNegative(principals[i], monthlyRates[i], monthlyPayments[i]);
+        }
+        int[] results = new int[principals.length];
+        Arrays.parallelSetAll(results, i -> term(principals[i], monthlyRates[i], monthlyPayments[i]));
+        return results;
+    }
+
+    /**
+     * Dávkově najde nejvyšší sazby s daným počtem desetinných míst; pole musí mít stejnou délku.
+     *
+     * @return Roční sazby ve stejném pořadí jako zadání; null tam, kde splátka nestačí
+     *         ani při nulové sazbě.
+     */
+    public static BigDecimal[] solveRates(long[] principals, long[] monthlyPayments, int[] loanTermMonths, int scale) {
+        checkLengths(principals.length, monthlyPayments.length, loanTermMonths.length);
+        for (int i = 0; i < principals.length; i++) {
+            checkRateQuery(principals[i], monthlyPayments[i], loanTermMonths[i], scale);
+        }
+        BigDecimal[] results = new BigDecimal[principals.length];
+        Arrays.parallelSetAll(results, i -> rate(principals[i], monthlyPayments[i], loanTermMonths[i], scale));
+        return results;
+    }
+
+    /**
+     * Nejvyšší P s payment(P) <= monthlyPayment. Platí payment(P) >= P / n, proto
+     * payment((monthlyPayment + 1) * n) > monthlyPayment a interval je vždy ohraničený.
+     */
+    private static long principal(long monthlyPayment, long monthlyRate, int loanTermMonths) {
+        // Hranice zaokrouhlení: splátka před zaokrouhlením (S + 0,5) haléře
+        double annuity = monthlyRate == 0 ? loanTermMonths
+                : -Math.expm1(-loanTermMonths * Math.log1p((double) monthlyRate / FixedPointLoanCalculator.RATE_ONE))
+                        / ((double) monthlyRate / FixedPointLoanCalculator.RATE_ONE);
+        long estimate = (long) ((monthlyPayment + 0.5) * annuity);
+
+        long upperBound = Math.multiplyExact(monthlyPayment + 1, (long) loanTermMonths);
+        long low = Math.max(0, estimate - 2);
+        long high = Math.min(upperBound, estimate + 2);
+        if (payment(low, monthlyRate, loanTermMonths) > monthlyPayment) {
+            low = 0;
+        }
+        if (payment(high, monthlyRate, loanTermMonths) <= monthlyPayment) {
+            high = upperBound;
+        }
+        // payment(low) <= monthlyPayment < payment(high)
+        while (high - low > 1) {
+            long middle = (low + high) >>> 1;
+            if (payment(middle, monthlyRate, loanTermMonths) <= monthlyPayment) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Nejmenší n s payment(n) <= monthlyPayment, nebo 0, pokud takové n do maximální doby není.
+     */
+    private static int term(long principal, long monthlyRate, long monthlyPayment) {
+        if (payment(principal, monthlyRate, MAX_LOAN_TERM_MONTHS) > monthlyPayment) {
+            return 0;
+        }
+        if (payment(principal, monthlyRate, 1) <= monthlyPayment) {
+            return 1;
+        }
+        // Odhad n = -ln(1 - P r / S) / ln(1 + r), resp. P / S pro nulovou sazbu
+        double rate = (double) monthlyRate / FixedPointLoanCalculator.RATE_ONE;
+        double estimate = monthlyRate == 0 ? (double) principal / monthlyPayment
+                : -Math.log1p(-principal * rate / monthlyPayment) / Math.log1p(rate);
+        int guess = Double.isNaN(estimate) ? MAX_LOAN_TERM_MONTHS
+                : (int) Math.max(2, Math.min(MAX_LOAN_TERM_MONTHS, Math.ceil(estimate)));
+
+        // payment(low) > monthlyPayment >= payment(high)
+        int low = 1;
+        int high = MAX_LOAN_TERM_MONTHS;
+        if (payment(principal, monthlyRate, guess) <= monthlyPayment) {
+            high = guess;
+            if (payment(principal, monthlyRate, guess - 1) > monthlyPayment) {
+                return guess;
+            }
+        } else {
+            low = guess;
+            if (guess < MAX_LOAN_TERM_MONTHS && payment(principal, monthlyRate, guess + 1) <= monthlyPayment) {
+                return guess + 1;
+            }
+        }
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (payment(principal, monthlyRate, middle) <= monthlyPayment) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Nejvyšší krok sazby s payment(rate(s)) <= monthlyPayment, nebo null, pokud nestačí ani nulová sazba.
+     * Při měsíční sazbě (S + 1) / P je už úrok z celé jistiny větší než splátka, což dává horní mez.
+     */
+    private static BigDecimal rate(long principal, long monthlyPayment, int loanTermMonths, int scale) {
+        if (payment(principal, 0, loanTermMonths) > monthlyPayment) {
+            return null;
+        }
+        // Kroky sazby: roční sazba = krok * 10^-scale procent, měsíční = krok * 10^(10 - scale) / 1200
+        double stepsPerMonthlyRate = 1200.0 * POWERS_OF_TEN[scale];
+        long upperBound = (long) Math.ceil((double) (monthlyPayment + 1) / principal * stepsPerMonthlyRate) + 1;
+        double estimate = monthlyRateEstimate(principal, monthlyPayment + 0.5, loanTermMonths) * stepsPerMonthlyRate;
+
+        // payment(low) <= monthlyPayment < payment(high)
+        long low = 0;
+        long high = upperBound;
+        long guess = (long) Math.min(estimate, upperBound);
+        if (guess > 2 && payment(principal, monthlyRate(guess - 2, scale), loanTermMonths) <= monthlyPayment) {
+            low = guess - 2;
+        }
+        if (guess + 2 < upperBound && payment(principal, monthlyRate(guess + 2, scale), loanTermMonths)
+                > monthlyPayment) {
+            high = guess + 2;
+        }
+        while (high - low > 1) {
+            long middle = (low + high) >>> 1;
+            if (payment(principal, monthlyRate(middle, scale), loanTermMonths) <= monthlyPayment) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return BigDecimal.valueOf(low, scale);
+    }
+
+    /**
+     * Měsíční sazba kroku, shodná s {@code LoanCalculator.monthlyInterestRate(krok * 10^-scale)}.
+     */
+    private static long monthlyRate(long step, int scale) {
+        return FixedPointLoanCalculator.divideHalfUp(
+                Math.multiplyExact(step, POWERS_OF_TEN[FixedPointLoanCalculator.RATE_SCALE - scale]), 1200);
+    }
+
+    /**
+     * Spojitá měsíční sazba r, pro kterou P r / (1 - (1 + r)^-n) = S; Newtonova metoda
+     * s půlením intervalu, pokud by krok z intervalu vyskočil.
+     */
+    private static double monthlyRateEstimate(long principal, double monthlyPayment, int loanTermMonths) {
+        double target = monthlyPayment / principal;
+        double low = 0;
+        double high = (monthlyPayment + 1.0) / principal;
+        double rate = high / 2;
+        for (int i = 0; i < MAX_ITERATIONS && high - low > RELATIVE_TOLERANCE * high; i++) {
+            double growth = Math.exp(-loanTermMonths * Math.log1p(rate));
+            double denominator = -Math.expm1(-loanTermMonths * Math.log1p(rate));
+            double value = rate / denominator - target;
+            if (value > 0) {
+                high = rate;
+            } else {
+                low = rate;
+            }
+            double derivative = (denominator - rate * loanTermMonths * growth / (1 + rate))
+                    / (denominator * denominator);
+            double next = rate - value / derivative;
+            if (Math.abs(next - rate) <= RELATIVE_TOLERANCE * rate) {
+                return next;
+            }
+            rate = next > low && next < high ? next : (low + high) / 2;
+        }
+        return rate;
+    }
+
+    /**
+     * Měsíční efektivní sazba q, pro kterou S * (1 - (1 + q)^-n) / q = vyplacená částka;
+     * Newtonova metoda s půlením v intervalu, který vždy obsahuje kořen.
+     */
+    private static double effectiveMonthlyRate(long netAmount, long monthlyPayment, int loanTermMonths) {
+        double target = (double) netAmount / monthlyPayment;
+        // Funkce a(n, q) - target je klesající v q; a(n, 0) = n
+        double low;
+        double high;
+        if (loanTermMonths >= target) {
+            low = 0;
+            high = 0.01;
+            while (annuityFactor(loanTermMonths, high) > target) {
+                high *= 2;
+            }
+        } else {
+            high = 0;
+            low = -0.01;
+            while (annuityFactor(loanTermMonths, low) < target) {
+                low = (low - 1) / 2;
+            }
+        }
+        double rate = (low + high) / 2;
+        for (int i = 0; i < MAX_ITERATIONS && high - low > RELATIVE_TOLERANCE * Math.max(1e-6, Math.abs(rate)); i++) {
+            double value = annuityFactor(loanTermMonths, rate) - target;
+            if (value > 0) {
+                low = rate;
+            } else {
+                high = rate;
+            }
+            double derivative = annuityDerivative(loanTermMonths, rate);
+            double next = rate - value / derivative;
+            if (Math.abs(next - rate) <= RELATIVE_TOLERANCE * Math.max(1e-6, Math.abs(rate))) {
+                return next;
+            }
+            rate = next > low && next < high ? next : (low + high) / 2;
+        }
+        return rate;
+    }
+
+    /**
+     * Současná hodnota jednotkové splátky na konci každého z n měsíců: (1 - (1 + q)^-n) / q.
+     */
+    private static double annuityFactor(int months, double rate) {
+        if (Math.abs(rate) < 1e-12) {
+            return months - months * (months + 1) / 2.0 * rate;
+        }
+        return -Math.expm1(-months * Math.log1p(rate)) / rate;
+    }
+
+    private static double annuityDerivative(int months, double rate) {
+        if (Math.abs(rate) < 1e-12) {
+            return -months * (months + 1) / 2.0;
+        }
+        double discount = Math.exp(-months * Math.log1p(rate));
+        double factor = (1 - discount) / rate;
+        return (months * discount / (1 + rate) - factor) / rate;
+    }
+
+    private static long payment(long principal, long monthlyRate, int loanTermMonths) {
+        return FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, loanTermMonths);
+    }
+
+    private static void checkNonNegative(long principal, long monthlyRate, long monthlyPayment) {
+        if (principal < 0 || monthlyRate < 0 || monthlyPayment < 0) {
+            throw new IllegalArgumentException("Výše úvěru, sazba ani splátka nesmí být záporné: " + principal + ", "
+                    + monthlyRate + ", " + monthlyPayment);
+        }
+    }
+
+    private static void checkRateQuery(long principal, long monthlyPayment, int loanTermMonths, int scale) {
+        FixedPointLoanCalculator.checkTerm(loanTermMonths);
+        if (principal <= 0 || monthlyPayment < 0) {
+            throw new IllegalArgumentException("Výše úvěru musí být kladná a splátka nezáporná: " + principal + ", "
+                    + monthlyPayment);
+        }
+        if (scale < 0 || scale > MAX_RATE_SCALE) {
+            throw new IllegalArgumentException("Počet desetinných míst sazby musí být 0 až " + MAX_RATE_SCALE + ": "
+                    + scale);
+        }
+    }
+
+    private static void checkLengths(int first, int second, int third) {
+        if (first != second || first != third) {
+            throw new IllegalArgumentException("Pole zadání musí mít stejnou délku: " + first + ", " + second + ", "
+                    + third);
+        }
+    }
+}
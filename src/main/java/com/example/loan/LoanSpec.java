@@ -0,0 +1,169 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Neměnné zadání jednoho úvěru pro dávkový výpočet.
+ * Parametry se kontrolují ({@link #validate}) a převádějí do haléřů a měsíční sazby už při
+ * vytvoření, takže chybné zadání se odhalí dřív, než se spustí paralelní výpočet. Stejná pravidla
+ * platí pro všechny vstupy aplikace: okno, HTTP server, dávkové výpočty, exporty i frontu výpočtů.
+ */
+public class LoanSpec {
+    // Nejdelší doba splácení v měsících (100 let)
+    public static final int MAX_LOAN_TERM_MONTHS = 1200;
+    // Nejnižší a nejvyšší povolená roční úroková sazba v procentech
+    public static final BigDecimal MIN_ANNUAL_INTEREST_RATE = new BigDecimal("-100");
+    public static final BigDecimal MAX_ANNUAL_INTEREST_RATE = new BigDecimal("1000");
+
+    // Identifikátor úvěru v portfoliu, nebo null
+    private final String id;
+    // Výše úvěru tak, jak byla zadána
+    private final BigDecimal principal;
+    // Roční úroková sazba v procentech
+    private final BigDecimal annualInterestRate;
+    // Doba splácení v měsících
+    private final int loanTermMonths;
+    // Výše úvěru v haléřích
+    private final long principalMinorUnits;
+    // Měsíční sazba v měřítku FixedPointLoanCalculator.RATE_ONE
+    private final long monthlyRate;
+    // Měna úvěru; částky se počítají v jejích setinách
+    private final Currency currency;
+
+    /**
+     * Konstruktor pro vytvoření zadání úvěru.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @throws IllegalArgumentException Pokud zadání neprojde kontrolou {@link #validate}.
+     * @throws ArithmeticException Pokud se výše úvěru nevejde do long nebo se nenulová sazba
+     *         zaokrouhlí na nulovou měsíční sazbu.
+     */
+    public LoanSpec(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        this(null, principal, annualInterestRate, loanTermMonths);
+    }
+
+    /**
+     * Konstruktor pro vytvoření zadání úvěru s identifikátorem (např. číslem smlouvy).
+     *
+     * @param id Identifikátor úvěru, nebo null.
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @throws IllegalArgumentException Pokud zadání neprojde kontrolou {@link #validate}.
+     * @throws ArithmeticException Pokud se výše úvěru nevejde do long nebo se nenulová sazba
+     *         zaokrouhlí na nulovou měsíční sazbu.
+     */
+    public LoanSpec(String id, BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        this(id, principal, annualInterestRate, loanTermMonths, CurrencyFormat.CZK.getCurrency());
+    }
+
+    /**
+     * Konstruktor pro vytvoření zadání úvěru v jiné měně než CZK.
+     *
+     * @param id Identifikátor úvěru, nebo null.
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @param currency Měna úvěru (pro export musí mít formát v {@link CurrencyFormat}).
+     * @throws IllegalArgumentException Pokud zadání neprojde kontrolou {@link #validate}.
+     * @throws ArithmeticException Pokud se výše úvěru nevejde do long nebo se nenulová sazba
+     *         zaokrouhlí na nulovou měsíční sazbu.
+     */
+    public LoanSpec(String id, BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths,
+            Currency currency) {
+        validate(principal, annualInterestRate, loanTermMonths);
+        this.id = id;
+        this.principal = principal;
+        this.annualInterestRate = annualInterestRate;
+        this.loanTermMonths = loanTermMonths;
+        this.principalMinorUnits = FixedPointLoanCalculator.toMinorUnits(principal);
+        this.monthlyRate = FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate);
+        this.currency = currency;
+    }
+
+    /**
+     * Zkontroluje zadání úvěru: výše úvěru musí být kladná s nejvýše dvěma desetinnými místy,
+     * doba splácení 1 až {@value #MAX_LOAN_TERM_MONTHS} měsíců a roční sazba mezi -100 % a 1000 %.
+     *
+     * @param principal Výše úvěru.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @throws IllegalArgumentException Pokud zadání neplatí; zpráva je určená pro uživatele.
+     */
+    public static void validate(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        if (principal.signum() <= 0) {
+            throw new IllegalArgumentException("Výše úvěru musí být kladné číslo.");
+        }
+        if (principal.stripTrailingZeros().scale() > 2) { // Výpočet probíhá v haléřích
+            throw new IllegalArgumentException("Výše úvěru může mít nejvýše dvě desetinná místa.");
+        }
+        validateTerm(loanTermMonths);
+        if (annualInterestRate.compareTo(MIN_ANNUAL_INTEREST_RATE) < 0) {
+            throw new IllegalArgumentException("Roční úroková sazba nesmí být menší než -100%.");
+        }
+        if (annualInterestRate.compareTo(MAX_ANNUAL_INTEREST_RATE) > 0) {
+            throw new IllegalArgumentException("Roční úroková sazba nesmí přesáhnout 1000%.");
+        }
+    }
+
+    /**
+     * Zkontroluje dobu splácení: 1 až {@value #MAX_LOAN_TERM_MONTHS} měsíců.
+     *
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @throws IllegalArgumentException Pokud doba splácení neplatí; zpráva je určená pro uživatele.
+     */
+    public static void validateTerm(int loanTermMonths) {
+        if (loanTermMonths <= 0) {
+            throw new IllegalArgumentException("Doba splácení musí být kladné číslo v měsících.");
+        }
+        if (loanTermMonths > MAX_LOAN_TERM_MONTHS) {
+            throw new IllegalArgumentException("Doba splácení nesmí přesáhnout " + MAX_LOAN_TERM_MONTHS
+                    + " měsíců (100 let).");
+        }
+    }
+
+    /**
+     * @return Identifikátor úvěru, nebo null, pokud nebyl zadán.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public BigDecimal getPrincipal() {
+        return principal;
+    }
+
+    public BigDecimal getAnnualInterestRate() {
+        return annualInterestRate;
+    }
+
+    public int getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    public long getPrincipalMinorUnits() {
+        return principalMinorUnits;
+    }
+
+    public long getMonthlyRate() {
+        return monthlyRate;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanSpec{" +
+               "id=" + id +
+               ", principal=" + principal +
+               ", annualInterestRate=" + annualInterestRate +
+               ", loanTermMonths=" + loanTermMonths +
+               ", currency=" + currency +
+               '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+
+/**
+ * Souhrnné údaje o úvěru bez splátkového kalendáře: pravidelná splátka,
+ * celkem zaplaceno a celkové úroky. Hodnoty jsou shodné se součty nad kalendářem
+ * z {@link LoanCalculator#generatePaymentSchedule}, včetně úpravy poslední splátky.
+ * <p>
+ * Celkem zaplaceno je v uzavřeném tvaru (splátka × počet měsíců). Součet úroků uzavřený
+ * tvar nemá, protože se úrok každý měsíc zaokrouhluje na haléře; počítá se proto jedním
+ * průchodem přes zůstatky v long aritmetice bez vytváření kalendáře. Pro nulovou sazbu
+ * je celý souhrn O(1).
+ */
+public class LoanSummary {
+    // Výše úvěru
+    private final long principal;
+    // Pravidelná měsíční splátka
+    private final long monthlyPayment;
+    // Doba splácení v měsících
+    private final int loanTermMonths;
+    // Celkové zaplacené úroky
+    private final long totalInterest;
+    // Celkem zaplaceno (splátka × počet měsíců)
+    private final long totalPaid;
+
+    /**
+     * Konstruktor pro vytvoření souhrnu (částky v haléřích).
+     *
+     * @param principal Výše úvěru.
+     * @param monthlyPayment Pravidelná měsíční splátka.
+     * @param loanTermMonths Doba splácení v měsících.
+     * @param totalInterest Celkové zaplacené úroky.
+     * @throws ArithmeticException Pokud se celkem zaplaceno nevejde do long.
+     */
+    public LoanSummary(long principal, long monthlyPayment, int loanTermMonths, long totalInterest) {
+        this.principal = principal;
+        this.monthlyPayment = monthlyPayment;
+        this.loanTermMonths = loanTermMonths;
+        this.totalInterest = totalInterest;
+        // U extrémních jistin součin přeteče; výjimka už při výpočtu místo tiše chybného součtu
+        this.totalPaid = Math.multiplyExact(monthlyPayment, loanTermMonths);
+    }
+
+    /**
+     * Vypočítá souhrn úvěru bez sestavení splátkového kalendáře.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Souhrn úvěru.
+     * @throws ArithmeticException Pokud se součty nevejdou do long.
+     */
+    public static LoanSummary calculate(long principal, long monthlyRate, int loanTermMonths) {
+        long monthlyPayment = FixedPointLoanCalculator.calculateMonthlyPayment(principal, monthlyRate, loanTermMonths);
+        long totalInterest = FixedPointLoanCalculator.calculateTotalInterest(principal, monthlyRate, loanTermMonths,
+                monthlyPayment);
+        return new LoanSummary(principal, monthlyPayment, loanTermMonths, totalInterest);
+    }
+
+    /**
+     * Vypočítá souhrn úvěru bez sestavení splátkového kalendáře.
+     *
+     * @param loan Zadání úvěru.
+     * @return Souhrn úvěru.
+     */
+    public static LoanSummary calculate(LoanSpec loan) {
+        return calculate(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(), loan.getLoanTermMonths());
+    }
+
+    // Gettery pro přístup k údajům (v haléřích)
+    public long getPrincipal() {
+        return principal;
+    }
+
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    public int getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    /**
+     * Celkem zaplaceno, počítáno jako pravidelná splátka × počet měsíců
+     * (stejně jako v souhrnu aplikace a v exportu do CSV).
+     *
+     * @return Celkem zaplaceno v haléřích.
+     */
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    /**
+     * Úprava jistiny v poslední splátce, kterou kalendář vyrovnává chyby zaokrouhlování.
+     * Plyne z toho, že se jistina splatí celá: zbytek = jistina − (splátka × n − úroky).
+     *
+     * @return Rozdíl mezi jistinou poslední splátky a (splátka − úrok) v haléřích.
+     */
+    public long getFinalPaymentCorrection() {
+        return principal - (totalPaid - totalInterest);
+    }
+
+    // Gettery pro zobrazení v korunách
+    public BigDecimal getMonthlyPaymentAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(monthlyPayment);
+    }
+
+    public BigDecimal getTotalPaidAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(getTotalPaid());
+    }
+
+    public BigDecimal getTotalInterestAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(totalInterest);
+    }
+
+    public BigDecimal getPrincipalAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(principal);
+    }
+
+    @Override
+    public String toString() {
+        return "LoanSummary{" +
+               "monthlyPayment=" + getMonthlyPaymentAmount() +
+               ", totalPaid=" + getTotalPaidAmount() +
+               ", totalInterest=" + getTotalInterestAmount() +
+               '}';
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.loan;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Vláknově bezpečná cache s vyřazováním nejdéle nepoužitých položek (LRU).
+ * Velikost je omezena počtem položek i součtem jejich odhadované velikosti v bajtech.
+ * Hodnota se počítá mimo zámek, takže dlouhý výpočet neblokuje ostatní dotazy;
+ * pokud stejnou hodnotu mezitím spočítá jiné vlákno, použije se ta, která byla uložena dřív.
+ * Ukládané hodnoty musí být neměnné, protože se sdílejí mezi vlákny.
+ *
+ * @param <K> Typ klíče.
+ * @param <V> Typ hodnoty.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    // LinkedHashMap v pořadí přístupu: první položka je nejdéle nepoužitá
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Vytvoří cache.
+     *
+     * @param maxEntries Největší počet položek.
+     * @param maxWeight Největší součet velikostí položek v bajtech.
+     * @param weigher Odhad velikosti hodnoty v bajtech.
+     */
+    public LruCache(int maxEntries, long maxWeight, ToLongFunction<? super V> weigher) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("Limity cache musí být kladné: " + maxEntries + ", " + maxWeight);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Vrátí hodnotu z cache, nebo ji spočítá a uloží.
+     *
+     * @param key Klíč.
+     * @param loader Výpočet hodnoty pro chybějící klíč.
+     * @return Hodnota pro klíč.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hitCount++;
+                return value;
+            }
+            missCount++;
+        }
+
+        V computed = loader.apply(key);
+        long computedWeight = weigher.applyAsLong(computed);
+
+        synchronized (this) {
+            V existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            // Hodnota větší než celý limit se vrátí, ale neuloží
+            if (computedWeight > maxWeight) {
+                return computed;
+            }
+            entries.put(key, computed);
+            weight += computedWeight;
+            evict();
+            return computed;
+        }
+    }
+
+    /**
+     * Vrátí hodnotu, pokud je v cache; do statistik se nezapočítává.
+     *
+     * @param key Klíč.
+     * @return Hodnota, nebo null.
+     */
+    public synchronized V peek(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Odstraní všechny položky. Statistiky zůstávají.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return Snímek statistik cache.
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, entries.size(), weight);
+    }
+
+    /**
+     * Vyřazuje nejdéle nepoužité položky, dokud cache nesplňuje oba limity.
+     */
+    private void evict() {
+        Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.applyAsLong(eldest.getValue());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+}
@@ -1,18 +1,40 @@
 package com.example.loan;
 
 import javax.swing.SwingUtilities;
+import java.io.IOException;
 
 /**
  * Hlavní třída aplikace pro spuštění kalkulačky splátkového kalendáře s grafickým uživatelským rozhraním (GUI).
+ * S argumentem {@code --server [port]} se místo GUI spustí výpočetní služba {@link LoanHttpServer},
+ * s argumentem {@code --startup-check [calculate]} měření startu ({@link StartupCheck}).
  */
 public class Main {
+    // Argument příkazového řádku pro spuštění bez GUI
+    private static final String SERVER_ARGUMENT = "--server";
+    // Argument pro měření startu: ukončí JVM po prvním vykreslení okna
+    private static final String STARTUP_CHECK_ARGUMENT = "--startup-check";
+    // Volba měření startu, se kterou se před ukončením zobrazí i ukázkový kalendář a graf
+    private static final String CALCULATE_OPTION = "calculate";
+
     /**
      * Vstupní bod aplikace.
-     * Spustí GUI aplikaci v Event Dispatch Thread (EDT).
+     * Spustí GUI aplikaci v Event Dispatch Thread (EDT), nebo HTTP server, pokud je první argument --server.
      *
-     * @param args Argumenty příkazového řádku (nevyužité v této verzi).
+     * @param args Argumenty příkazového řádku: žádné pro GUI, {@code --server [port]},
+     *             nebo {@code --startup-check [calculate]}.
+     * @throws IOException Pokud se serveru nepodaří otevřít port.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && SERVER_ARGUMENT.equals(args[0])) {
+            // Režim serveru se spouští dřív, než se sáhne na jakoukoli třídu Swingu
+            startServer(args.length > 1 ? Integer.parseInt(args[1]) : LoanHttpServer.DEFAULT_PORT);
+            return;
+        }
+        if (args.length > 0 && STARTUP_CHECK_ARGUMENT.equals(args[0])) {
+            StartupCheck.run(args.length > 1 && CALCULATE_OPTION.equals(args[1]));
+            return;
+        }
+
         // Zajištění, že GUI bude spuštěno v Event Dispatch Thread pro bezpečnou manipulaci s komponentami Swing.
         SwingUtilities.invokeLater(new Runnable() {
             @Override
@@ -22,4 +44,14 @@ public class Main {
             }
         });
     }
+
+    /**
+     * Spustí HTTP server; ten běží, dokud se JVM neukončí, a při ukončení se zastaví.
+     */
+    private static void startServer(int port) throws IOException {
+        LoanHttpServer server = new LoanHttpServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Kalkulačka běží jako HTTP server na portu " + server.getPort());
+    }
 }
\ No newline at end of file
@@ -1,66 +1,162 @@
 package com.example.loan;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
-import java.util.Locale;
+import java.nio.ByteBuffer;
 
 /**
  * Utility třída pro české formátování čísel s mezerami jako oddělovači tisícovek.
+ * <p>
+ * Výstup odpovídá {@code DecimalFormat("#,##0.00")} s mezerou jako oddělovačem tisícovek
+ * a čárkou jako desetinným oddělovačem (zaokrouhlení HALF_EVEN, u záporných čísel
+ * zaokrouhlených na nulu "-0,00"). Čísla se zapisují ručně, takže třída je vláknově
+ * bezpečná a zápis částky v haléřích nebo BigDecimal s nejvýše 18 platnými číslicemi
+ * do {@link StringBuilder}, pole znaků nebo {@link ByteBuffer} nic nealokuje.
+ * <p>
+ * Metody jsou zkratkou pro {@link CurrencyFormat#CZK}; pro jiné měny viz {@link CurrencyFormat}.
  */
 public class NumberFormatter {
-    
-    private static final DecimalFormat CZECH_FORMATTER;
-    
-    static {
-        DecimalFormatSymbols symbols = new DecimalFormatSymbols(new Locale("cs", "CZ"));
-        symbols.setGroupingSeparator(' ');  // Mezera jako oddělovač tisícovek
-        symbols.setDecimalSeparator(',');   // Čárka jako desetinný oddělovač
-        
-        CZECH_FORMATTER = new DecimalFormat("#,##0.00", symbols);
-        CZECH_FORMATTER.setGroupingSize(3); // Skupiny po 3 číslicích
-    }
-    
+
+    // Přípona měny
+    public static final String CURRENCY_SUFFIX = " Kč";
+    // Nejdelší zápis částky typu long v haléřích včetně přípony měny
+    public static final int MAX_LENGTH = 29;
+
+    private static final CurrencyFormat CZECH = CurrencyFormat.CZK;
+
     /**
      * Formátuje BigDecimal na český formát s mezerami jako oddělovači tisícovek.
-     * 
+     *
      * @param value Hodnota k formátování
      * @return Formátovaný řetězec
      */
     public static String format(BigDecimal value) {
-        if (value == null) {
-            return "0,00";
-        }
-        return CZECH_FORMATTER.format(value);
+        return CZECH.format(value);
     }
-    
+
     /**
      * Formátuje double na český formát s mezerami jako oddělovači tisícovek.
-     * 
+     * Hodnota se převádí přes BigDecimal (alokuje), číslice a zaokrouhlení odpovídají DecimalFormat.
+     *
      * @param value Hodnota k formátování
      * @return Formátovaný řetězec
      */
     public static String format(double value) {
-        return CZECH_FORMATTER.format(value);
+        return CZECH.format(value);
     }
-    
+
+    /**
+     * Formátuje částku v haléřích na český formát s mezerami jako oddělovači tisícovek.
+     *
+     * @param minorUnits Částka v haléřích
+     * @return Formátovaný řetězec
+     */
+    public static String formatMinorUnits(long minorUnits) {
+        return CZECH.formatMinorUnits(minorUnits);
+    }
+
     /**
      * Formátuje číslo s měnou (Kč).
-     * 
+     *
      * @param value Hodnota k formátování
      * @return Formátovaný řetězec s měnou
      */
     public static String formatCurrency(BigDecimal value) {
-        return format(value) + " Kč";
+        return CZECH.formatCurrency(value);
     }
-    
+
     /**
      * Formátuje číslo s měnou (Kč).
-     * 
+     *
      * @param value Hodnota k formátování
      * @return Formátovaný řetězec s měnou
      */
     public static String formatCurrency(double value) {
-        return format(value) + " Kč";
+        return CZECH.formatCurrency(value);
+    }
+
+    /**
+     * Formátuje částku v haléřích s měnou (Kč).
+     *
+     * @param minorUnits Částka v haléřích
+     * @return Formátovaný řetězec s měnou
+     */
+    public static String formatCurrencyMinorUnits(long minorUnits) {
+        return CZECH.formatCurrencyMinorUnits(minorUnits);
+    }
+
+    /**
+     * Připojí číslo v českém formátu. Hodnota null se zapíše jako nula.
+     *
+     * @param target Cílový StringBuilder
+     * @param value Hodnota k formátování
+     * @param currency Zda připojit měnu (Kč)
+     * @return Cílový StringBuilder
+     */
+    public static StringBuilder append(StringBuilder target, BigDecimal value, boolean currency) {
+        return CZECH.append(target, value, currency);
+    }
+
+    /**
+     * Připojí částku v haléřích v českém formátu.
+     *
+     * @param target Cílový StringBuilder
+     * @param minorUnits Částka v haléřích
+     * @param currency Zda připojit měnu (Kč)
+     * @return Cílový StringBuilder
+     */
+    public static StringBuilder appendMinorUnits(StringBuilder target, long minorUnits, boolean currency) {
+        return CZECH.appendMinorUnits(target, minorUnits, currency);
+    }
+
+    /**
+     * Zapíše číslo v českém formátu do pole znaků. Hodnota null se zapíše jako nula.
+     * Částce s nejvýše 18 platnými číslicemi stačí {@value #MAX_LENGTH} znaků.
+     *
+     * @param target Cílové pole
+     * @param offset Index prvního zapsaného znaku
+     * @param value Hodnota k formátování
+     * @param currency Zda připojit měnu (Kč)
+     * @return Index za posledním zapsaným znakem
+     */
+    public static int write(char[] target, int offset, BigDecimal value, boolean currency) {
+        return CZECH.write(target, offset, value, currency);
+    }
+
+    /**
+     * Zapíše částku v haléřích v českém formátu do pole znaků (nejvýše {@value #MAX_LENGTH} znaků).
+     *
+     * @param target Cílové pole
+     * @param offset Index prvního zapsaného znaku
+     * @param minorUnits Částka v haléřích
+     * @param currency Zda připojit měnu (Kč)
+     * @return Index za posledním zapsaným znakem
+     */
+    public static int writeMinorUnits(char[] target, int offset, long minorUnits, boolean currency) {
+        return CZECH.writeMinorUnits(target, offset, minorUnits, currency);
+    }
+
+    /**
+     * Zapíše číslo v českém formátu do bufferu v kódování UTF-8. Hodnota null se zapíše jako nula.
+     *
+     * @param target Cílový buffer
+     * @param value Hodnota k formátování
+     * @param currency Zda připojit měnu (Kč)
+     * @return Cílový buffer
+     */
+    public static ByteBuffer put(ByteBuffer target, BigDecimal value, boolean currency) {
+        return CZECH.put(target, value, currency);
+    }
+
+    /**
+     * Zapíše částku v haléřích v českém formátu do bufferu v kódování UTF-8
+     * (nejvýše {@value #MAX_LENGTH} + 1 bajtů, "č" má dva bajty).
+     *
+     * @param target Cílový buffer
+     * @param minorUnits Částka v haléřích
+     * @param currency Zda připojit měnu (Kč)
+     * @return Cílový buffer
+     */
+    public static ByteBuffer putMinorUnits(ByteBuffer target, long minorUnits, boolean currency) {
+        return CZECH.putMinorUnits(target, minorUnits, currency);
     }
-} 
\ No newline at end of file
+}
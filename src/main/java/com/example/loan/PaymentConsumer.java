@@ -0,0 +1,19 @@
+package com.example.loan;
+
+/**
+ * Příjemce jednotlivých splátek generovaných celočíselným výpočtem splátkového kalendáře.
+ * Všechny částky jsou v haléřích, takže předání řádku nevytváří žádné objekty.
+ */
+public interface PaymentConsumer {
+
+    /**
+     * Zpracuje jednu splátku.
+     *
+     * @param monthNumber Číslo měsíce splátky (od 1).
+     * @param principalPaid Zaplacená jistina v haléřích.
+     * @param interestPaid Zaplacený úrok v haléřích.
+     * @param totalPayment Celková měsíční splátka v haléřích.
+     * @param remainingBalance Zbývající zůstatek úvěru po splátce v haléřích.
+     */
+    void accept(int monthNumber, long principalPaid, long interestPaid, long totalPayment, long remainingBalance);
+}
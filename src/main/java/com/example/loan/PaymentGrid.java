@@ -0,0 +1,257 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Tabulka splátek pro jednu výši úvěru a všechny kombinace ročních sazeb a dob splácení
+ * (např. sazby 1 % až 10 % po 0,01 % a doby 60 až 480 měsíců).
+ * Hodnoty jsou shodné s {@link LoanCalculator#calculateMonthlyPayment} a se součty úroků
+ * ze splátkového kalendáře.
+ * <p>
+ * Sazby se zpracovávají v blocích po {@value #RATE_BLOCK}, bloky paralelně ve fork-join poolu.
+ * V rámci bloku se pro n = 1, 2, ... udržuje pole (1 + r)^-n přes všechny sazby bloku
+ * a odhady splátek se počítají jednoduchými smyčkami nad poli double bez volání metod,
+ * které JIT umí vektorizovat. Zaokrouhlení na haléře (s přesným dopočtem blízko poloviny
+ * haléře) a součet úroků, který vyžaduje průchod přes zůstatky, jsou skalární.
+ */
+public class PaymentGrid {
+
+    // Počet sazeb zpracovávaných společně jednou úlohou
+    static final int RATE_BLOCK = 64;
+
+    private final long principal;
+    private final BigDecimal[] annualRates;
+    private final long[] monthlyRates;
+    private final int[] terms;
+    // Hodnoty po řádcích podle sazby: index = rateIndex * terms.length + termIndex
+    private final long[] payments;
+    // Celkové úroky, nebo null, pokud nebyly požadovány
+    private final long[] totalInterest;
+
+    private PaymentGrid(long principal, BigDecimal[] annualRates, long[] monthlyRates, int[] terms,
+            long[] payments, long[] totalInterest) {
+        this.principal = principal;
+        this.annualRates = annualRates;
+        this.monthlyRates = monthlyRates;
+        this.terms = terms;
+        this.payments = payments;
+        this.totalInterest = totalInterest;
+    }
+
+    /**
+     * Spočítá tabulku pro rovnoměrné rozsahy sazeb a dob (obě meze včetně).
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param fromRate Nejnižší roční sazba v procentech.
+     * @param toRate Nejvyšší roční sazba v procentech.
+     * @param rateStep Kladný krok sazby v procentech, např. 0.01.
+     * @param fromTerm Nejkratší doba splácení v měsících.
+     * @param toTerm Nejdelší doba splácení v měsících.
+     * @param termStep Kladný krok doby splácení v měsících.
+     * @param includeTotalInterest Zda spočítat i celkové úroky (průchod přes zůstatky pro každou buňku).
+     * @return Tabulka splátek.
+     */
+    public static PaymentGrid calculate(BigDecimal principal, BigDecimal fromRate, BigDecimal toRate,
+            BigDecimal rateStep, int fromTerm, int toTerm, int termStep, boolean includeTotalInterest) {
+        if (rateStep.signum() <= 0 || termStep <= 0 || fromRate.compareTo(toRate) > 0 || fromTerm > toTerm) {
+            throw new IllegalArgumentException("Neplatný rozsah tabulky: sazby " + fromRate + ".." + toRate + " po "
+                    + rateStep + ", doby " + fromTerm + ".." + toTerm + " po " + termStep);
+        }
+        int rateCount = toRate.subtract(fromRate).divideToIntegralValue(rateStep).intValueExact() + 1;
+        BigDecimal[] annualRates = new BigDecimal[rateCount];
+        for (int i = 0; i < rateCount; i++) {
+            annualRates[i] = fromRate.add(rateStep.multiply(BigDecimal.valueOf(i)));
+        }
+        int[] terms = IntStream.iterate(fromTerm, term -> term <= toTerm, term -> term + termStep).toArray();
+        return calculate(principal, annualRates, terms, includeTotalInterest);
+    }
+
+    /**
+     * Spočítá tabulku pro zadané sazby a doby splácení.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualRates Roční sazby v procentech (řádky tabulky).
+     * @param terms Doby splácení v měsících (sloupce tabulky).
+     * @param includeTotalInterest Zda spočítat i celkové úroky (průchod přes zůstatky pro každou buňku).
+     * @return Tabulka splátek.
+     */
+    public static PaymentGrid calculate(BigDecimal principal, BigDecimal[] annualRates, int[] terms,
+            boolean includeTotalInterest) {
+        long principalMinorUnits = FixedPointLoanCalculator.toMinorUnits(principal);
+        int[] termsCopy = terms.clone();
+        int maxTerm = 0;
+        for (int term : termsCopy) {
+            FixedPointLoanCalculator.checkTerm(term);
+            maxTerm = Math.max(maxTerm, term);
+        }
+        long[] monthlyRates = new long[annualRates.length];
+        for (int i = 0; i < annualRates.length; i++) {
+            monthlyRates[i] = FixedPointLoanCalculator.checkedMonthlyRate(annualRates[i]);
+        }
+
+        long cells = (long) annualRates.length * termsCopy.length;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Tabulka je příliš velká: " + cells + " buněk");
+        }
+        long[] payments = new long[(int) cells];
+        long[] totalInterest = includeTotalInterest ? new long[(int) cells] : null;
+
+        int blocks = (annualRates.length + RATE_BLOCK - 1) / RATE_BLOCK;
+        int lastTerm = maxTerm;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * RATE_BLOCK;
+            int to = Math.min(from + RATE_BLOCK, monthlyRates.length);
+            calculateBlock(principalMinorUnits, monthlyRates, from, to, termsCopy, lastTerm, payments);
+            if (totalInterest != null) {
+                for (int i = from; i < to; i++) {
+                    for (int j = 0; j < termsCopy.length; j++) {
+                        int cell = i * termsCopy.length + j;
+                        totalInterest[cell] = FixedPointLoanCalculator.calculateTotalInterest(principalMinorUnits,
+                                monthlyRates[i], termsCopy[j], payments[cell]);
+                    }
+                }
+            }
+        });
+        return new PaymentGrid(principalMinorUnits, annualRates.clone(), monthlyRates, termsCopy, payments,
+                totalInterest);
+    }
+
+    /**
+     * Spočítá splátky pro sazby from..to-1 a všechny doby splácení.
+     */
+    private static void calculateBlock(long principal, long[] monthlyRates, int from, int to, int[] terms,
+            int maxTerm, long[] payments) {
+        int count = to - from;
+        double[] rates = new double[count];
+        double[] discount = new double[count];
+        double[] power = new double[count];
+        double[] estimates = new double[count];
+        double[] errorBounds = new double[count];
+        for (int k = 0; k < count; k++) {
+            rates[k] = (double) monthlyRates[from + k] / FixedPointLoanCalculator.RATE_ONE;
+            discount[k] = 1 / (1 + rates[k]);
+            power[k] = 1;
+        }
+
+        // Sloupce tabulky v pořadí rostoucí doby, aby stačil jeden průchod přes n
+        int[] order = IntStream.range(0, terms.length).boxed()
+                .sorted((a, b) -> Integer.compare(terms[a], terms[b]))
+                .mapToInt(Integer::intValue).toArray();
+        int next = 0;
+        for (int n = 1; n <= maxTerm && next < order.length; n++) {
+            // power = (1 + r)^-n pro všechny sazby bloku
+            for (int k = 0; k < count; k++) {
+                power[k] *= discount[k];
+            }
+            if (terms[order[next]] != n) {
+                continue;
+            }
+            // Odhad P * r / (1 - (1 + r)^-n) a horní mez zesílení chyby: n-krát zaokrouhlená
+            // mocnina se odčítá od 1, relativní chyba je tedy úměrná n / |1 - power|
+            for (int k = 0; k < count; k++) {
+                double denominator = 1 - power[k];
+                estimates[k] = principal * rates[k] / denominator;
+                errorBounds[k] = (n + 1) / Math.abs(denominator);
+            }
+            while (next < order.length && terms[order[next]] == n) {
+                int column = order[next++];
+                for (int k = 0; k < count; k++) {
+                    long monthlyRate = monthlyRates[from + k];
+                    payments[(from + k) * terms.length + column] = monthlyRate == 0
+                            ? FixedPointLoanCalculator.divideHalfUp(principal, n)
+                            : FixedPointLoanCalculator.roundPaymentEstimate(estimates[k], errorBounds[k], principal,
+                                    monthlyRate, n);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Výše úvěru v haléřích.
+     */
+    public long getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * @return Počet řádků (sazeb).
+     */
+    public int getRateCount() {
+        return annualRates.length;
+    }
+
+    /**
+     * @return Počet sloupců (dob splácení).
+     */
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * @param rateIndex Index řádku.
+     * @return Roční sazba v procentech.
+     */
+    public BigDecimal getAnnualRate(int rateIndex) {
+        return annualRates[rateIndex];
+    }
+
+    /**
+     * @param termIndex Index sloupce.
+     * @return Doba splácení v měsících.
+     */
+    public int getTerm(int termIndex) {
+        return terms[termIndex];
+    }
+
+    /**
+     * @return Měsíční splátka v haléřích.
+     */
+    public long getMonthlyPayment(int rateIndex, int termIndex) {
+        return payments[cell(rateIndex, termIndex)];
+    }
+
+    /**
+     * @return Celkové úroky v haléřích.
+     * @throws IllegalStateException Pokud tabulka byla spočítána bez úroků.
+     */
+    public long getTotalInterest(int rateIndex, int termIndex) {
+        if (totalInterest == null) {
+            throw new IllegalStateException("Tabulka byla spočítána bez celkových úroků.");
+        }
+        return totalInterest[cell(rateIndex, termIndex)];
+    }
+
+    /**
+     * @return true, pokud tabulka obsahuje celkové úroky.
+     */
+    public boolean hasTotalInterest() {
+        return totalInterest != null;
+    }
+
+    /**
+     * @return Celkem zaplaceno (splátka × počet měsíců) v haléřích.
+     * @throws ArithmeticException Pokud součin přeteče rozsah long.
+     */
+    public long getTotalPaid(int rateIndex, int termIndex) {
+        return Math.multiplyExact(getMonthlyPayment(rateIndex, termIndex), terms[termIndex]);
+    }
+
+    /**
+     * @param rateIndex Index řádku.
+     * @return Kopie splátek jednoho řádku (všechny doby pro jednu sazbu) v haléřích.
+     */
+    public long[] getPaymentRow(int rateIndex) {
+        int start = cell(rateIndex, 0);
+        return Arrays.copyOfRange(payments, start, start + terms.length);
+    }
+
+    private int cell(int rateIndex, int termIndex) {
+        if (rateIndex < 0 || rateIndex >= annualRates.length || termIndex < 0 || termIndex >= terms.length) {
+            throw new IndexOutOfBoundsException("Buňka [" + rateIndex + ", " + termIndex + "] mimo tabulku "
+                    + annualRates.length + " × " + terms.length);
+        }
+        return rateIndex * terms.length + termIndex;
+    }
+}
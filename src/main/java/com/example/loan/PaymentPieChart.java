@@ -0,0 +1,76 @@
+package com.example.loan;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.general.DefaultPieDataset;
+
+import javax.swing.JComponent;
+import java.math.BigDecimal;
+
+/**
+ * Koláčový graf rozdělení celkových splátek na jistinu a úroky.
+ * <p>
+ * Jediná třída aplikace, která používá JFreeChart. Okno na ni odkazuje jen přes pole a volání
+ * metod, takže se knihovna grafů načte až při prvním výpočtu, a ne už při spuštění.
+ * Instance se vytváří a mění jen v EDT.
+ */
+public class PaymentPieChart {
+
+    private final DefaultPieDataset dataset;
+    private final JFreeChart chart;
+    private final ChartPanel panel;
+
+    /**
+     * Vytvoří graf s počátečními hodnotami.
+     *
+     * @param principalAmount Celková zaplacená jistina.
+     * @param interestAmount Celkové zaplacené úroky.
+     */
+    public PaymentPieChart(BigDecimal principalAmount, BigDecimal interestAmount) {
+        dataset = new DefaultPieDataset();
+        dataset.setValue("Jistina", principalAmount);
+        dataset.setValue("Úroky", interestAmount);
+        chart = createChart(dataset);
+        panel = new ChartPanel(chart);
+    }
+
+    /**
+     * Načte a inicializuje třídy JFreeChart sestavením grafu, který se zahodí. Volá se ve vlákně
+     * výpočtu, aby se první vytvoření grafu v EDT nezdrželo načítáním knihovny.
+     */
+    public static void preload() {
+        createChart(new DefaultPieDataset());
+    }
+
+    /**
+     * @return Komponenta s grafem pro vložení do okna.
+     */
+    public JComponent getPanel() {
+        return panel;
+    }
+
+    /**
+     * Nastaví nové hodnoty.
+     *
+     * @param principalAmount Celková zaplacená jistina.
+     * @param interestAmount Celkové zaplacené úroky.
+     */
+    public void update(BigDecimal principalAmount, BigDecimal interestAmount) {
+        // Obě hodnoty se změní bez mezilehlého překreslení; graf se překreslí jednou po obnovení notifikací
+        chart.setNotify(false);
+        dataset.setValue("Jistina", principalAmount);
+        dataset.setValue("Úroky", interestAmount);
+        chart.setNotify(true);
+    }
+
+    private static JFreeChart createChart(DefaultPieDataset dataset) {
+        return ChartFactory.createPieChart(
+                "Rozdělení celkových splátek", // Název grafu
+                dataset, // Data
+                true, // Zobrazit legendu
+                true, // Zobrazit tooltips
+                false // Nezobrazovat URL
+        );
+    }
+}
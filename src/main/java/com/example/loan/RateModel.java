@@ -0,0 +1,21 @@
+package com.example.loan;
+
+import java.util.SplittableRandom;
+
+/**
+ * Model budoucího vývoje roční úrokové sazby pro simulaci {@link RateStressSimulation}.
+ * Model nesmí mít proměnný stav: veškerá náhodnost pochází z předaného generátoru,
+ * takže simulace se stejným semínkem dá vždy stejné výsledky a model lze sdílet mezi vlákny.
+ */
+public interface RateModel {
+
+    /**
+     * Vygeneruje sazbu na konci dalšího období.
+     *
+     * @param currentRate Aktuální roční sazba v procentech.
+     * @param years Délka období v letech (např. 5 pro pětiletou fixaci).
+     * @param random Generátor náhodných čísel aktuální simulační cesty.
+     * @return Roční sazba v procentech na konci období.
+     */
+    double nextRate(double currentRate, double years, SplittableRandom random);
+}
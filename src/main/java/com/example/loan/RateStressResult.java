@@ -0,0 +1,106 @@
+package com.example.loan;
+
+/**
+ * Výsledek simulace {@link RateStressSimulation}: rozdělení nové splátky po každé refixaci,
+ * největšího splátkového šoku na cestě a celkem zaplacené částky. Částky jsou v haléřích.
+ * Percentily pocházejí z histogramů s relativní přesností cca 0,1 %.
+ */
+public class RateStressResult {
+    // Počet simulačních cest
+    private final int paths;
+    // Délka fixace v měsících
+    private final int fixationMonths;
+    // Splátka do první refixace
+    private final long initialMonthlyPayment;
+    // Nová splátka po i-té refixaci (od 0)
+    private final Histogram[] refixationPayments;
+    // Největší splátka na cestě vůči počáteční, v 1/shockScale
+    private final Histogram maxShock;
+    // Součet všech splátek na cestě
+    private final Histogram totalPaid;
+    private final long shockScale;
+
+    RateStressResult(int paths, int fixationMonths, long initialMonthlyPayment, Histogram[] refixationPayments,
+            Histogram maxShock, Histogram totalPaid, long shockScale) {
+        this.paths = paths;
+        this.fixationMonths = fixationMonths;
+        this.initialMonthlyPayment = initialMonthlyPayment;
+        this.refixationPayments = refixationPayments;
+        this.maxShock = maxShock;
+        this.totalPaid = totalPaid;
+        this.shockScale = shockScale;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public long getInitialMonthlyPayment() {
+        return initialMonthlyPayment;
+    }
+
+    /**
+     * @return Počet refixací během splácení.
+     */
+    public int getRefixationCount() {
+        return refixationPayments.length;
+    }
+
+    /**
+     * @param refixation Pořadí refixace (od 0).
+     * @return Měsíc, od kterého platí nová sazba (od 1).
+     */
+    public int getRefixationMonth(int refixation) {
+        return (refixation + 1) * fixationMonths + 1;
+    }
+
+    /**
+     * @param refixation Pořadí refixace (od 0).
+     * @return Histogram nové splátky po refixaci v haléřích.
+     */
+    public Histogram getPaymentHistogram(int refixation) {
+        return refixationPayments[refixation];
+    }
+
+    /**
+     * @param refixation Pořadí refixace (od 0).
+     * @param percentile Percentil v rozsahu 0 až 100.
+     * @return Nová splátka po refixaci na daném percentilu v haléřích.
+     */
+    public long getPaymentPercentile(int refixation, double percentile) {
+        return refixationPayments[refixation].getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Splátkový šok cesty je poměr největší splátky na cestě k počáteční splátce minus 1
+     * (0,25 znamená splátku vyšší o 25 %, 0 znamená, že splátka nikdy nevzrostla).
+     *
+     * @param percentile Percentil v rozsahu 0 až 100.
+     * @return Splátkový šok na daném percentilu.
+     */
+    public double getMaxPaymentShockPercentile(double percentile) {
+        return (double) maxShock.getValueAtPercentile(percentile) / shockScale - 1;
+    }
+
+    /**
+     * @return Histogram největší splátky na cestě vůči počáteční v setinách procenta (10000 = beze změny).
+     */
+    public Histogram getMaxPaymentShockHistogram() {
+        return maxShock;
+    }
+
+    /**
+     * @param percentile Percentil v rozsahu 0 až 100.
+     * @return Celkem zaplaceno na daném percentilu v haléřích.
+     */
+    public long getTotalPaidPercentile(double percentile) {
+        return totalPaid.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * @return Histogram celkem zaplacené částky v haléřích (včetně vyrovnání zůstatku v poslední splátce).
+     */
+    public Histogram getTotalPaidHistogram() {
+        return totalPaid;
+    }
+}
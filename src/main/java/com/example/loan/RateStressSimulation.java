@@ -0,0 +1,149 @@
+package com.example.loan;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulace úrokového rizika při refixacích. Pro každou simulační cestu se na konci
+ * každé fixace vygeneruje nová sazba z {@link RateModel}, zaokrouhlí se na setiny procenta
+ * a splátka se přepočítá na zbývající dobu (stejně jako {@link LoanEvent.Recalculation#PAYMENT}
+ * v {@link EventSchedule}). Splátky se počítají v long aritmetice přes {@link AnnuityFactorTable},
+ * kalendáře se neukládají.
+ * <p>
+ * Cesty se dělí do bloků po {@value #PATHS_PER_BLOCK}, bloky běží paralelně ve fork-join poolu.
+ * Každý blok má vlastní generátor odvozený přes {@link SplittableRandom#split()} z kořenového
+ * generátoru v pevném pořadí bloků, takže výsledek pro dané semínko nezávisí na počtu vláken.
+ * Výsledky se průběžně sčítají do histogramů ({@link Histogram}), paměť tedy neroste s počtem cest.
+ */
+public class RateStressSimulation {
+
+    // Počet cest zpracovaných jedním blokem s vlastním generátorem
+    static final int PATHS_PER_BLOCK = 256;
+    // Přesnost histogramů: 10 bitů, tedy relativní chyba percentilu do 0,1 %
+    static final int HISTOGRAM_PRECISION_BITS = 10;
+    // Rozsah ročních sazeb v setinách procenta, na který se sazby z modelu omezí
+    private static final int MIN_RATE_STEP = -9_999;
+    private static final int MAX_RATE_STEP = 100_000;
+    // Splátkový šok se ukládá v setinách procenta počáteční splátky
+    private static final long SHOCK_SCALE = 10_000;
+
+    private final RateModel model;
+    private final int fixationMonths;
+    private final int paths;
+    private final long seed;
+
+    /**
+     * @param model Model vývoje sazby.
+     * @param fixationMonths Délka fixace v měsících (refixace po každých fixationMonths měsících).
+     * @param paths Počet simulačních cest.
+     * @param seed Semínko generátoru; stejné semínko dává stejné výsledky.
+     */
+    public RateStressSimulation(RateModel model, int fixationMonths, int paths, long seed) {
+        if (fixationMonths <= 0 || paths <= 0) {
+            throw new IllegalArgumentException("Délka fixace i počet cest musí být kladné: " + fixationMonths
+                    + ", " + paths);
+        }
+        this.model = model;
+        this.fixationMonths = fixationMonths;
+        this.paths = paths;
+        this.seed = seed;
+    }
+
+    /**
+     * Spustí simulaci pro jeden úvěr. Počáteční sazba úvěru platí do první refixace.
+     *
+     * @param loan Zadání úvěru.
+     * @return Rozdělení splátek po refixacích, největšího splátkového šoku a celkem zaplacené částky.
+     * @throws ArithmeticException Pokud celkem zaplacená částka přeteče rozsah long.
+     */
+    public RateStressResult simulate(LoanSpec loan) {
+        int refixations = (loan.getLoanTermMonths() - 1) / fixationMonths;
+        long initialPayment = FixedPointLoanCalculator.calculateMonthlyPayment(loan.getPrincipalMinorUnits(),
+                loan.getMonthlyRate(), loan.getLoanTermMonths());
+
+        int blocks = (paths + PATHS_PER_BLOCK - 1) / PATHS_PER_BLOCK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] blockRandoms = new SplittableRandom[blocks];
+        for (int block = 0; block < blocks; block++) {
+            blockRandoms[block] = root.split();
+        }
+
+        Accumulator total = IntStream.range(0, blocks).parallel()
+                .mapToObj(block -> simulateBlock(loan, initialPayment, refixations, blockRandoms[block],
+                        Math.min(PATHS_PER_BLOCK, paths - block * PATHS_PER_BLOCK)))
+                .reduce(Accumulator::merge)
+                .orElseThrow(IllegalStateException::new);
+        return new RateStressResult(paths, fixationMonths, initialPayment, total.refixationPayments,
+                total.maxShock, total.totalPaid, SHOCK_SCALE);
+    }
+
+    /**
+     * Nasimuluje {@code count} cest jednoho bloku.
+     */
+    private Accumulator simulateBlock(LoanSpec loan, long initialPayment, int refixations, SplittableRandom random,
+            int count) {
+        Accumulator accumulator = new Accumulator(refixations);
+        AnnuityFactorTable table = AnnuityFactorTable.standard();
+        int term = loan.getLoanTermMonths();
+        double initialAnnualRate = loan.getAnnualInterestRate().doubleValue();
+
+        for (int path = 0; path < count; path++) {
+            long balance = loan.getPrincipalMinorUnits();
+            long monthlyRate = loan.getMonthlyRate();
+            long payment = initialPayment;
+            long maxPayment = initialPayment;
+            long paid = 0;
+            double annualRate = initialAnnualRate;
+
+            for (int month = 1; month <= term; month++) {
+                if (month > 1 && (month - 1) % fixationMonths == 0) {
+                    // Refixace na začátku měsíce: nová sazba a nová splátka na zbývající dobu
+                    annualRate = model.nextRate(annualRate, fixationMonths / 12.0, random);
+                    long step = Math.max(MIN_RATE_STEP, Math.min(MAX_RATE_STEP, Math.round(annualRate * 100)));
+                    monthlyRate = AnnuityFactorTable.monthlyRateForStep((int) step);
+                    payment = table.calculateMonthlyPayment(balance, monthlyRate, term - month + 1);
+                    accumulator.refixationPayments[(month - 1) / fixationMonths - 1].record(Math.max(payment, 0));
+                    maxPayment = Math.max(maxPayment, payment);
+                }
+                long interest = FixedPointLoanCalculator.multiplyByRate(balance, monthlyRate);
+                balance -= payment - interest;
+                paid = Math.addExact(paid, payment);
+                // Poslední splátka vyrovná zůstatek jako ve FixedPointLoanCalculator, úvěr se splatí celý
+                if (month == term) {
+                    paid = Math.addExact(paid, balance);
+                }
+            }
+
+            if (initialPayment > 0) {
+                accumulator.maxShock.record(Math.max(0, maxPayment) * SHOCK_SCALE / initialPayment);
+            }
+            accumulator.totalPaid.record(Math.max(paid, 0));
+        }
+        return accumulator;
+    }
+
+    /**
+     * Histogramy jednoho bloku cest; bloky se slučují sčítáním.
+     */
+    private static class Accumulator {
+        final Histogram[] refixationPayments;
+        final Histogram maxShock = new Histogram(HISTOGRAM_PRECISION_BITS);
+        final Histogram totalPaid = new Histogram(HISTOGRAM_PRECISION_BITS);
+
+        Accumulator(int refixations) {
+            refixationPayments = new Histogram[refixations];
+            for (int i = 0; i < refixations; i++) {
+                refixationPayments[i] = new Histogram(HISTOGRAM_PRECISION_BITS);
+            }
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int i = 0; i < refixationPayments.length; i++) {
+                refixationPayments[i].merge(other.refixationPayments[i]);
+            }
+            maxShock.merge(other.maxShock);
+            totalPaid.merge(other.totalPaid);
+            return this;
+        }
+    }
+}
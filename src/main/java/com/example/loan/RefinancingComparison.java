@@ -0,0 +1,190 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Porovnání stávajícího úvěru po zaplacení {@code paidMonths} splátek s nabídkami refinancování.
+ * Každá nabídka je nový úvěr na zbývající jistinu; jednorázové poplatky nabídky i poplatek
+ * za předčasné splacení stávajícího úvěru se platí hotově v okamžiku refinancování.
+ * <p>
+ * Údaje o stávajícím úvěru (zbývající jistina, zbývající úroky a současná hodnota zbývajících
+ * splátek) se spočítají jednou při vytvoření a sdílí se pro všechny nabídky. Pro nabídku
+ * se pak počítá jen splátka (přes {@link AnnuityFactorTable#standard()}), jeden průchod
+ * zůstatky pro součet úroků a bod zvratu i současná hodnota v uzavřeném tvaru.
+ * {@link #compareAll} porovnává nabídky paralelně ve společném fork-join poolu.
+ * <p>
+ * Instance je neměnná a vláknově bezpečná.
+ */
+public class RefinancingComparison {
+
+    private final AnnuityFactorTable factors = AnnuityFactorTable.standard();
+    // Zbývající jistina, která se refinancuje
+    private final long remainingBalance;
+    // Počet zbývajících splátek stávajícího úvěru
+    private final int remainingMonths;
+    // Splátka stávajícího úvěru
+    private final long monthlyPayment;
+    // Součet úroků ze zbývajících splátek stávajícího úvěru
+    private final long remainingInterest;
+    // Poplatek za předčasné splacení stávajícího úvěru
+    private final long earlyRepaymentFee;
+    // Měsíční diskontní sazba
+    private final double discountRate;
+    // Současná hodnota zbývajících splátek stávajícího úvěru
+    private final double remainingPresentValue;
+
+    /**
+     * Připraví porovnání pro stávající úvěr.
+     *
+     * @param currentLoan Zadání stávajícího úvěru.
+     * @param paidMonths Počet již zaplacených splátek (0 až doba splácení - 1).
+     * @param earlyRepaymentFee Poplatek za předčasné splacení stávajícího úvěru.
+     * @param annualDiscountRate Roční diskontní sazba v procentech pro současnou hodnotu úspor.
+     * @throws IllegalArgumentException Pokud počet zaplacených splátek neleží v době splácení
+     *         nebo je poplatek či diskontní sazba záporná.
+     * @throws ArithmeticException Pokud součet úroků přeteče rozsah long.
+     */
+    public RefinancingComparison(LoanSpec currentLoan, int paidMonths, BigDecimal earlyRepaymentFee,
+            BigDecimal annualDiscountRate) {
+        int term = currentLoan.getLoanTermMonths();
+        if (paidMonths < 0 || paidMonths >= term) {
+            throw new IllegalArgumentException("Počet zaplacených splátek musí být mezi 0 a " + (term - 1) + ": "
+                    + paidMonths);
+        }
+        if (earlyRepaymentFee.signum() < 0 || annualDiscountRate.signum() < 0) {
+            throw new IllegalArgumentException("Poplatek ani diskontní sazba nesmí být záporné: "
+                    + earlyRepaymentFee + ", " + annualDiscountRate);
+        }
+        LazySchedule schedule = LazySchedule.of(currentLoan);
+        long[] interest = new long[1];
+        schedule.forEach(paidMonths, term, (month, principalPaid, interestPaid, totalPayment, balance) ->
+                interest[0] = Math.addExact(interest[0], interestPaid));
+
+        this.remainingBalance = paidMonths == 0 ? currentLoan.getPrincipalMinorUnits()
+                : schedule.getRemainingBalance(paidMonths - 1);
+        this.remainingMonths = term - paidMonths;
+        this.monthlyPayment = schedule.getMonthlyPayment();
+        this.remainingInterest = interest[0];
+        this.earlyRepaymentFee = FixedPointLoanCalculator.toMinorUnits(earlyRepaymentFee);
+        this.discountRate = annualDiscountRate.doubleValue() / 1200;
+        this.remainingPresentValue = monthlyPayment * annuityFactor(remainingMonths);
+    }
+
+    /**
+     * Porovná jednu nabídku v aktuálním vlákně.
+     *
+     * @param offer Nabídka refinancování.
+     * @return Výsledek porovnání.
+     * @throws ArithmeticException Pokud některá z částek přeteče rozsah long.
+     */
+    public RefinancingResult compare(RefinancingOffer offer) {
+        int term = offer.getLoanTermMonths();
+        long payment = factors.calculateMonthlyPayment(remainingBalance, offer.getMonthlyRate(), term);
+        long totalInterest = FixedPointLoanCalculator.calculateTotalInterest(remainingBalance, offer.getMonthlyRate(),
+                term, payment);
+        long upfront = Math.addExact(offer.getFees(), earlyRepaymentFee);
+        long currentTotal = Math.multiplyExact(monthlyPayment, remainingMonths);
+        long offerTotal = Math.multiplyExact(payment, term);
+        long totalSavings = Math.subtractExact(Math.subtractExact(currentTotal, offerTotal), upfront);
+        double presentValue = remainingPresentValue - payment * annuityFactor(term) - upfront;
+        long interestSavings = Math.subtractExact(remainingInterest, totalInterest);
+        return new RefinancingResult(offer, payment, totalInterest, interestSavings, totalSavings,
+                Math.round(presentValue), breakEvenMonth(upfront, monthlyPayment, remainingMonths, payment, term));
+    }
+
+    /**
+     * Porovná všechny nabídky paralelně.
+     *
+     * @param offers Nabídky refinancování.
+     * @return Výsledky ve stejném pořadí jako nabídky.
+     */
+    public RefinancingResult[] compareAll(RefinancingOffer[] offers) {
+        RefinancingResult[] results = new RefinancingResult[offers.length];
+        Arrays.parallelSetAll(results, i -> compare(offers[i]));
+        return results;
+    }
+
+    /**
+     * Porovná všechny nabídky paralelně.
+     *
+     * @param offers Nabídky refinancování.
+     * @return Výsledky ve stejném pořadí jako nabídky.
+     */
+    public List<RefinancingResult> compareAll(List<RefinancingOffer> offers) {
+        return Arrays.asList(compareAll(offers.toArray(new RefinancingOffer[0])));
+    }
+
+    /**
+     * @return Zbývající jistina stávajícího úvěru v haléřích.
+     */
+    public long getRemainingBalance() {
+        return remainingBalance;
+    }
+
+    public int getRemainingMonths() {
+        return remainingMonths;
+    }
+
+    /**
+     * @return Splátka stávajícího úvěru v haléřích.
+     */
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    /**
+     * @return Úroky, které by se zaplatily ve zbývajících splátkách stávajícího úvěru, v haléřích.
+     */
+    public long getRemainingInterest() {
+        return remainingInterest;
+    }
+
+    /**
+     * @return Částka potřebná k předčasnému splacení (zbývající jistina a poplatek) v haléřích.
+     */
+    public long getPayoffAmount() {
+        return Math.addExact(remainingBalance, earlyRepaymentFee);
+    }
+
+    /**
+     * Současná hodnota jednotkové splátky placené na konci každého z {@code months} měsíců.
+     */
+    private double annuityFactor(int months) {
+        if (discountRate == 0) {
+            return months;
+        }
+        return -Math.expm1(-months * Math.log1p(discountRate)) / discountRate;
+    }
+
+    /**
+     * Najde první měsíc j, kdy součet rozdílů splátek za j měsíců pokryje poplatky.
+     * Úspory rostou lineárně, dokud běží oba úvěry, a po skončení kratšího z nich se mění
+     * jen o splátku delšího; stačí proto vyřešit dvě lineární nerovnice.
+     */
+    static int breakEvenMonth(long upfront, long currentPayment, int currentMonths, long offerPayment,
+            int offerMonths) {
+        long difference = Math.subtractExact(currentPayment, offerPayment);
+        int common = Math.min(currentMonths, offerMonths);
+        if (difference > 0 || (difference == 0 && upfront == 0)) {
+            long month = difference == 0 ? 1 : Math.max(1, ceilDiv(upfront, difference));
+            if (month <= common) {
+                return (int) month;
+            }
+        }
+        // Nový úvěr skončí dřív: dál se šetří celá splátka stávajícího úvěru
+        if (offerMonths < currentMonths && currentPayment > 0) {
+            long missing = Math.subtractExact(upfront, Math.multiplyExact(common, difference));
+            long month = common + Math.max(1, ceilDiv(missing, currentPayment));
+            if (month <= currentMonths) {
+                return (int) month;
+            }
+        }
+        return 0;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
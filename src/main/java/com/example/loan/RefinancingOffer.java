@@ -0,0 +1,71 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+
+/**
+ * Neměnná nabídka refinancování: nový úvěr na zbývající jistinu stávajícího úvěru
+ * s vlastní sazbou, dobou splácení a jednorázovými poplatky (placenými hotově, ne z úvěru).
+ */
+public class RefinancingOffer {
+    // Identifikátor nabídky (např. název banky), nebo null
+    private final String id;
+    // Roční úroková sazba v procentech
+    private final BigDecimal annualInterestRate;
+    // Doba splácení nového úvěru v měsících
+    private final int loanTermMonths;
+    // Jednorázové poplatky v haléřích
+    private final long fees;
+    // Měsíční sazba v měřítku FixedPointLoanCalculator.RATE_ONE
+    private final long monthlyRate;
+
+    /**
+     * Konstruktor pro vytvoření nabídky.
+     *
+     * @param id Identifikátor nabídky, nebo null.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení nového úvěru v měsících.
+     * @param fees Jednorázové poplatky s nejvýše dvěma desetinnými místy.
+     * @throws IllegalArgumentException Pokud doba splácení není kladná nebo jsou poplatky záporné.
+     * @throws ArithmeticException Pokud mají poplatky více než dvě desetinná místa.
+     */
+    public RefinancingOffer(String id, BigDecimal annualInterestRate, int loanTermMonths, BigDecimal fees) {
+        FixedPointLoanCalculator.checkTerm(loanTermMonths);
+        if (fees.signum() < 0) {
+            throw new IllegalArgumentException("Poplatky nesmí být záporné: " + fees);
+        }
+        this.id = id;
+        this.annualInterestRate = annualInterestRate;
+        this.loanTermMonths = loanTermMonths;
+        this.fees = FixedPointLoanCalculator.toMinorUnits(fees);
+        this.monthlyRate = FixedPointLoanCalculator.checkedMonthlyRate(annualInterestRate);
+    }
+
+    /**
+     * @return Identifikátor nabídky, nebo null, pokud nebyl zadán.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public BigDecimal getAnnualInterestRate() {
+        return annualInterestRate;
+    }
+
+    public int getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    /**
+     * @return Jednorázové poplatky v haléřích.
+     */
+    public long getFees() {
+        return fees;
+    }
+
+    /**
+     * @return Měsíční sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     */
+    public long getMonthlyRate() {
+        return monthlyRate;
+    }
+}
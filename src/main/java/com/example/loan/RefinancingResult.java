@@ -0,0 +1,93 @@
+package com.example.loan;
+
+/**
+ * Porovnání jedné nabídky refinancování se stávajícím úvěrem.
+ * Částky jsou v haléřích; úspory jsou kladné, pokud je nabídka pro klienta výhodnější.
+ */
+public class RefinancingResult {
+    // Porovnávaná nabídka
+    private final RefinancingOffer offer;
+    // Měsíční splátka nového úvěru
+    private final long monthlyPayment;
+    // Celkové úroky nového úvěru
+    private final long totalInterest;
+    // Úroky stávajícího úvěru minus úroky nového úvěru
+    private final long interestSavings;
+    // Zbývající platby stávajícího úvěru minus platby nového úvěru včetně všech poplatků
+    private final long totalSavings;
+    // Čistá současná hodnota úspor
+    private final long netPresentValue;
+    // První měsíc, kdy úspory pokryjí poplatky, nebo 0
+    private final int breakEvenMonth;
+
+    RefinancingResult(RefinancingOffer offer, long monthlyPayment, long totalInterest, long interestSavings,
+            long totalSavings, long netPresentValue, int breakEvenMonth) {
+        this.offer = offer;
+        this.monthlyPayment = monthlyPayment;
+        this.totalInterest = totalInterest;
+        this.interestSavings = interestSavings;
+        this.totalSavings = totalSavings;
+        this.netPresentValue = netPresentValue;
+        this.breakEvenMonth = breakEvenMonth;
+    }
+
+    public RefinancingOffer getOffer() {
+        return offer;
+    }
+
+    /**
+     * @return Měsíční splátka nového úvěru.
+     */
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    /**
+     * @return Celkové úroky nového úvěru.
+     */
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    /**
+     * @return Rozdíl celkových úroků: zbývající úroky stávajícího úvěru minus úroky nového.
+     */
+    public long getInterestSavings() {
+        return interestSavings;
+    }
+
+    /**
+     * @return Zbývající platby stávajícího úvěru minus platby nového úvěru, poplatky nabídky
+     *         a poplatek za předčasné splacení.
+     */
+    public long getTotalSavings() {
+        return totalSavings;
+    }
+
+    /**
+     * @return Čistá současná hodnota úspor při diskontní sazbě porovnání.
+     */
+    public long getNetPresentValue() {
+        return netPresentValue;
+    }
+
+    /**
+     * @return Číslo měsíce od refinancování, ve kterém součet ušetřených splátek poprvé pokryje
+     *         poplatky, nebo 0, pokud se refinancování nikdy nevyplatí.
+     */
+    public int getBreakEvenMonth() {
+        return breakEvenMonth;
+    }
+
+    @Override
+    public String toString() {
+        return "RefinancingResult{" +
+               "offer=" + offer.getId() +
+               ", monthlyPayment=" + FixedPointLoanCalculator.toBigDecimal(monthlyPayment) +
+               ", interestSavings=" + FixedPointLoanCalculator.toBigDecimal(interestSavings) +
+               ", totalSavings=" + FixedPointLoanCalculator.toBigDecimal(totalSavings) +
+               ", netPresentValue=" + FixedPointLoanCalculator.toBigDecimal(netPresentValue) +
+               ", breakEvenMonth=" + breakEvenMonth +
+               '}';
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+
+/**
+ * Cache spočítaných splátkových kalendářů a souhrnů před {@link LoanCalculator}.
+ * Klíčem jsou normalizované parametry úvěru (haléře, měsíční sazba, doba splácení),
+ * takže 5.0 a 5.00 sdílí stejnou položku. Kalendáře jsou neměnné ({@link ScheduleTable}),
+ * a proto je lze bezpečně sdílet mezi vlákny i okny aplikace.
+ * <p>
+ * Kalendáře jsou omezeny počtem i odhadem obsazené paměti, souhrny jen počtem.
+ * Souhrn se u úvěru, jehož kalendář je v cache, bere přímo z kalendáře.
+ */
+public class ScheduleCache {
+
+    // Režie objektu a hlaviček polí v odhadu velikosti kalendáře
+    private static final long SCHEDULE_OVERHEAD = 4 * 16 + 48;
+    // Odhad velikosti souhrnu včetně klíče
+    private static final long SUMMARY_WEIGHT = 96;
+
+    private final LruCache<LoanKey, ScheduleTable> schedules;
+    private final LruCache<LoanKey, LoanSummary> summaries;
+
+    /**
+     * Vytvoří cache.
+     *
+     * @param maxSchedules Největší počet kalendářů.
+     * @param maxScheduleBytes Největší odhad paměti obsazené kalendáři v bajtech.
+     * @param maxSummaries Největší počet souhrnů.
+     */
+    public ScheduleCache(int maxSchedules, long maxScheduleBytes, int maxSummaries) {
+        this.schedules = new LruCache<>(maxSchedules, maxScheduleBytes, ScheduleCache::estimateBytes);
+        this.summaries = new LruCache<>(maxSummaries, maxSummaries * SUMMARY_WEIGHT, summary -> SUMMARY_WEIGHT);
+    }
+
+    /**
+     * Vrátí splátkový kalendář z cache, nebo ho spočítá.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Neměnný splátkový kalendář.
+     */
+    public ScheduleTable getSchedule(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        return getSchedule(new LoanSpec(principal, annualInterestRate, loanTermMonths));
+    }
+
+    /**
+     * Vrátí splátkový kalendář z cache, nebo ho spočítá.
+     *
+     * @param loan Zadání úvěru.
+     * @return Neměnný splátkový kalendář.
+     */
+    public ScheduleTable getSchedule(LoanSpec loan) {
+        return schedules.get(LoanKey.of(loan),
+                key -> ScheduleTable.generate(key.getPrincipal(), key.getMonthlyRate(), key.getLoanTermMonths()));
+    }
+
+    /**
+     * Vrátí souhrn úvěru z cache, nebo ho spočítá bez sestavení kalendáře.
+     *
+     * @param loan Zadání úvěru.
+     * @return Souhrn úvěru.
+     */
+    public LoanSummary getSummary(LoanSpec loan) {
+        LoanKey key = LoanKey.of(loan);
+        ScheduleTable schedule = schedules.peek(key);
+        if (schedule != null) {
+            return schedule.getSummary();
+        }
+        return summaries.get(key,
+                k -> LoanSummary.calculate(k.getPrincipal(), k.getMonthlyRate(), k.getLoanTermMonths()));
+    }
+
+    /**
+     * Vrátí měsíční splátku z cache, nebo ji spočítá.
+     *
+     * @param principal Výše úvěru s nejvýše dvěma desetinnými místy.
+     * @param annualInterestRate Roční úroková sazba v procentech.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Měsíční splátka.
+     */
+    public BigDecimal getMonthlyPayment(BigDecimal principal, BigDecimal annualInterestRate, int loanTermMonths) {
+        return getSummary(new LoanSpec(principal, annualInterestRate, loanTermMonths)).getMonthlyPaymentAmount();
+    }
+
+    /**
+     * @return Statistiky cache kalendářů.
+     */
+    public CacheStats getScheduleStats() {
+        return schedules.stats();
+    }
+
+    /**
+     * @return Statistiky cache souhrnů.
+     */
+    public CacheStats getSummaryStats() {
+        return summaries.stats();
+    }
+
+    /**
+     * Odstraní všechny položky.
+     */
+    public void clear() {
+        schedules.clear();
+        summaries.clear();
+    }
+
+    /**
+     * Odhad paměti kalendáře: čtyři pole long a režie objektů.
+     */
+    private static long estimateBytes(ScheduleTable schedule) {
+        return SCHEDULE_OVERHEAD + 4L * Long.BYTES * schedule.size();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.loan;
+
+import java.nio.file.Path;
+
+/**
+ * Výsledek ověření CSV kalendáře proti novému výpočtu ze zadání v metadatech:
+ * kolik řádků se liší, od kterého měsíce a o kolik nejvíc, a rozdíly souhrnných údajů.
+ * Rozdíly jsou v haléřích ve směru soubor − výpočet.
+ */
+public class ScheduleDriftReport {
+    // Ověřený soubor
+    private final Path file;
+    // Metadata ze souboru
+    private final CsvScheduleHeader header;
+    // Počet řádků podle nového výpočtu
+    private final int expectedRowCount;
+    // Počet řádků, které se v některém sloupci liší
+    private final int mismatchedRows;
+    // První měsíc s rozdílem, nebo 0
+    private final int firstMismatchMonth;
+    // Největší absolutní rozdíl v některém sloupci řádku
+    private final long maxRowDrift;
+    // Rozdíly souhrnných údajů
+    private final long monthlyPaymentDrift;
+    private final long totalInterestDrift;
+    private final long totalPaidDrift;
+
+    ScheduleDriftReport(Path file, CsvScheduleHeader header, int expectedRowCount, int mismatchedRows,
+            int firstMismatchMonth, long maxRowDrift, long monthlyPaymentDrift, long totalInterestDrift,
+            long totalPaidDrift) {
+        this.file = file;
+        this.header = header;
+        this.expectedRowCount = expectedRowCount;
+        this.mismatchedRows = mismatchedRows;
+        this.firstMismatchMonth = firstMismatchMonth;
+        this.maxRowDrift = maxRowDrift;
+        this.monthlyPaymentDrift = monthlyPaymentDrift;
+        this.totalInterestDrift = totalInterestDrift;
+        this.totalPaidDrift = totalPaidDrift;
+    }
+
+    /**
+     * @return true, pokud se soubor v čemkoli liší od nového výpočtu.
+     */
+    public boolean hasDrift() {
+        return mismatchedRows != 0 || header.getRowCount() != expectedRowCount
+                || monthlyPaymentDrift != 0 || totalInterestDrift != 0 || totalPaidDrift != 0;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public CsvScheduleHeader getHeader() {
+        return header;
+    }
+
+    /**
+     * @return Počet řádků kalendáře podle nového výpočtu.
+     */
+    public int getExpectedRowCount() {
+        return expectedRowCount;
+    }
+
+    /**
+     * @return Počet řádků, které se liší alespoň v jednom sloupci (chybějící a přebývající
+     *         řádky se nepočítají, viz {@link #getExpectedRowCount()}).
+     */
+    public int getMismatchedRows() {
+        return mismatchedRows;
+    }
+
+    /**
+     * @return Číslo prvního měsíce s rozdílem, nebo 0, pokud se žádný řádek neliší.
+     */
+    public int getFirstMismatchMonth() {
+        return firstMismatchMonth;
+    }
+
+    /**
+     * @return Největší absolutní rozdíl jednoho sloupce v haléřích přes všechny řádky.
+     */
+    public long getMaxRowDrift() {
+        return maxRowDrift;
+    }
+
+    public long getMonthlyPaymentDrift() {
+        return monthlyPaymentDrift;
+    }
+
+    public long getTotalInterestDrift() {
+        return totalInterestDrift;
+    }
+
+    public long getTotalPaidDrift() {
+        return totalPaidDrift;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleDriftReport{" +
+               "file=" + file +
+               ", rows=" + header.getRowCount() +
+               ", expectedRows=" + expectedRowCount +
+               ", mismatchedRows=" + mismatchedRows +
+               ", firstMismatchMonth=" + firstMismatchMonth +
+               ", maxRowDrift=" + maxRowDrift +
+               ", monthlyPaymentDrift=" + monthlyPaymentDrift +
+               ", totalInterestDrift=" + totalInterestDrift +
+               ", totalPaidDrift=" + totalPaidDrift +
+               '}';
+    }
+}
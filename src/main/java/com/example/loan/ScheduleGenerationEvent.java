@@ -0,0 +1,29 @@
+package com.example.loan;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR událost generování splátkového kalendáře. Zapisuje se jen se zapnutými {@link LoanMetrics}.
+ */
+@Name("com.example.loan.ScheduleGeneration")
+@Label("Generování splátkového kalendáře")
+@Category("Hypoteční kalkulačka")
+@Description("Výpočet splátky a průchod všemi měsíci kalendáře včetně zpracování řádků příjemcem.")
+public class ScheduleGenerationEvent extends Event {
+
+    @Label("Výše úvěru (haléře)")
+    long principal;
+
+    @Label("Měsíční sazba (× 10^-10)")
+    long monthlyRate;
+
+    @Label("Doba splácení (měsíce)")
+    int loanTermMonths;
+
+    @Label("Měsíční splátka (haléře)")
+    long monthlyPayment;
+}
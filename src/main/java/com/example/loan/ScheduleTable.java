@@ -0,0 +1,168 @@
+package com.example.loan;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Sloupcový splátkový kalendář uložený v polích long (částky v haléřích).
+ * Místo tisíců objektů Payment drží čtyři paralelní pole, takže kalendář na 1200 měsíců
+ * zabírá jednotky kilobajtů. Pro stávající kód se chová jako neměnný seznam splátek:
+ * objekty Payment se vytvářejí až při přístupu přes {@link #get(int)}.
+ */
+public class ScheduleTable extends AbstractList<Payment> implements RandomAccess {
+
+    // Sloupce kalendáře, index 0 odpovídá prvnímu měsíci
+    private final long[] principalPaid;
+    private final long[] interestPaid;
+    private final long[] totalPayment;
+    private final long[] remainingBalance;
+
+    // Souhrnné údaje dopočítané při vytvoření kalendáře
+    private final long monthlyPayment;
+    private final long totalInterest;
+    private final long totalPrincipal;
+    private final long totalPaid;
+
+    private ScheduleTable(long[] principalPaid, long[] interestPaid, long[] totalPayment, long[] remainingBalance,
+            long monthlyPayment) {
+        this.principalPaid = principalPaid;
+        this.interestPaid = interestPaid;
+        this.totalPayment = totalPayment;
+        this.remainingBalance = remainingBalance;
+        this.monthlyPayment = monthlyPayment;
+
+        // Součty u extrémních jistin přetečou long; výpočet pak skončí výjimkou místo chybných součtů
+        long interestSum = 0;
+        long principalSum = 0;
+        for (int i = 0; i < principalPaid.length; i++) {
+            interestSum = Math.addExact(interestSum, interestPaid[i]);
+            principalSum = Math.addExact(principalSum, principalPaid[i]);
+        }
+        this.totalInterest = interestSum;
+        this.totalPrincipal = principalSum;
+        this.totalPaid = Math.multiplyExact(monthlyPayment, principalPaid.length);
+    }
+
+    /**
+     * Vygeneruje sloupcový splátkový kalendář celočíselným výpočtem.
+     *
+     * @param principal Výše úvěru v haléřích.
+     * @param monthlyRate Měsíční úroková sazba v měřítku {@link FixedPointLoanCalculator#RATE_ONE}.
+     * @param loanTermMonths Doba splácení úvěru v měsících.
+     * @return Splátkový kalendář.
+     * @throws ArithmeticException Pokud se součty kalendáře nevejdou do long.
+     */
+    public static ScheduleTable generate(long principal, long monthlyRate, int loanTermMonths) {
+        FixedPointLoanCalculator.checkTerm(loanTermMonths);
+        long[] principalPaid = new long[loanTermMonths];
+        long[] interestPaid = new long[loanTermMonths];
+        long[] totalPayment = new long[loanTermMonths];
+        long[] remainingBalance = new long[loanTermMonths];
+
+        long monthlyPayment = FixedPointLoanCalculator.generatePaymentSchedule(principal, monthlyRate, loanTermMonths,
+                (month, principalPart, interestPart, total, balance) -> {
+                    principalPaid[month - 1] = principalPart;
+                    interestPaid[month - 1] = interestPart;
+                    totalPayment[month - 1] = total;
+                    remainingBalance[month - 1] = balance;
+                });
+
+        return new ScheduleTable(principalPaid, interestPaid, totalPayment, remainingBalance, monthlyPayment);
+    }
+
+    /**
+     * Vrátí splátku jako objekt Payment. Objekt se vytváří při každém volání.
+     * Splátka je shodná s {@link LoanCalculator#generatePaymentSchedule} včetně měřítka:
+     * zůstatek po poslední splátce je {@link BigDecimal#ZERO}.
+     *
+     * @param index Index splátky (od 0).
+     * @return Splátka.
+     */
+    @Override
+    public Payment get(int index) {
+        return new Payment(index + 1,
+                FixedPointLoanCalculator.toBigDecimal(principalPaid[index]),
+                FixedPointLoanCalculator.toBigDecimal(interestPaid[index]),
+                FixedPointLoanCalculator.toBigDecimal(totalPayment[index]),
+                index == remainingBalance.length - 1 ? BigDecimal.ZERO
+                        : FixedPointLoanCalculator.toBigDecimal(remainingBalance[index]));
+    }
+
+    @Override
+    public int size() {
+        return principalPaid.length;
+    }
+
+    // Přístup ke sloupcům bez vytváření objektů (částky v haléřích, index od 0)
+    public long getPrincipalPaid(int index) {
+        return principalPaid[index];
+    }
+
+    public long getInterestPaid(int index) {
+        return interestPaid[index];
+    }
+
+    public long getTotalPayment(int index) {
+        return totalPayment[index];
+    }
+
+    public long getRemainingBalance(int index) {
+        return remainingBalance[index];
+    }
+
+    /**
+     * @return Pravidelná měsíční splátka v haléřích.
+     */
+    public long getMonthlyPayment() {
+        return monthlyPayment;
+    }
+
+    /**
+     * @return Součet zaplacených úroků v haléřích.
+     */
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    /**
+     * @return Součet zaplacené jistiny v haléřích.
+     */
+    public long getTotalPrincipal() {
+        return totalPrincipal;
+    }
+
+    /**
+     * Celkem zaplaceno, počítáno jako pravidelná splátka × počet měsíců
+     * (stejně jako v souhrnu aplikace a v exportu do CSV).
+     *
+     * @return Celkem zaplaceno v haléřích.
+     */
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    /**
+     * @return Souhrnné údaje kalendáře.
+     */
+    public LoanSummary getSummary() {
+        return new LoanSummary(totalPrincipal, monthlyPayment, principalPaid.length, totalInterest);
+    }
+
+    // Souhrnné údaje jako BigDecimal pro zobrazení
+    public BigDecimal getMonthlyPaymentAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(monthlyPayment);
+    }
+
+    public BigDecimal getTotalInterestAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(totalInterest);
+    }
+
+    public BigDecimal getTotalPrincipalAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(totalPrincipal);
+    }
+
+    public BigDecimal getTotalPaidAmount() {
+        return FixedPointLoanCalculator.toBigDecimal(getTotalPaid());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.loan;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Model tabulky splátkového kalendáře postavený přímo nad {@link ScheduleTable}.
+ * Model si nedrží žádné vlastní řádky: hodnoty buněk se čtou ze sloupců kalendáře a formátují
+ * až ve chvíli, kdy si je tabulka vyžádá, tedy jen pro řádky, které se skutečně vykreslují.
+ * Při výměně kalendáře se tabulce hlásí jen řádky, které se skutečně změnily
+ * (a případně přidané nebo odebrané řádky na konci), takže zůstane zachovaný výběr i posun.
+ * Částky se formátují podle nastaveného {@link CurrencyFormat} (bez symbolu měny).
+ * <p>
+ * Stejně jako ostatní komponenty Swingu se model používá jen z Event Dispatch Thread.
+ */
+public class ScheduleTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMN_NAMES = { "Měsíc", "Jistina", "Úrok", "Celkem", "Zbývá" };
+
+    // Zobrazený kalendář, nebo null, pokud ještě nebyl spočítán
+    private transient ScheduleTable schedule;
+    // Formát částek v buňkách
+    private transient CurrencyFormat currencyFormat = CurrencyFormat.CZK;
+
+    /**
+     * Nahradí zobrazený kalendář. Tabulka dostane událost jen pro rozsah řádků, ve kterém
+     * se nový kalendář od starého liší, a pro řádky přidané nebo odebrané na konci.
+     *
+     * @param schedule Nový kalendář, nebo null pro prázdnou tabulku.
+     */
+    public void setSchedule(ScheduleTable schedule) {
+        ScheduleTable previous = this.schedule;
+        this.schedule = schedule;
+        if (previous == null || schedule == null) {
+            fireTableDataChanged();
+            return;
+        }
+
+        // Rozsah změněných řádků ve společné části obou kalendářů
+        int common = Math.min(previous.size(), schedule.size());
+        int first = 0;
+        while (first < common && sameRow(previous, schedule, first)) {
+            first++;
+        }
+        int last = common - 1;
+        while (last > first && sameRow(previous, schedule, last)) {
+            last--;
+        }
+        if (first < common) {
+            fireTableRowsUpdated(first, last);
+        }
+
+        if (schedule.size() > common) {
+            fireTableRowsInserted(common, schedule.size() - 1);
+        } else if (previous.size() > common) {
+            fireTableRowsDeleted(common, previous.size() - 1);
+        }
+    }
+
+    /**
+     * Změní formát částek; překreslí se všechny řádky, kalendář se nepočítá znovu.
+     *
+     * @param currencyFormat Formát částek.
+     */
+    public void setCurrencyFormat(CurrencyFormat currencyFormat) {
+        this.currencyFormat = currencyFormat;
+        if (getRowCount() > 0) {
+            fireTableRowsUpdated(0, getRowCount() - 1);
+        }
+    }
+
+    public CurrencyFormat getCurrencyFormat() {
+        return currencyFormat;
+    }
+
+    /**
+     * @return Zobrazený kalendář, nebo null.
+     */
+    public ScheduleTable getSchedule() {
+        return schedule;
+    }
+
+    @Override
+    public int getRowCount() {
+        return schedule == null ? 0 : schedule.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    /**
+     * Vrátí hodnotu buňky; částky se formátují až zde, při vykreslení řádku.
+     */
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0:
+                return row + 1;
+            case 1:
+                return formatAmount(schedule.getPrincipalPaid(row));
+            case 2:
+                return formatAmount(schedule.getInterestPaid(row));
+            case 3:
+                return formatAmount(schedule.getTotalPayment(row));
+            case 4:
+                return formatAmount(schedule.getRemainingBalance(row));
+            default:
+                throw new IndexOutOfBoundsException("Neplatný sloupec: " + column);
+        }
+    }
+
+    private static boolean sameRow(ScheduleTable a, ScheduleTable b, int row) {
+        return a.getPrincipalPaid(row) == b.getPrincipalPaid(row)
+                && a.getInterestPaid(row) == b.getInterestPaid(row)
+                && a.getTotalPayment(row) == b.getTotalPayment(row)
+                && a.getRemainingBalance(row) == b.getRemainingBalance(row);
+    }
+
+    private String formatAmount(long minorUnits) {
+        return currencyFormat.formatMinorUnits(minorUnits);
+    }
+}
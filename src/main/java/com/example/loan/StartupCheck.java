@@ -0,0 +1,88 @@
+package com.example.loan;
+
+import javax.swing.JRootPane;
+import javax.swing.SwingUtilities;
+import java.awt.GraphicsEnvironment;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Měření startu aplikace ({@code Main --startup-check [calculate]}): otevře okno, po prvním
+ * vykreslení (s {@code calculate} až po zobrazení ukázkového kalendáře s grafem) vypíše
+ * špičkovou velikost rezidentní paměti a ukončí JVM. Režim používá benchmark doby startu
+ * a tréninkový běh pro archiv tříd (profil {@code cds}).
+ * <p>
+ * Kód s třídami AWT je v samostatné třídě, aby se při spuštění serveru přes {@link Main}
+ * nenačetla žádná třída AWT ani Swingu.
+ */
+public class StartupCheck {
+
+    // Prefix řádku s výsledkem, který čte benchmark doby startu
+    public static final String PEAK_RSS_PREFIX = "startup.peak_rss_kb ";
+
+    private StartupCheck() {
+    }
+
+    /**
+     * Otevře okno v EDT a po jeho prvním vykreslení ukončí JVM. Bez grafického prostředí
+     * ukončí JVM hned s kódem 1.
+     *
+     * @param calculate true, pokud se má před ukončením zobrazit ukázkový kalendář s grafem.
+     */
+    public static void run(boolean calculate) {
+        if (GraphicsEnvironment.isHeadless()) {
+            // Bez displeje by tréninkový běh archivu tříd skončil bez chyby, ale s neúplným seznamem tříd
+            System.err.println("Měření startu potřebuje grafické prostředí.");
+            System.exit(1);
+        }
+        SwingUtilities.invokeLater(() -> {
+            LoanCalculatorUI ui = new LoanCalculatorUI();
+            exitAfterFirstPaint(ui, calculate);
+            ui.setVisible(true);
+        });
+    }
+
+    /**
+     * Po otevření okna ho hned vykreslí, vypíše špičkovou velikost rezidentní paměti
+     * a ukončí JVM.
+     */
+    private static void exitAfterFirstPaint(LoanCalculatorUI ui, boolean calculate) {
+        ui.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                if (calculate) {
+                    // Stejné vstupy, jaké má okno předvyplněné
+                    ui.showSchedule(ScheduleTable.generate(
+                            FixedPointLoanCalculator.toMinorUnits(new BigDecimal("100000")),
+                            FixedPointLoanCalculator.monthlyInterestRate(new BigDecimal("5.0")), 120));
+                    ui.validate();
+                }
+                JRootPane rootPane = ui.getRootPane();
+                rootPane.paintImmediately(0, 0, rootPane.getWidth(), rootPane.getHeight());
+                System.out.println(PEAK_RSS_PREFIX + peakRssKilobytes());
+                System.exit(0);
+            }
+        });
+    }
+
+    /**
+     * @return Špičková velikost rezidentní paměti procesu v kB, nebo -1, pokud ji systém
+     *         neposkytuje (údaj se čte z /proc, tedy jen na Linuxu).
+     */
+    private static long peakRssKilobytes() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Údaj je jen doplňkový
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.loan;
+
+import java.util.SplittableRandom;
+
+/**
+ * Vasičkův model sazby dr = a (b - r) dt + σ dW. Sazba se vrací k dlouhodobé úrovni b
+ * rychlostí a a kolísá s volatilitou σ; může být i záporná.
+ * Krok se počítá přesně (ne Eulerovou aproximací), takže nezávisí na délce období.
+ */
+public class VasicekRateModel implements RateModel {
+
+    // Rychlost návratu k dlouhodobé úrovni (za rok)
+    private final double meanReversion;
+    // Dlouhodobá úroveň sazby v procentech
+    private final double longTermRate;
+    // Volatilita v procentních bodech za odmocninu roku
+    private final double volatility;
+
+    /**
+     * @param meanReversion Rychlost návratu k dlouhodobé úrovni a (za rok, nezáporná).
+     * @param longTermRate Dlouhodobá úroveň sazby b v procentech.
+     * @param volatility Volatilita σ v procentních bodech za odmocninu roku (nezáporná).
+     */
+    public VasicekRateModel(double meanReversion, double longTermRate, double volatility) {
+        if (meanReversion < 0 || volatility < 0) {
+            throw new IllegalArgumentException("Rychlost návratu i volatilita musí být nezáporné: "
+                    + meanReversion + ", " + volatility);
+        }
+        this.meanReversion = meanReversion;
+        this.longTermRate = longTermRate;
+        this.volatility = volatility;
+    }
+
+    @Override
+    public double nextRate(double currentRate, double years, SplittableRandom random) {
+        double gaussian = nextGaussian(random);
+        if (meanReversion == 0) {
+            return currentRate + volatility * Math.sqrt(years) * gaussian;
+        }
+        double decay = Math.exp(-meanReversion * years);
+        double mean = currentRate * decay + longTermRate * (1 - decay);
+        double deviation = volatility * Math.sqrt(-Math.expm1(-2 * meanReversion * years) / (2 * meanReversion));
+        return mean + deviation * gaussian;
+    }
+
+    /**
+     * Normálně rozdělené číslo polární Marsagliovou metodou (SplittableRandom v Javě 11
+     * nextGaussian nemá). Druhá vygenerovaná hodnota se zahazuje, aby model zůstal bez stavu.
+     */
+    static double nextGaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    public double getMeanReversion() {
+        return meanReversion;
+    }
+
+    public double getLongTermRate() {
+        return longTermRate;
+    }
+
+    public double getVolatility() {
+        return volatility;
+    }
+
+    @Override
+    public String toString() {
+        return "VasicekRateModel{" +
+               "meanReversion=" + meanReversion +
+               ", longTermRate=" + longTermRate +
+               ", volatility=" + volatility +
+               '}';
+    }
+}
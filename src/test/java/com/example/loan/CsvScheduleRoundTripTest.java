@@ -0,0 +1,211 @@
+package com.example.loan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zápis kalendáře do CSV ({@link CsvExporter}) a zpětné načtení ({@link CsvScheduleReader}) pro všechny
+ * oddělovače z okna aplikace a pro měnu jinou než CZK: řádky i souhrnné údaje v hlavičce se musí
+ * shodovat s výpočtem na haléř. Pokrývá i ověření kalendáře ({@link CsvScheduleReader#verify})
+ * a převod do binárního souboru a zpět ({@link BinaryScheduleWriter#importCsv},
+ * {@link BinaryScheduleFile#exportToCsv}).
+ */
+class CsvScheduleRoundTripTest {
+
+    // Oddělovače, které nabízí dialog exportu v LoanCalculatorUI
+    private static final String[] DELIMITERS = { ",", ";", "\t", "|" };
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    // Výše úvěru, roční sazba a doba splácení
+    private static final String[][] LOANS = {
+            { "100000", "5.0", "120" },
+            { "3500000.55", "5.49", "360" },
+            { "0.01", "0", "1" },
+            { "250000", "0", "84" },
+            { "1000000", "-2.5", "240" },
+            { "999999999.99", "1000", "1200" },
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void streamedExportReadsBackExactly() throws IOException {
+        for (String delimiter : DELIMITERS) {
+            for (Currency currency : new Currency[] { CsvStreamWriter.DEFAULT_CURRENCY, EUR }) {
+                for (String[] values : LOANS) {
+                    LoanSpec loan = loan(values, currency);
+                    Path file = directory.resolve("loan.csv");
+                    CsvExporter.exportLoanToCsv(loan, file.toString(), delimiter);
+                    assertReadsBack(loan, delimiter, file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void paymentListExportReadsBackExactly() throws IOException {
+        for (String delimiter : DELIMITERS) {
+            for (String[] values : LOANS) {
+                LoanSpec loan = loan(values, CsvStreamWriter.DEFAULT_CURRENCY);
+                Path file = directory.resolve("payments.csv");
+                CsvExporter.exportScheduleToCsv(LoanCalculator.generatePaymentSchedule(loan.getPrincipal(),
+                        loan.getAnnualInterestRate(), loan.getLoanTermMonths()), file.toString(), loan.getPrincipal(),
+                        loan.getAnnualInterestRate(), loan.getLoanTermMonths(), delimiter);
+                assertReadsBack(loan, delimiter, file);
+            }
+        }
+    }
+
+    @Test
+    void verifyReportsNoDriftForExportedSchedule() throws IOException {
+        for (String delimiter : DELIMITERS) {
+            for (String[] values : LOANS) {
+                LoanSpec loan = loan(values, EUR);
+                Path file = directory.resolve("verify.csv");
+                CsvExporter.exportLoanToCsv(loan, file.toString(), delimiter);
+                ScheduleDriftReport report = new CsvScheduleReader().verify(file);
+                assertFalse(report.hasDrift(), () -> report.toString());
+                assertEquals(loan.getLoanTermMonths(), report.getExpectedRowCount());
+                assertEquals(0, report.getFirstMismatchMonth());
+            }
+        }
+    }
+
+    @Test
+    void verifyFindsChangedRow() throws IOException {
+        LoanSpec loan = loan(LOANS[1], CsvStreamWriter.DEFAULT_CURRENCY);
+        List<Payment> schedule = new ArrayList<>(LoanCalculator.generatePaymentSchedule(loan.getPrincipal(),
+                loan.getAnnualInterestRate(), loan.getLoanTermMonths()));
+        // Úrok v 25. měsíci o haléř vyšší
+        Payment original = schedule.get(24);
+        schedule.set(24, new Payment(25, original.getPrincipalPaid(),
+                original.getInterestPaid().add(new BigDecimal("0.01")), original.getTotalPayment(),
+                original.getRemainingBalance()));
+        for (String delimiter : DELIMITERS) {
+            Path file = directory.resolve("drift.csv");
+            CsvExporter.exportScheduleToCsv(schedule, file.toString(), loan.getPrincipal(),
+                    loan.getAnnualInterestRate(), loan.getLoanTermMonths(), delimiter);
+            ScheduleDriftReport report = new CsvScheduleReader().verify(file);
+            assertTrue(report.hasDrift());
+            assertEquals(1, report.getMismatchedRows());
+            assertEquals(25, report.getFirstMismatchMonth());
+            assertEquals(1, report.getMaxRowDrift());
+            assertEquals(1, report.getTotalInterestDrift());
+            assertEquals(0, report.getMonthlyPaymentDrift());
+        }
+    }
+
+    @Test
+    void binaryFileRoundTripKeepsCsvIdentical() throws IOException {
+        for (String delimiter : DELIMITERS) {
+            Path binary = directory.resolve("schedules.bin");
+            List<Path> sources = new ArrayList<>();
+            try (BinaryScheduleWriter writer = new BinaryScheduleWriter(binary)) {
+                for (int i = 0; i < LOANS.length; i++) {
+                    LoanSpec loan = loan(LOANS[i], CsvStreamWriter.DEFAULT_CURRENCY);
+                    Path source = directory.resolve("source" + i + ".csv");
+                    CsvExporter.exportLoanToCsv(loan, source.toString(), delimiter);
+                    assertEquals(i, writer.importCsv(source));
+                    sources.add(source);
+                }
+            }
+            try (BinaryScheduleFile file = BinaryScheduleFile.open(binary)) {
+                assertEquals(LOANS.length, file.getLoanCount());
+                for (int i = 0; i < LOANS.length; i++) {
+                    LoanSpec loan = loan(LOANS[i], CsvStreamWriter.DEFAULT_CURRENCY);
+                    LoanSummary summary = LoanSummary.calculate(loan);
+                    assertEquals(loan.getPrincipalMinorUnits(), file.getPrincipal(i));
+                    assertEquals(loan.getLoanTermMonths(), file.getRowCount(i));
+                    assertEquals(summary.getMonthlyPayment(), file.getMonthlyPayment(i));
+                    assertEquals(summary.getTotalInterest(), file.getTotalInterest(i));
+                    assertEquals(summary.getTotalPaid(), file.getTotalPaid(i));
+                    assertEquals(expectedRows(loan), rows(file, i));
+
+                    // Stejný oddělovač dá bajt po bajtu stejný soubor, jaký se importoval
+                    Path exported = directory.resolve("exported" + i + ".csv");
+                    file.exportToCsv(i, exported.toString(), delimiter);
+                    assertArrayEquals(Files.readAllBytes(sources.get(i)), Files.readAllBytes(exported),
+                            () -> "Oddělovač '" + delimiter + "'");
+                }
+            }
+        }
+    }
+
+    @Test
+    void binaryImportRejectsOtherCurrency() throws IOException {
+        Path source = directory.resolve("eur.csv");
+        CsvExporter.exportLoanToCsv(loan(LOANS[0], EUR), source.toString(), ";");
+        try (BinaryScheduleWriter writer = new BinaryScheduleWriter(directory.resolve("eur.bin"))) {
+            assertThrows(IllegalArgumentException.class, () -> writer.importCsv(source));
+        }
+    }
+
+    /**
+     * Načte soubor a porovná hlavičku i všechny řádky s výpočtem.
+     */
+    private static void assertReadsBack(LoanSpec loan, String delimiter, Path file) throws IOException {
+        List<long[]> rows = new ArrayList<>();
+        CsvScheduleHeader header = new CsvScheduleReader().read(file, (month, principalPaid, interestPaid,
+                totalPayment, remainingBalance) -> rows.add(new long[] { month, principalPaid, interestPaid,
+                        totalPayment, remainingBalance }));
+        String message = "Oddělovač '" + delimiter + "', " + loan;
+        LoanSummary summary = LoanSummary.calculate(loan);
+        assertEquals(delimiter, header.getDelimiter(), message);
+        assertEquals(loan.getCurrency(), header.getCurrency(), message);
+        assertEquals(loan.getPrincipalMinorUnits(), header.getPrincipal(), message);
+        assertEquals(0, loan.getAnnualInterestRate().compareTo(header.getAnnualInterestRate()), message);
+        assertEquals(loan.getLoanTermMonths(), header.getLoanTermMonths(), message);
+        assertEquals(summary.getMonthlyPayment(), header.getMonthlyPayment(), message);
+        assertEquals(summary.getTotalInterest(), header.getTotalInterest(), message);
+        assertEquals(summary.getTotalPaid(), header.getTotalPaid(), message);
+        assertEquals(loan.getLoanTermMonths(), header.getRowCount(), message);
+        assertNotNull(header.getExportTime(), message);
+        assertEquals(expectedRows(loan), toStrings(rows), message);
+    }
+
+    private static List<String> expectedRows(LoanSpec loan) {
+        List<long[]> rows = new ArrayList<>();
+        FixedPointLoanCalculator.generatePaymentSchedule(loan.getPrincipalMinorUnits(), loan.getMonthlyRate(),
+                loan.getLoanTermMonths(), (month, principalPaid, interestPaid, totalPayment, remainingBalance) ->
+                        rows.add(new long[] { month, principalPaid, interestPaid, totalPayment, remainingBalance }));
+        return toStrings(rows);
+    }
+
+    private static List<String> rows(BinaryScheduleFile file, int loan) {
+        List<long[]> rows = new ArrayList<>();
+        file.forEach(loan, (month, principalPaid, interestPaid, totalPayment, remainingBalance) ->
+                rows.add(new long[] { month, principalPaid, interestPaid, totalPayment, remainingBalance }));
+        return toStrings(rows);
+    }
+
+    // Řádky jako text, aby chybové hlášení ukázalo, který řádek se liší
+    private static List<String> toStrings(List<long[]> rows) {
+        List<String> result = new ArrayList<>(rows.size());
+        for (long[] row : rows) {
+            result.add(Arrays.toString(row));
+        }
+        return result;
+    }
+
+    private static LoanSpec loan(String[] values, Currency currency) {
+        return new LoanSpec(null, new BigDecimal(values[0]), new BigDecimal(values[1]), Integer.parseInt(values[2]),
+                currency);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.loan;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Shoda celočíselného výpočtu ({@link FixedPointLoanCalculator}) s výpočtem v BigDecimal
+ * ({@link LoanCalculator}) až na haléř: splátka a každý řádek kalendáře pro náhodná zadání
+ * s pevným semínkem, včetně nulové a záporné sazby a doby splácení až 1200 měsíců.
+ * <p>
+ * Výchozí počty zadání jsou zvolené tak, aby test doběhl během běžného sestavení. Pro důkladné
+ * ověření je lze zvýšit, např. {@code mvn test -Dparity.payments=1000000 -Dparity.schedules=1000000}
+ * (takový běh trvá asi deset minut, většinu času zabere referenční výpočet v BigDecimal).
+ */
+class FixedPointLoanCalculatorParityTest {
+
+    private static final long SEED = 20240601L;
+    private static final int PAYMENTS = Integer.getInteger("parity.payments", 20_000);
+    private static final int SCHEDULES = Integer.getInteger("parity.schedules", 5_000);
+
+    @Test
+    void monthlyPaymentMatchesBigDecimal() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < PAYMENTS; i++) {
+            BigDecimal principal = randomPrincipal(random);
+            BigDecimal rate = randomRate(random);
+            int term = randomTerm(random);
+            assertPaymentMatches(principal, rate, term);
+        }
+    }
+
+    @Test
+    void scheduleMatchesBigDecimalRowByRow() {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        for (int i = 0; i < SCHEDULES; i++) {
+            assertScheduleMatches(randomPrincipal(random), randomRate(random), randomTerm(random));
+        }
+    }
+
+    @Test
+    void edgeCasesMatchBigDecimal() {
+        String[] principals = { "0.01", "1.00", "100000", "3500000.55", "999999999.99" };
+        String[] rates = { "0", "0.01", "-0.01", "-5.25", "-100", "5.49", "20", "1000" };
+        int[] terms = { 1, 2, 12, 360, 1199, 1200 };
+        for (String principal : principals) {
+            for (String rate : rates) {
+                for (int term : terms) {
+                    assertPaymentMatches(new BigDecimal(principal), new BigDecimal(rate), term);
+                    assertScheduleMatches(new BigDecimal(principal), new BigDecimal(rate), term);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rateRoundedToZeroFailsLikeBigDecimal() {
+        BigDecimal principal = new BigDecimal("100000");
+        BigDecimal rate = new BigDecimal("0.00000001");
+        assertThrows(ArithmeticException.class, () -> LoanCalculator.calculateMonthlyPayment(principal, rate, 120));
+        assertThrows(ArithmeticException.class,
+                () -> FixedPointLoanCalculator.calculateMonthlyPayment(principal, rate, 120));
+    }
+
+    private static void assertPaymentMatches(BigDecimal principal, BigDecimal rate, int term) {
+        long expected = LoanCalculator.calculateMonthlyPayment(principal, rate, term).unscaledValue().longValueExact();
+        long actual = FixedPointLoanCalculator.calculateMonthlyPayment(principal, rate, term);
+        assertEquals(expected, actual, () -> "Splátka pro " + describe(principal, rate, term));
+    }
+
+    private static void assertScheduleMatches(BigDecimal principal, BigDecimal rate, int term) {
+        List<Payment> expected = LoanCalculator.generatePaymentSchedule(principal, rate, term);
+        int[] rows = new int[1];
+        FixedPointLoanCalculator.generatePaymentSchedule(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.monthlyInterestRate(rate), term,
+                (month, principalPaid, interestPaid, totalPayment, remainingBalance) -> {
+                    Payment payment = expected.get(month - 1);
+                    assertEquals(payment.getMonthNumber(), month);
+                    assertRow(payment.getPrincipalPaid(), principalPaid, "jistina", month, principal, rate, term);
+                    assertRow(payment.getInterestPaid(), interestPaid, "úrok", month, principal, rate, term);
+                    assertRow(payment.getTotalPayment(), totalPayment, "splátka", month, principal, rate, term);
+                    assertRow(payment.getRemainingBalance(), remainingBalance, "zůstatek", month, principal, rate,
+                            term);
+                    rows[0]++;
+                });
+        assertEquals(term, rows[0], () -> "Počet řádků pro " + describe(principal, rate, term));
+
+        // ScheduleTable nahrazuje seznam z LoanCalculator, shodovat se musí i měřítko částek
+        List<Payment> table = ScheduleTable.generate(FixedPointLoanCalculator.toMinorUnits(principal),
+                FixedPointLoanCalculator.monthlyInterestRate(rate), term);
+        assertEquals(expected.toString(), table.toString(),
+                () -> "ScheduleTable pro " + describe(principal, rate, term));
+    }
+
+    private static void assertRow(BigDecimal expected, long actual, String column, int month, BigDecimal principal,
+            BigDecimal rate, int term) {
+        assertEquals(FixedPointLoanCalculator.toMinorUnits(expected), actual,
+                () -> column + " v měsíci " + month + " pro " + describe(principal, rate, term));
+    }
+
+    /**
+     * Výše úvěru od 0,01 do 10^9 s logaritmicky rovnoměrným rozdělením.
+     */
+    private static BigDecimal randomPrincipal(SplittableRandom random) {
+        long minorUnits = Math.max(1, (long) Math.pow(10, random.nextDouble() * 11));
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+
+    /**
+     * Roční sazba se dvěma desetinnými místy: většinou běžné sazby do 20 %, část nulových,
+     * záporných a vysokých až do mezí povolených v {@link LoanSpec}.
+     */
+    private static BigDecimal randomRate(SplittableRandom random) {
+        int kind = random.nextInt(10);
+        if (kind == 0) {
+            return BigDecimal.ZERO;
+        }
+        if (kind == 1) {
+            return BigDecimal.valueOf(-random.nextInt(1, 10_001), 2);
+        }
+        if (kind == 2) {
+            return BigDecimal.valueOf(random.nextInt(-10_000, 100_001), 2);
+        }
+        return BigDecimal.valueOf(random.nextInt(1, 2_001), 2);
+    }
+
+    /**
+     * Doba splácení 1 až 1200 měsíců; čtvrtina zadání má nejdelší dobu splácení.
+     */
+    private static int randomTerm(SplittableRandom random) {
+        return random.nextInt(4) == 0 ? LoanSpec.MAX_LOAN_TERM_MONTHS
+                : random.nextInt(1, LoanSpec.MAX_LOAN_TERM_MONTHS + 1);
+    }
+
+    private static String describe(BigDecimal principal, BigDecimal rate, int term) {
+        return "principal=" + principal + ", rate=" + rate + ", term=" + term;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.loan;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shoda ručního zápisu čísel ({@link NumberFormatter}, {@link CurrencyFormat}) s původním
+ * {@code DecimalFormat("#,##0.00")} s mezerou jako oddělovačem tisícovek a čárkou jako desetinným
+ * oddělovačem, znak po znaku pro všechny způsoby zápisu: řetězec, StringBuilder, pole znaků
+ * a ByteBuffer v UTF-8. Náhodné hodnoty mají pevné semínko; pokrývají přesné poloviny setin,
+ * záporná čísla, -0.0, NaN, nekonečno, null i hodnoty, které se v haléřích nevejdou do long.
+ * <p>
+ * Počet náhodných hodnot lze zvýšit, např. {@code mvn test -Dparity.values=10000000}.
+ */
+class NumberFormatterParityTest {
+
+    private static final long SEED = 20240617L;
+    private static final int VALUES = Integer.getInteger("parity.values", 100_000);
+
+    @Test
+    void bigDecimalMatchesDecimalFormat() {
+        DecimalFormat reference = reference(CurrencyFormat.CZK);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < VALUES; i++) {
+            assertBigDecimal(reference, randomBigDecimal(random));
+        }
+    }
+
+    @Test
+    void halfTiesMatchDecimalFormat() {
+        DecimalFormat reference = reference(CurrencyFormat.CZK);
+        // Přesné poloviny setin se sudou i lichou předchozí číslicí, kladné i záporné
+        String[] ties = { "0.005", "0.015", "0.025", "0.125", "0.135", "1.005", "2.675", "999.995", "-0.005",
+                "-0.015", "-0.125", "-0.135", "-999.995", "0.0050", "0.00500000", "12345678901234567.885",
+                "12345678901234567.895", "123456789012345678901234567.005", "-123456789012345678901234567.015" };
+        for (String tie : ties) {
+            assertBigDecimal(reference, new BigDecimal(tie));
+        }
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        for (int i = 0; i < VALUES; i++) {
+            // Setiny s pětkou na dalším místě, případně s nulami za ní
+            long unscaled = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L) * 10 + 5;
+            int zeros = random.nextInt(4);
+            BigDecimal tie = BigDecimal.valueOf(unscaled, 3).setScale(3 + zeros);
+            assertBigDecimal(reference, tie);
+            assertDouble(reference, tie.doubleValue());
+        }
+    }
+
+    @Test
+    void specialValuesMatchDecimalFormat() {
+        DecimalFormat reference = reference(CurrencyFormat.CZK);
+        String[] values = { "0", "-0", "0.00", "-0.001", "-0.004", "0.004", "1E+3", "1E-20", "-1E-20", "999.999",
+                "-999.999", "9223372036854775807", "-9223372036854775808", "92233720368547758.07",
+                "-92233720368547758.08", "92233720368547758.08", "-92233720368547758.09", "1E+30", "-1E+30" };
+        for (String value : values) {
+            assertBigDecimal(reference, new BigDecimal(value));
+        }
+        assertBigDecimal(reference, null);
+
+        double[] doubles = { 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 0.125, -0.125, 0.375,
+                2.675, 1.005, 1e15 + 0.125, 1e17, 1e22, -1e22, 0.1 + 0.2 };
+        for (double value : doubles) {
+            assertDouble(reference, value);
+        }
+
+        long[] minorUnits = { 0, 1, -1, 99, -99, 100, -100, 123_456_789, -123_456_789, Long.MAX_VALUE,
+                Long.MIN_VALUE, Long.MIN_VALUE + 1 };
+        for (long units : minorUnits) {
+            assertMinorUnits(reference, units);
+        }
+    }
+
+    @Test
+    void doubleMatchesDecimalFormat() {
+        DecimalFormat reference = reference(CurrencyFormat.CZK);
+        SplittableRandom random = new SplittableRandom(SEED + 2);
+        for (int i = 0; i < VALUES; i++) {
+            double magnitude = Math.pow(10, random.nextInt(-6, 20));
+            double value = random.nextDouble(-1, 1) * magnitude;
+            assertDouble(reference, value);
+            // Částky se třemi desetinnými místy, jejichž binární hodnota leží těsně vedle poloviny
+            assertDouble(reference, random.nextLong(-100_000_000, 100_000_000) / 1000.0);
+        }
+    }
+
+    @Test
+    void minorUnitsMatchDecimalFormat() {
+        DecimalFormat reference = reference(CurrencyFormat.CZK);
+        SplittableRandom random = new SplittableRandom(SEED + 3);
+        for (int i = 0; i < VALUES; i++) {
+            long units = random.nextLong() >> random.nextInt(64);
+            assertMinorUnits(reference, units);
+        }
+    }
+
+    @Test
+    void otherCurrenciesMatchDecimalFormat() {
+        SplittableRandom random = new SplittableRandom(SEED + 4);
+        for (CurrencyFormat format : new CurrencyFormat[] { CurrencyFormat.EUR, CurrencyFormat.PLN }) {
+            DecimalFormat reference = reference(format);
+            String suffix = format.formatCurrencyMinorUnits(0).substring(format.formatMinorUnits(0).length());
+            for (int i = 0; i < VALUES / 10; i++) {
+                BigDecimal value = randomBigDecimal(random);
+                assertForms(format, value == null ? "0,00" : reference.format(value), suffix, value);
+                long units = random.nextLong() >> random.nextInt(64);
+                assertEquals(reference.format(BigDecimal.valueOf(units, 2)) + suffix,
+                        format.formatCurrencyMinorUnits(units));
+            }
+            assertEquals(reference.format(Double.NaN) + suffix, format.formatCurrency(Double.NaN));
+            assertEquals(reference.format(-0.0) + suffix, format.formatCurrency(-0.0));
+        }
+    }
+
+    /**
+     * Porovná všechny způsoby zápisu BigDecimal přes {@link NumberFormatter} i {@link CurrencyFormat#CZK}.
+     */
+    private static void assertBigDecimal(DecimalFormat reference, BigDecimal value) {
+        // Původní NumberFormatter zapisoval null jako nulu
+        String expected = value == null ? "0,00" : reference.format(value);
+        String suffix = NumberFormatter.CURRENCY_SUFFIX;
+        String message = "Hodnota " + value;
+        assertEquals(expected, NumberFormatter.format(value), message);
+        assertEquals(expected + suffix, NumberFormatter.formatCurrency(value), message);
+        for (boolean currency : new boolean[] { false, true }) {
+            String text = expected + (currency ? suffix : "");
+            assertEquals("x" + text, NumberFormatter.append(new StringBuilder("x"), value, currency).toString(),
+                    message);
+            char[] chars = new char[64 + 3];
+            int end = NumberFormatter.write(chars, 3, value, currency);
+            assertEquals(text, new String(chars, 3, end - 3), message);
+            ByteBuffer buffer = ByteBuffer.allocate(128).put((byte) 'x');
+            NumberFormatter.put(buffer, value, currency);
+            assertEquals(text, utf8(buffer, 1), message);
+        }
+        assertForms(CurrencyFormat.CZK, expected, suffix, value);
+    }
+
+    private static void assertForms(CurrencyFormat format, String expected, String suffix, BigDecimal value) {
+        String message = format.getCurrencyCode() + " " + value;
+        assertEquals(expected, format.format(value), message);
+        assertEquals(expected + suffix, format.formatCurrency(value), message);
+        assertEquals(expected + suffix, format.append(new StringBuilder(), value, true).toString(), message);
+        char[] chars = new char[64];
+        assertEquals(expected + suffix, new String(chars, 0, format.write(chars, 0, value, true)), message);
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        assertEquals(expected + suffix, utf8(format.put(buffer, value, true), 0), message);
+    }
+
+    private static void assertDouble(DecimalFormat reference, double value) {
+        String expected = reference.format(value);
+        String message = "Hodnota " + value;
+        assertEquals(expected, NumberFormatter.format(value), message);
+        assertEquals(expected + NumberFormatter.CURRENCY_SUFFIX, NumberFormatter.formatCurrency(value), message);
+    }
+
+    /**
+     * Porovná zápis částky v haléřích a ověří, že se vejde do {@link NumberFormatter#MAX_LENGTH} znaků.
+     */
+    private static void assertMinorUnits(DecimalFormat reference, long units) {
+        String expected = reference.format(BigDecimal.valueOf(units, 2));
+        String suffix = NumberFormatter.CURRENCY_SUFFIX;
+        String message = "Haléře " + units;
+        assertEquals(expected, NumberFormatter.formatMinorUnits(units), message);
+        assertEquals(expected + suffix, NumberFormatter.formatCurrencyMinorUnits(units), message);
+        assertEquals(expected + suffix,
+                NumberFormatter.appendMinorUnits(new StringBuilder(), units, true).toString(), message);
+        char[] chars = new char[NumberFormatter.MAX_LENGTH];
+        assertEquals(expected + suffix, new String(chars, 0, NumberFormatter.writeMinorUnits(chars, 0, units, true)),
+                message);
+        ByteBuffer buffer = ByteBuffer.allocate(NumberFormatter.MAX_LENGTH + 1);
+        assertEquals(expected + suffix, utf8(NumberFormatter.putMinorUnits(buffer, units, true), 0), message);
+        assertTrue(buffer.position() <= CurrencyFormat.CZK.getMaxBytes(), message);
+    }
+
+    /**
+     * Původní formát z NumberFormatter se symboly národního prostředí měny.
+     */
+    private static DecimalFormat reference(CurrencyFormat format) {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols(format.getLocale());
+        symbols.setGroupingSeparator(' ');
+        symbols.setDecimalSeparator(',');
+        DecimalFormat reference = new DecimalFormat("#,##0.00", symbols);
+        reference.setGroupingSize(3);
+        return reference;
+    }
+
+    /**
+     * Náhodná hodnota s 1 až 30 platnými číslicemi a 0 až 8 desetinnými místy (i záporným měřítkem),
+     * občas null.
+     */
+    private static BigDecimal randomBigDecimal(SplittableRandom random) {
+        int kind = random.nextInt(100);
+        if (kind == 0) {
+            return null;
+        }
+        int scale = random.nextInt(-2, 9);
+        if (kind < 10) {
+            // Víc platných číslic, než se vejde do long
+            BigInteger unscaled = new BigInteger(random.nextInt(60, 100), new Random(random.nextLong()));
+            return new BigDecimal(random.nextBoolean() ? unscaled : unscaled.negate(), scale);
+        }
+        long unscaled = random.nextLong() >> random.nextInt(64);
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static String utf8(ByteBuffer buffer, int from) {
+        return new String(buffer.array(), from, buffer.position() - from, StandardCharsets.UTF_8);
+    }
+}